@@ -3,6 +3,7 @@ plugins {
     id("java-library")
     id("maven-publish")
     id("io.spring.dependency-management") version "1.1.7"
+    id("org.graalvm.buildtools.native") version "0.11.1" apply false
 }
 
 group = "com.intern.hub.starter"
@@ -15,10 +16,36 @@ java {
     }
 }
 
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+// Proxy-free application built as a native image by the nativeSmokeTest task
+val nativeSmoke: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+// Writes the change history to an in-memory H2 database, run by the historyCheck task
+val historyCheck: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
 configurations {
     compileOnly {
         extendsFrom(configurations.annotationProcessor.get())
     }
+    named(jmh.implementationConfigurationName) {
+        extendsFrom(configurations.implementation.get())
+    }
+    named(nativeSmoke.implementationConfigurationName) {
+        extendsFrom(configurations.implementation.get())
+    }
+    named(historyCheck.implementationConfigurationName) {
+        extendsFrom(configurations.implementation.get())
+    }
 }
 
 repositories {
@@ -42,6 +69,11 @@ dependencies {
     api("org.springframework:spring-context")
 
     implementation("org.springframework:spring-web")
+    compileOnly("org.springframework:spring-webmvc")
+    compileOnly("org.springframework:spring-webflux")
+    compileOnly("ch.qos.logback:logback-classic")
+    compileOnly("io.micrometer:micrometer-core")
+    compileOnly("org.springframework:spring-jdbc")
     implementation("org.springframework:spring-aop")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.aspectj:aspectjweaver")
@@ -51,12 +83,96 @@ dependencies {
     implementation("org.springframework.data:spring-data-jpa")
 
     implementation("com.github.FPT-IS-Intern:Intern-Hub-Common-Library:2.0.6")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhImplementation"("org.springframework:spring-test")
+    "jmhImplementation"("org.springframework:spring-webmvc")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+
+    "nativeSmokeImplementation"("org.springframework.boot:spring-boot-starter-webmvc")
+
+    "historyCheckImplementation"("org.springframework:spring-jdbc")
+    "historyCheckImplementation"("com.h2database:h2")
 }
 
 tasks.withType<JavaCompile> {
     options.compilerArgs.add("-parameters")
 }
 
+// Run with: ./gradlew jmh [-Pjmh.includes=SecurityFilterBenchmark]
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks with the GC profiler enabled."
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json")
+    doFirst { resultFile.get().asFile.parentFile.mkdirs() }
+    args("-prof", "gc", "-rf", "json", "-rff", resultFile.get().asFile.absolutePath)
+    providers.gradleProperty("jmh.includes").orNull?.let { args(it) }
+}
+
+val historyCheckTask = tasks.register<JavaExec>("historyCheck") {
+    group = "verification"
+    description = "Checks the change history DDL and batch inserts against an in-memory H2 database."
+    classpath = historyCheck.runtimeClasspath
+    mainClass = "com.intern.hub.starter.security.history.ChangeHistoryCheck"
+}
+
+tasks.named("check") {
+    dependsOn(historyCheckTask)
+}
+
+// Builds the nativeSmoke application as a GraalVM native image and runs it; needs a GraalVM JDK.
+// Run with: ./gradlew nativeSmokeTest -PnativeSmoke
+if (providers.gradleProperty("nativeSmoke").isPresent) {
+    apply(plugin = "org.graalvm.buildtools.native")
+
+    val aotSources = layout.buildDirectory.dir("generated/nativeSmokeAot/sources")
+    val aotResources = layout.buildDirectory.dir("generated/nativeSmokeAot/resources")
+    val aotClasses = layout.buildDirectory.dir("generated/nativeSmokeAot/classes")
+
+    val processNativeSmokeAot = tasks.register<JavaExec>("processNativeSmokeAot") {
+        group = "verification"
+        description = "Runs Spring AOT processing on the nativeSmoke application."
+        classpath = nativeSmoke.runtimeClasspath
+        mainClass = "org.springframework.boot.SpringApplicationAotProcessor"
+        outputs.dirs(aotSources, aotResources, aotClasses)
+        doFirst { listOf(aotSources, aotResources, aotClasses).forEach { delete(it) } }
+        args(
+            "com.intern.hub.starter.security.smoke.NativeSmokeApplication",
+            aotSources.get().asFile.absolutePath,
+            aotResources.get().asFile.absolutePath,
+            aotClasses.get().asFile.absolutePath,
+            project.group.toString(),
+            "security-native-smoke",
+        )
+    }
+
+    val nativeSmokeAot: SourceSet by sourceSets.creating {
+        java.srcDir(files(aotSources).builtBy(processNativeSmokeAot))
+        resources.srcDir(files(aotResources).builtBy(processNativeSmokeAot))
+        compileClasspath += nativeSmoke.runtimeClasspath
+        runtimeClasspath += nativeSmoke.runtimeClasspath + files(aotClasses).builtBy(processNativeSmokeAot)
+    }
+
+    configure<org.graalvm.buildtools.gradle.dsl.GraalVMExtension> {
+        binaries.create("smoke") {
+            imageName = "security-native-smoke"
+            mainClass = "com.intern.hub.starter.security.smoke.NativeSmokeApplication"
+            classpath(nativeSmokeAot.output, nativeSmokeAot.runtimeClasspath)
+        }
+    }
+
+    tasks.register<Exec>("nativeSmokeTest") {
+        group = "verification"
+        description = "Runs the nativeSmoke native image and fails if its security checks fail."
+        val image = tasks.named<org.graalvm.buildtools.gradle.tasks.BuildNativeImageTask>("nativeSmokeCompile")
+            .flatMap { it.outputFile }
+        inputs.file(image)
+        executable(image.get().asFile)
+    }
+}
+
 // Configure jar task to handle duplicate spring-configuration-metadata.json files
 tasks.named<org.gradle.jvm.tasks.Jar>("jar") {
     // Set duplicate strategy to allow both auto-generated and additional metadata
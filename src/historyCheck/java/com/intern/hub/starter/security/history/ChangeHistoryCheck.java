@@ -0,0 +1,93 @@
+package com.intern.hub.starter.security.history;
+
+import com.intern.hub.starter.security.entity.Action;
+import com.intern.hub.starter.security.entity.AuditEntity;
+import jakarta.persistence.Id;
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Checks the change history against an in-memory H2 database.
+ * <p>
+ * Creates the history table twice (the DDL must be idempotent), records an insert and an update
+ * of an entity with array and over-long values through a {@link ChangeHistoryWriter} with a small
+ * batch size, and verifies the written rows. Run by {@code ./gradlew historyCheck}, which is part
+ * of {@code check}; a failure ends with a non-zero exit code.
+ * </p>
+ */
+public class ChangeHistoryCheck {
+
+  private static final String TABLE = "change_history";
+
+  private static final int MAX_LENGTH = 32;
+
+  public static void main(String[] args) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:history;DB_CLOSE_DELAY=-1");
+    EntityFields fields = EntityFields.of(SampleEntity.class);
+    SampleEntity entity = new SampleEntity();
+    entity.id = 1L;
+    entity.name = "first";
+    entity.scores = new int[]{1, 2};
+    entity.tags = new String[][]{{"a"}, {"b", "c"}};
+
+    ChangeHistoryWriter writer = new ChangeHistoryWriter(dataSource, TABLE, 16, 2);
+    try (writer) {
+      writer.initializeSchema(MAX_LENGTH);
+      writer.initializeSchema(MAX_LENGTH);
+      String[] created = fields.read(entity, MAX_LENGTH);
+      writer.submit(change(fields, entity, Action.CREATE, fields.diff(null, created)));
+      entity.name = "x".repeat(MAX_LENGTH * 2);
+      entity.scores = new int[]{1, 3};
+      String[] updated = fields.read(entity, MAX_LENGTH);
+      writer.submit(change(fields, entity, Action.UPDATE, fields.diff(created, updated)));
+    }
+
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    check(writer.droppedCount() == 0, "no change is dropped, got " + writer.droppedCount());
+    check(count(jdbcTemplate, "TRUE") == 5, "3 created and 2 updated fields are written");
+    check(newValue(jdbcTemplate, "CREATE", "tags").equals("[[a], [b, c]]"), "nested arrays are recorded by element");
+    check(newValue(jdbcTemplate, "UPDATE", "scores").equals("[1, 3]"), "primitive arrays are recorded by element");
+    check(newValue(jdbcTemplate, "UPDATE", "name").length() == MAX_LENGTH, "long values are truncated");
+    check(count(jdbcTemplate, "entity_type = 'SampleEntity' AND entity_id = '1' AND changed_by = 7") == 5,
+        "entity and auditor columns are written");
+    System.out.println("Change history check passed");
+  }
+
+  private static EntityChange change(EntityFields fields, SampleEntity entity, Action action,
+                                     List<FieldChange> changes) {
+    return new EntityChange(fields.entityType(), fields.id(entity), action, changes, 7L, System.currentTimeMillis());
+  }
+
+  private static int count(JdbcTemplate jdbcTemplate, String condition) {
+    Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE + " WHERE " + condition, Integer.class);
+    return count != null ? count : 0;
+  }
+
+  private static String newValue(JdbcTemplate jdbcTemplate, String action, String field) {
+    return jdbcTemplate.queryForObject("SELECT new_value FROM " + TABLE + " WHERE action = ? AND field_name = ?",
+        String.class, action, field);
+  }
+
+  private static void check(boolean condition, String expectation) {
+    if (!condition) {
+      throw new IllegalStateException("Change history check failed: " + expectation);
+    }
+  }
+
+  static class SampleEntity extends AuditEntity {
+
+    @Id
+    Long id;
+
+    String name;
+
+    int[] scores;
+
+    String[][] tags;
+
+  }
+
+}
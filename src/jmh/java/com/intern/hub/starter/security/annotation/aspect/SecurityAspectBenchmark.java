@@ -0,0 +1,124 @@
+package com.intern.hub.starter.security.annotation.aspect;
+
+import com.intern.hub.library.common.exception.ForbiddenException;
+import com.intern.hub.starter.security.annotation.Authenticated;
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.annotation.Internal;
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.context.AuthContextHolder;
+import com.intern.hub.starter.security.entity.Action;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures the cost of each {@link SecurityAspect} advice on a Spring AOP proxy.
+ * <p>
+ * Every benchmark binds an {@link AuthContext} and calls one method on the proxied service.
+ * {@link #unguarded} calls a method without any security annotation through the same proxy
+ * and binding, so it is the baseline to subtract from the other scores.
+ * Denied calls return the thrown {@link ForbiddenException} so the rejection path is measured too.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityAspectBenchmark {
+
+  GuardedService service;
+  AuthContext user;
+  AuthContext userWithoutPermission;
+
+  @Setup
+  public void setUp() {
+    AspectJProxyFactory factory = new AspectJProxyFactory(new GuardedService());
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new SecurityAspect());
+    service = factory.getProxy();
+
+    Set<String> permissions = new HashSet<>();
+    for (int i = 0; i < 50; i++) {
+      permissions.add("resource" + i + ":read");
+    }
+    permissions.add("document:update");
+    user = new AuthContext(false, true, 123456789L, Set.copyOf(permissions));
+    permissions.remove("document:update");
+    userWithoutPermission = new AuthContext(false, true, 123456789L, Set.copyOf(permissions));
+  }
+
+  @Benchmark
+  public Object unguarded() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, user).call(service::unguarded);
+  }
+
+  @Benchmark
+  public Object hasPermissionGranted() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, user).call(service::updateDocument);
+  }
+
+  @Benchmark
+  public Object hasPermissionDenied() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, userWithoutPermission).call(() -> denied(service::updateDocument));
+  }
+
+  @Benchmark
+  public Object internalGranted() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, AuthContext.INTERNAL_CONTEXT).call(service::internalSync);
+  }
+
+  @Benchmark
+  public Object internalDenied() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, user).call(() -> denied(service::internalSync));
+  }
+
+  @Benchmark
+  public Object authenticatedGranted() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, user).call(service::profile);
+  }
+
+  @Benchmark
+  public Object authenticatedDenied() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, AuthContext.UNAUTHENTICATED_CONTEXT).call(() -> denied(service::profile));
+  }
+
+  private static Object denied(Supplier<Object> call) {
+    try {
+      return call.get();
+    } catch (ForbiddenException e) {
+      return e;
+    }
+  }
+
+  public static class GuardedService {
+
+    private final Object result = new Object();
+
+    public Object unguarded() {
+      return result;
+    }
+
+    @HasPermission(resource = "document", action = Action.UPDATE)
+    public Object updateDocument() {
+      return result;
+    }
+
+    @Internal
+    public Object internalSync() {
+      return result;
+    }
+
+    @Authenticated
+    public Object profile() {
+      return result;
+    }
+
+  }
+
+}
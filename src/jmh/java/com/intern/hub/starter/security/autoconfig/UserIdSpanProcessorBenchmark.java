@@ -0,0 +1,68 @@
+package com.intern.hub.starter.security.autoconfig;
+
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.context.AuthContextHolder;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost {@link UserIdSpanProcessor} adds to starting a span.
+ * <p>
+ * {@link #withoutProcessor} starts and ends a span on a tracer without the processor and is the
+ * baseline; {@link #userIdOnly} and {@link #allAttributes} use the default and the full attribute
+ * set. Spans are not exported. The GC profiler shows the processor's allocations next to the score.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserIdSpanProcessorBenchmark {
+
+  Tracer plainTracer;
+  Tracer userIdTracer;
+  Tracer allAttributesTracer;
+  AuthContext user;
+
+  @Setup
+  public void setUp() {
+    plainTracer = SdkTracerProvider.builder().build().get("benchmark");
+    userIdTracer = SdkTracerProvider.builder()
+        .addSpanProcessor(new UserIdSpanProcessor())
+        .build().get("benchmark");
+    allAttributesTracer = SdkTracerProvider.builder()
+        .addSpanProcessor(new UserIdSpanProcessor(EnumSet.allOf(SecurityProperties.SpanAttribute.class)))
+        .build().get("benchmark");
+    user = new AuthContext(false, true, 123456789L, Set.of("document:read", "document:update"));
+  }
+
+  @Benchmark
+  public Span withoutProcessor() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, user).call(() -> startAndEnd(plainTracer));
+  }
+
+  @Benchmark
+  public Span userIdOnly() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, user).call(() -> startAndEnd(userIdTracer));
+  }
+
+  @Benchmark
+  public Span allAttributes() {
+    return ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, user).call(() -> startAndEnd(allAttributesTracer));
+  }
+
+  private static Span startAndEnd(Tracer tracer) {
+    Span span = tracer.spanBuilder("operation").startSpan();
+    span.end();
+    return span;
+  }
+
+}
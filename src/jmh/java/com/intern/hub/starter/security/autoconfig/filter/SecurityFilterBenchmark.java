@@ -0,0 +1,162 @@
+package com.intern.hub.starter.security.autoconfig.filter;
+
+import com.intern.hub.starter.security.autoconfig.SecurityProperties;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the per-request cost of {@link SecurityFilter#doFilterInternal} for each of its branches.
+ * <p>
+ * The filter chain is a no-op, so the numbers only contain the work done by the filter itself
+ * (path matching, header parsing, {@link ScopedValue} binding and MDC bookkeeping).
+ * Run with {@code ./gradlew jmh -Pjmh.includes=SecurityFilterBenchmark}; the GC profiler
+ * reports the allocation rate next to the score.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityFilterBenchmark {
+
+  static final String INTERNAL_SECRET = "benchmark-internal-secret-0123456789";
+
+  static final FilterChain NO_OP_CHAIN = (request, response) -> {
+  };
+
+  @State(Scope.Benchmark)
+  public static class FilterState {
+
+    SecurityFilter filter;
+    MockHttpServletRequest excludedRequest;
+    MockHttpServletRequest internalRequest;
+    MockHttpServletRequest badInternalRequest;
+    MockHttpServletRequest unauthenticatedRequest;
+    MockHttpServletRequest malformedUserIdRequest;
+
+    @Setup
+    public void setUp() {
+      filter = newFilter();
+
+      excludedRequest = new MockHttpServletRequest("GET", "/actuator/health");
+
+      internalRequest = new MockHttpServletRequest("POST", "/internal/sync/users");
+      internalRequest.addHeader("X-Internal-Secret", INTERNAL_SECRET);
+
+      badInternalRequest = new MockHttpServletRequest("POST", "/internal/sync/users");
+      badInternalRequest.addHeader("X-Internal-Secret", "not-the-secret");
+
+      unauthenticatedRequest = new MockHttpServletRequest("GET", "/api/users/42");
+
+      malformedUserIdRequest = new MockHttpServletRequest("GET", "/api/users/42");
+      malformedUserIdRequest.addHeader("X-Authenticated", "true");
+      malformedUserIdRequest.addHeader("X-UserId", "not-a-number");
+    }
+
+  }
+
+  @State(Scope.Benchmark)
+  public static class AuthenticatedState {
+
+    @Param({"5", "50", "500"})
+    int authorities;
+
+    SecurityFilter filter;
+    MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+      filter = newFilter();
+      request = new MockHttpServletRequest("GET", "/api/users/42");
+      request.addHeader("X-Authenticated", "true");
+      request.addHeader("X-UserId", "123456789");
+      request.addHeader("X-Authorities", authorities(authorities));
+    }
+
+  }
+
+  @State(Scope.Thread)
+  public static class ResponseState {
+
+    MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+      response = new MockHttpServletResponse();
+    }
+
+    MockHttpServletResponse reset() {
+      response.setCommitted(false);
+      response.resetBuffer();
+      return response;
+    }
+
+  }
+
+  @Benchmark
+  public MockHttpServletResponse excludedPath(FilterState state, ResponseState responseState) throws IOException {
+    MockHttpServletResponse response = responseState.reset();
+    state.filter.doFilterInternal(state.excludedRequest, response, NO_OP_CHAIN);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse internalPathValidSecret(FilterState state, ResponseState responseState) throws IOException {
+    MockHttpServletResponse response = responseState.reset();
+    state.filter.doFilterInternal(state.internalRequest, response, NO_OP_CHAIN);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse internalPathInvalidSecret(FilterState state, ResponseState responseState) throws IOException {
+    MockHttpServletResponse response = responseState.reset();
+    state.filter.doFilterInternal(state.badInternalRequest, response, NO_OP_CHAIN);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse unauthenticated(FilterState state, ResponseState responseState) throws IOException {
+    MockHttpServletResponse response = responseState.reset();
+    state.filter.doFilterInternal(state.unauthenticatedRequest, response, NO_OP_CHAIN);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse malformedUserId(FilterState state, ResponseState responseState) throws IOException {
+    MockHttpServletResponse response = responseState.reset();
+    state.filter.doFilterInternal(state.malformedUserIdRequest, response, NO_OP_CHAIN);
+    return response;
+  }
+
+  @Benchmark
+  public MockHttpServletResponse authenticated(AuthenticatedState state, ResponseState responseState) throws IOException {
+    MockHttpServletResponse response = responseState.reset();
+    state.filter.doFilterInternal(state.request, response, NO_OP_CHAIN);
+    return response;
+  }
+
+  static SecurityFilter newFilter() {
+    SecurityProperties properties = new SecurityProperties();
+    properties.setInternalSecret(INTERNAL_SECRET);
+    properties.setExcludedPaths(List.of("/actuator/", "/v3/api-docs", "/swagger-ui/**", "/static/**/*.css", "/favicon.ico"));
+    return new SecurityFilter(properties, new ObjectMapper());
+  }
+
+  static String authorities(int count) {
+    String[] actions = {"create", "read", "update", "delete", "review"};
+    return IntStream.range(0, count)
+        .mapToObj(i -> "resource" + (i / actions.length) + ":" + actions[i % actions.length])
+        .collect(Collectors.joining(","));
+  }
+
+}
@@ -0,0 +1,66 @@
+package com.intern.hub.starter.security.metadata;
+
+import com.intern.hub.starter.security.context.AuthContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares interpreted and compiled evaluation of a {@code @HasPermission} condition.
+ * <p>
+ * Both variants evaluate {@code #id == auth.userId} against the same arguments; only the SpEL
+ * compiler mode differs ({@link SpelCompilerMode#OFF} versus the {@link SpelCompilerMode#IMMEDIATE}
+ * mode used by the starter). {@link #compiledWithPermissionCall} adds a method call on the root.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionConditionBenchmark {
+
+  PermissionCondition interpreted;
+  PermissionCondition compiled;
+  PermissionCondition compiledWithPermission;
+  AuthContext user;
+  Object[] args;
+
+  @Setup
+  public void setUp() throws NoSuchMethodException {
+    Method method = Documents.class.getMethod("update", Long.class, String.class);
+    interpreted = PermissionCondition.parse("#id == auth.userId", method, SpelCompilerMode.OFF);
+    compiled = PermissionCondition.parse("#id == auth.userId", method, SpelCompilerMode.IMMEDIATE);
+    compiledWithPermission = PermissionCondition.parse(
+        "#id == auth.userId or auth.hasPermission('document:review')", method, SpelCompilerMode.IMMEDIATE);
+    user = new AuthContext(false, true, 123456789L, Set.of("document:read", "document:update"));
+    args = new Object[]{123456789L, "title"};
+  }
+
+  @Benchmark
+  public boolean interpreted() {
+    return interpreted.matches(user, args);
+  }
+
+  @Benchmark
+  public boolean compiled() {
+    return compiled.matches(user, args);
+  }
+
+  @Benchmark
+  public boolean compiledWithPermissionCall() {
+    return compiledWithPermission.matches(user, args);
+  }
+
+  public static class Documents {
+
+    public void update(Long id, String title) {
+    }
+
+  }
+
+}
@@ -0,0 +1,63 @@
+package com.intern.hub.starter.security.permission;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the ways an authorities header can be turned into a permission set.
+ * <ul>
+ * <li>{@link #splitText}: the former {@code String.split} + {@code Set.of} parsing</li>
+ * <li>{@link #parseText}: the single-pass {@link PermissionSet#parse(String)}</li>
+ * <li>{@link #decodeBinary}: {@link AuthoritiesCodec#decode(String)} of {@code X-Authorities-Bin}</li>
+ * </ul>
+ * The header sizes of both encodings are printed during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthoritiesBenchmark {
+
+  @Param({"5", "50", "500"})
+  int authorities;
+
+  String textHeader;
+  String binaryHeader;
+  AuthoritiesCodec codec;
+
+  @Setup
+  public void setUp() {
+    String[] actions = {"create", "read", "update", "delete", "review"};
+    List<String> catalog = IntStream.range(0, 1000)
+        .mapToObj(i -> "resource" + (i / actions.length) + ":" + actions[i % actions.length])
+        .toList();
+    codec = new AuthoritiesCodec(1, catalog);
+    List<String> granted = catalog.subList(0, authorities);
+    textHeader = String.join(",", granted);
+    binaryHeader = codec.encode(granted);
+    System.out.printf("%n%d authorities: X-Authorities %d bytes, X-Authorities-Bin %d bytes%n",
+        authorities, textHeader.length(), binaryHeader.length());
+  }
+
+  @Benchmark
+  public Set<String> splitText() {
+    return Set.of(textHeader.split(","));
+  }
+
+  @Benchmark
+  public PermissionSet parseText() {
+    return PermissionSet.parse(textHeader);
+  }
+
+  @Benchmark
+  public PermissionSet decodeBinary() {
+    return codec.decode(binaryHeader);
+  }
+
+}
@@ -0,0 +1,54 @@
+package com.intern.hub.starter.security.ratelimit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of the rate limiter with many distinct users.
+ * <p>
+ * {@link #acquire} draws users uniformly from {@link #users}, so the table holds every user and
+ * most lookups miss the CPU caches. {@link #acquireContended} runs with 8 threads.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenBucketTableBenchmark {
+
+  @Param({"1000", "100000"})
+  int users;
+
+  TokenBucketTable table;
+
+  @State(Scope.Thread)
+  public static class Users {
+
+    final SplittableRandom random = new SplittableRandom(42);
+
+  }
+
+  @Setup
+  public void setUp() {
+    table = new TokenBucketTable(50, 100, 100_000);
+    for (long user = 0; user < users; user++) {
+      table.tryAcquire(user);
+    }
+  }
+
+  @Benchmark
+  public long acquire(Users state) {
+    return table.tryAcquire(state.random.nextInt(users));
+  }
+
+  @Benchmark
+  @Threads(8)
+  public long acquireContended(Users state) {
+    return table.tryAcquire(state.random.nextInt(users));
+  }
+
+}
@@ -0,0 +1,50 @@
+package com.intern.hub.starter.security.signature;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures HMAC verification and nonce replay checks of signed internal requests.
+ * <p>
+ * {@link #acceptNonce} runs with 8 threads to exercise the lock-free cache under contention.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InternalSignatureBenchmark {
+
+  InternalRequestSigner signer;
+  NonceReplayCache nonceCache;
+  String timestamp;
+  String signature;
+  final AtomicLong nonces = new AtomicLong();
+
+  @Setup
+  public void setUp() {
+    signer = new InternalRequestSigner("benchmark-internal-secret-0123456789", "HmacSHA256");
+    nonceCache = new NonceReplayCache(Duration.ofSeconds(10), 10, 1 << 20);
+    long now = System.currentTimeMillis();
+    timestamp = Long.toString(now);
+    signature = signer.sign("POST", "/internal/sync/users", now, "nonce-0123456789abcdef");
+  }
+
+  @Benchmark
+  public boolean verify() {
+    return signer.verify("POST", "/internal/sync/users", timestamp, "nonce-0123456789abcdef", signature);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public boolean acceptNonce() {
+    long now = System.currentTimeMillis();
+    return nonceCache.tryAccept(Long.toHexString(nonces.incrementAndGet()), now, now);
+  }
+
+}
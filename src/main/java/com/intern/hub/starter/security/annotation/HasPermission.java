@@ -8,29 +8,41 @@ import java.lang.annotation.*;
 /**
  * Annotation for declarative permission checking on controller methods.
  * <p>
- * When applied to a method, the {@link SecurityAspect}
+ * When applied to a method or class, the {@link SecurityAspect}
  * aspect intercepts the method call and verifies that the current authenticated user
  * has the required permission to perform the specified action on the specified resource.
  * </p>
  *
  * <p>Permissions are checked against the user's permissions stored in the
  * {@link com.intern.hub.starter.security.context.AuthContext}. The permission key is constructed
- * as "{@code resource:action}" and the user's scope must be greater than or equal to the required scope.</p>
+ * as "{@code resource:action}". An optional {@link #condition()} further restricts access, for
+ * example to the user's own records.</p>
  *
  * <p><b>Usage:</b></p>
  * <pre>{@code
- * @HasPermission(resource = "user", action = "read", scope = Scope.OWN)
+ * @HasPermission(resource = "user", action = Action.READ)
  * public User getUser(Long userId) {
  *     // Method implementation
  * }
+ *
+ * @HasPermission(resource = "user", action = Action.UPDATE, condition = "#userId == auth.userId")
+ * public User updateProfile(Long userId, ProfileRequest request) {
+ *     // Only the user themselves may update their profile
+ * }
  * }</pre>
  *
+ * <p>The annotation is repeatable and may be placed on a class; see {@link HasPermissions} for
+ * how repeated and class-level requirements combine. All requirements of a method are resolved
+ * at startup into one precomputed check.</p>
+ *
  * @see SecurityAspect
+ * @see HasPermissions
  * @see com.intern.hub.starter.security.context.AuthContext
  */
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
+@Repeatable(HasPermissions.class)
 public @interface HasPermission {
 
   /**
@@ -49,4 +61,20 @@ public @interface HasPermission {
    */
   Action action();
 
+  /**
+   * Optional SpEL condition that must also hold for access to be granted.
+   * <p>
+   * Evaluated after the permission check with {@code auth} (the current context: {@code userId},
+   * {@code internal}, {@code authenticated}, {@code permissions}) as root, the method arguments as
+   * variables ({@code #userId} or {@code #p0}) and beans as {@code @beanName}, e.g.
+   * {@code "@projectService.isOwner(#projectId, auth.userId)"}. The expression is parsed at
+   * startup and compiled to bytecode. Arguments are only available when the method is enforced by
+   * an aspect; in the interceptor mode, a controller condition that reads an argument fails
+   * startup.
+   * </p>
+   *
+   * @return the condition, empty for none
+   */
+  String condition() default "";
+
 }
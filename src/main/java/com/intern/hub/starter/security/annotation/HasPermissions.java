@@ -0,0 +1,61 @@
+package com.intern.hub.starter.security.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Groups several {@link HasPermission} requirements of a method or class.
+ * <p>
+ * Repeating {@code @HasPermission} creates this container implicitly and requires all of the
+ * permissions. Declare it explicitly with {@link Match#ANY} to accept any one of them:
+ * </p>
+ * <pre>{@code
+ * @HasPermissions(match = Match.ANY, value = {
+ *     @HasPermission(resource = "report", action = Action.READ),
+ *     @HasPermission(resource = "report", action = Action.REVIEW)
+ * })
+ * public Report getReport(Long id) { ... }
+ * }</pre>
+ * <p>
+ * A requirement declared on the class applies to every method declared by that class and is
+ * combined with the requirement of the method: both must be satisfied.
+ * </p>
+ *
+ * @see HasPermission
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface HasPermissions {
+
+  /**
+   * The grouped requirements.
+   *
+   * @return the requirements
+   */
+  HasPermission[] value();
+
+  /**
+   * How the grouped requirements are combined.
+   *
+   * @return {@link Match#ALL} by default
+   */
+  Match match() default Match.ALL;
+
+  /**
+   * Combination of grouped requirements.
+   */
+  enum Match {
+
+    /**
+     * Every requirement must be met (allOf).
+     */
+    ALL,
+
+    /**
+     * At least one requirement must be met (anyOf).
+     */
+    ANY
+
+  }
+
+}
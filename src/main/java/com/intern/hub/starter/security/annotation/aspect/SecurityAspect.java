@@ -1,10 +1,13 @@
 package com.intern.hub.starter.security.annotation.aspect;
 
-import com.intern.hub.library.common.exception.ExceptionConstant;
 import com.intern.hub.library.common.exception.ForbiddenException;
 import com.intern.hub.starter.security.annotation.HasPermission;
 import com.intern.hub.starter.security.context.AuthContext;
 import com.intern.hub.starter.security.context.AuthContextHolder;
+import com.intern.hub.starter.security.metadata.MethodSecurityMetadata;
+import com.intern.hub.starter.security.metadata.SecurityEnforcer;
+import com.intern.hub.starter.security.metadata.SecurityMetadataRegistry;
+import com.intern.hub.starter.security.permission.PermissionSet;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -16,8 +19,8 @@ import org.jspecify.annotations.NonNull;
  * Aspect that enforces permission checking for methods annotated with
  * {@link HasPermission}.
  * <p>
- * This aspect intercepts method calls annotated with {@code @HasPermission} and
- * verifies
+ * This aspect intercepts method calls annotated with {@code @HasPermission}
+ * (or declared by a class annotated with it) and verifies
  * that the current user (obtained from {@link AuthContextHolder}) has
  * sufficient permissions
  * to execute the method.
@@ -29,20 +32,43 @@ import org.jspecify.annotations.NonNull;
  * <ol>
  * <li>Retrieves the current {@link AuthContext} from
  * {@link AuthContextHolder}</li>
- * <li>Constructs the permission key as "{@code resource:action}"</li>
- * <li>Compares the user's scope with the required scope</li>
+ * <li>Looks up the precomputed {@link MethodSecurityMetadata} of the method in
+ * the {@link SecurityMetadataRegistry}</li>
+ * <li>Tests the permission id against the user's {@link PermissionSet}</li>
  * <li>Throws {@link ForbiddenException} if the user lacks permission</li>
  * </ol>
  *
  * @see HasPermission
  * @see AuthContext
  * @see AuthContextHolder
+ * @see SecurityEnforcer
  * @see ForbiddenException
  */
 @Slf4j
 @Aspect
 public class SecurityAspect {
 
+  /**
+   * Methods guarded by {@link HasPermission}, repeated or declared on their class.
+   */
+  static final String HAS_PERMISSION = "@annotation(com.intern.hub.starter.security.annotation.HasPermission)"
+      + " || @annotation(com.intern.hub.starter.security.annotation.HasPermissions)"
+      + " || @within(com.intern.hub.starter.security.annotation.HasPermission)"
+      + " || @within(com.intern.hub.starter.security.annotation.HasPermissions)";
+
+  private final SecurityMetadataRegistry metadataRegistry;
+
+  private final SecurityEnforcer enforcer;
+
+  public SecurityAspect() {
+    this(new SecurityMetadataRegistry(), new SecurityEnforcer());
+  }
+
+  public SecurityAspect(SecurityMetadataRegistry metadataRegistry, SecurityEnforcer enforcer) {
+    this.metadataRegistry = metadataRegistry;
+    this.enforcer = enforcer;
+  }
+
   /**
    * Around advice that checks permissions before method execution.
    * <p>
@@ -56,29 +82,13 @@ public class SecurityAspect {
    * @throws ForbiddenException if the user is not authenticated or lacks the
    *                            required permission
    */
-  @Around("@annotation(com.intern.hub.starter.security.annotation.HasPermission)")
+  @Around(HAS_PERMISSION)
   public Object hasPermissionAdvice(@NonNull ProceedingJoinPoint pjp) {
-    MethodSignature methodSignature = (MethodSignature) pjp.getSignature();
-    HasPermission hasPermission = methodSignature.getMethod().getAnnotation(HasPermission.class);
-
-    AuthContext authContext = AuthContextHolder.get().orElse(null);
-    if (authContext == null) {
-      log.debug("No AuthContext found in AuthContextHolder");
-      throw new ForbiddenException(ExceptionConstant.FORBIDDEN_DEFAULT_CODE);
+    MethodSecurityMetadata metadata = metadataRegistry.get(((MethodSignature) pjp.getSignature()).getMethod());
+    if (metadata.requiresPermission()) {
+      // @within also matches methods inherited from a superclass without the annotation
+      enforcer.requirePermission(AuthContextHolder.get().orElse(null), metadata, pjp.getArgs());
     }
-
-    if (!authContext.authenticated()) {
-      log.debug("User is not authenticated");
-      throw new ForbiddenException(ExceptionConstant.FORBIDDEN_DEFAULT_CODE);
-    }
-
-    String permissionKey = hasPermission.resource() + ":" + hasPermission.action().value;
-
-    if (!authContext.permissions().contains(permissionKey)) {
-      log.debug("Access denied: user lacks permission {} required for method {}", permissionKey, methodSignature.getMethod().getName());
-      throw new ForbiddenException(ExceptionConstant.FORBIDDEN_DEFAULT_CODE);
-    }
-
     return next(pjp);
   }
 
@@ -90,11 +100,8 @@ public class SecurityAspect {
    */
   @Around("@annotation(com.intern.hub.starter.security.annotation.Internal)")
   public Object isInternal(@NonNull ProceedingJoinPoint pjp) {
-    AuthContext authContext = AuthContextHolder.get().orElse(null);
-    if (authContext == null || !authContext.internal()) {
-      log.debug("Access denied: method is marked as internal but AuthContext is missing or not internal");
-      throw new ForbiddenException(ExceptionConstant.FORBIDDEN_DEFAULT_CODE);
-    }
+    MethodSecurityMetadata metadata = metadataRegistry.get(((MethodSignature) pjp.getSignature()).getMethod());
+    enforcer.requireInternal(AuthContextHolder.get().orElse(null), metadata);
     return next(pjp);
   }
 
@@ -106,19 +113,12 @@ public class SecurityAspect {
    */
   @Around("@annotation(com.intern.hub.starter.security.annotation.Authenticated)")
   public Object isAuthenticated(@NonNull ProceedingJoinPoint pjp) {
-    AuthContext authContext = AuthContextHolder.get().orElse(null);
-    if (authContext == null) {
-      log.debug("Access denied: method requires authentication but no AuthContext found");
-      throw new ForbiddenException(ExceptionConstant.FORBIDDEN_DEFAULT_CODE);
-    }
-    if (!authContext.authenticated()) {
-      log.debug("Access denied: method requires authentication but user is not authenticated");
-      throw new ForbiddenException(ExceptionConstant.FORBIDDEN_DEFAULT_CODE);
-    }
+    MethodSecurityMetadata metadata = metadataRegistry.get(((MethodSignature) pjp.getSignature()).getMethod());
+    enforcer.requireAuthenticated(AuthContextHolder.get().orElse(null), metadata);
     return next(pjp);
   }
 
-  private Object next(ProceedingJoinPoint pjp) {
+  static Object next(ProceedingJoinPoint pjp) {
     try {
       return pjp.proceed();
     } catch (RuntimeException e) {
@@ -0,0 +1,66 @@
+package com.intern.hub.starter.security.annotation.aspect;
+
+import com.intern.hub.starter.security.context.AuthContextHolder;
+import com.intern.hub.starter.security.metadata.MethodSecurityMetadata;
+import com.intern.hub.starter.security.metadata.SecurityEnforcer;
+import com.intern.hub.starter.security.metadata.SecurityMetadataRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Variant of {@link SecurityAspect} used in the
+ * {@link com.intern.hub.starter.security.autoconfig.SecurityProperties.EnforcementMode#INTERCEPTOR INTERCEPTOR}
+ * enforcement mode.
+ * <p>
+ * Its pointcuts skip classes annotated with {@code @Controller} or {@code @RestController}, so
+ * controllers are no longer proxied; their annotations are enforced by
+ * {@link com.intern.hub.starter.security.autoconfig.interceptor.SecurityHandlerInterceptor}
+ * instead. Guarded methods on any other bean are still enforced here.
+ * </p>
+ *
+ * @see SecurityAspect
+ */
+@Aspect
+public class ServiceSecurityAspect {
+
+  private static final String NOT_CONTROLLER =
+      " && !@within(org.springframework.stereotype.Controller)"
+          + " && !@within(org.springframework.web.bind.annotation.RestController)";
+
+  private final SecurityMetadataRegistry metadataRegistry;
+
+  private final SecurityEnforcer enforcer;
+
+  public ServiceSecurityAspect(SecurityMetadataRegistry metadataRegistry, SecurityEnforcer enforcer) {
+    this.metadataRegistry = metadataRegistry;
+    this.enforcer = enforcer;
+  }
+
+  @Around("(" + SecurityAspect.HAS_PERMISSION + ")" + NOT_CONTROLLER)
+  public Object hasPermissionAdvice(@NonNull ProceedingJoinPoint pjp) {
+    MethodSecurityMetadata metadata = metadataRegistry.get(((MethodSignature) pjp.getSignature()).getMethod());
+    if (metadata.requiresPermission()) {
+      // @within also matches methods inherited from a superclass without the annotation
+      enforcer.requirePermission(AuthContextHolder.get().orElse(null), metadata, pjp.getArgs());
+    }
+    return SecurityAspect.next(pjp);
+  }
+
+  @Around("@annotation(com.intern.hub.starter.security.annotation.Internal)" + NOT_CONTROLLER)
+  public Object isInternal(@NonNull ProceedingJoinPoint pjp) {
+    MethodSecurityMetadata metadata = metadataRegistry.get(((MethodSignature) pjp.getSignature()).getMethod());
+    enforcer.requireInternal(AuthContextHolder.get().orElse(null), metadata);
+    return SecurityAspect.next(pjp);
+  }
+
+  @Around("@annotation(com.intern.hub.starter.security.annotation.Authenticated)" + NOT_CONTROLLER)
+  public Object isAuthenticated(@NonNull ProceedingJoinPoint pjp) {
+    MethodSecurityMetadata metadata = metadataRegistry.get(((MethodSignature) pjp.getSignature()).getMethod());
+    enforcer.requireAuthenticated(AuthContextHolder.get().orElse(null), metadata);
+    return SecurityAspect.next(pjp);
+  }
+
+}
@@ -0,0 +1,26 @@
+package com.intern.hub.starter.security.aot;
+
+import com.intern.hub.starter.security.entity.AuditEntity;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native-image hints for the auditing components of the starter.
+ * <p>
+ * {@link AuditEntity} is a mapped superclass shipped in the starter jar, outside the packages
+ * scanned for entities, so its fields and lifecycle callbacks are registered here. Entity
+ * subclasses are registered by Spring Data JPA's own AOT processing, which also covers the field
+ * access of the change history.
+ * </p>
+ */
+public class AuditRuntimeHints implements RuntimeHintsRegistrar {
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    hints.reflection().registerType(AuditEntity.class,
+        MemberCategory.DECLARED_FIELDS,
+        MemberCategory.INVOKE_DECLARED_METHODS);
+  }
+
+}
@@ -0,0 +1,69 @@
+package com.intern.hub.starter.security.aot;
+
+import com.intern.hub.starter.security.annotation.Authenticated;
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.annotation.HasPermissions;
+import com.intern.hub.starter.security.annotation.Internal;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Registers the guarded methods of every bean for reflection in native images.
+ * <p>
+ * {@link com.intern.hub.starter.security.metadata.SecurityMetadataRegistry} reads the security
+ * annotations and parameter names of guarded methods when the context starts. At build time this
+ * processor finds those methods on the bean classes known to the bean factory, with the same
+ * candidate check as the registry, so the native image keeps their reflection metadata.
+ * </p>
+ */
+public class SecurityMetadataAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+  private static final Set<Class<? extends Annotation>> SECURITY_ANNOTATIONS =
+      Set.of(HasPermission.class, HasPermissions.class, Internal.class, Authenticated.class);
+
+  @Override
+  public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+    Set<Method> guarded = new LinkedHashSet<>();
+    for (String beanName : beanFactory.getBeanDefinitionNames()) {
+      Class<?> beanType = beanFactory.getType(beanName, false);
+      if (beanType == null) {
+        continue;
+      }
+      Class<?> userClass = ClassUtils.getUserClass(beanType);
+      if (AnnotationUtils.isCandidateClass(userClass, SECURITY_ANNOTATIONS)) {
+        ReflectionUtils.doWithMethods(userClass, guarded::add, SecurityMetadataAotProcessor::isGuarded);
+      }
+    }
+    if (guarded.isEmpty()) {
+      return null;
+    }
+    return (generationContext, beanFactoryInitializationCode) -> {
+      ReflectionHints reflection = generationContext.getRuntimeHints().reflection();
+      for (Method method : guarded) {
+        reflection.registerType(method.getDeclaringClass());
+        reflection.registerMethod(method, ExecutableMode.INTROSPECT);
+      }
+    };
+  }
+
+  private static boolean isGuarded(Method method) {
+    for (Class<? extends Annotation> annotation : SECURITY_ANNOTATIONS) {
+      if (method.isAnnotationPresent(annotation) || method.getDeclaringClass().isAnnotationPresent(annotation)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
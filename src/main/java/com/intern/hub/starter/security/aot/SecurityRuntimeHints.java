@@ -0,0 +1,47 @@
+package com.intern.hub.starter.security.aot;
+
+import com.intern.hub.library.common.dto.ResponseApi;
+import com.intern.hub.library.common.dto.ResponseMetadata;
+import com.intern.hub.library.common.dto.ResponseStatus;
+import com.intern.hub.starter.security.annotation.Authenticated;
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.annotation.HasPermissions;
+import com.intern.hub.starter.security.annotation.Internal;
+import com.intern.hub.starter.security.metadata.PermissionConditionRoot;
+import com.intern.hub.starter.security.metadata.SecurityIndex;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native-image hints for the request-path components of the starter.
+ * <p>
+ * Covers what the starter reads or invokes reflectively outside of Spring's own AOT processing:
+ * </p>
+ * <ul>
+ * <li>the error bodies rendered with Jackson by the security filters</li>
+ * <li>the security annotations, read at startup to build the method metadata</li>
+ * <li>the root object of {@code @HasPermission} conditions, invoked by SpEL</li>
+ * <li>the compile-time {@link SecurityIndex}</li>
+ * </ul>
+ * <p>
+ * The guarded bean classes themselves are registered by {@link SecurityMetadataAotProcessor}.
+ * </p>
+ */
+public class SecurityRuntimeHints implements RuntimeHintsRegistrar {
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+        ResponseApi.class, ResponseStatus.class, ResponseMetadata.class);
+    for (Class<?> annotation : new Class<?>[]{
+        HasPermission.class, HasPermissions.class, Internal.class, Authenticated.class}) {
+      hints.reflection().registerType(annotation, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+    hints.reflection().registerType(PermissionConditionRoot.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    hints.reflection().registerType(PermissionConditionRoot.Auth.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    hints.resources().registerPattern(SecurityIndex.LOCATION);
+  }
+
+}
@@ -0,0 +1,33 @@
+package com.intern.hub.starter.security.autoconfig;
+
+import com.intern.hub.starter.security.context.AuthContextTaskDecorator;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Auto-configuration for propagating the
+ * {@link com.intern.hub.starter.security.context.AuthContext} to asynchronous tasks.
+ * <p>
+ * Registers an {@link AuthContextTaskDecorator}, which Spring Boot applies to the task executors
+ * it auto-configures, so {@code @Async} methods and the virtual-thread task executor run with the
+ * context of the caller. Disabled with {@code security.context-propagation-enabled=false}.
+ * </p>
+ *
+ * @see com.intern.hub.starter.security.context.AuthContextPropagation
+ */
+@AutoConfiguration
+@ConditionalOnClass(TaskDecorator.class)
+@ConditionalOnProperty(prefix = "security", name = "context-propagation-enabled", havingValue = "true", matchIfMissing = true)
+public class ContextPropagationAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public AuthContextTaskDecorator authContextTaskDecorator() {
+    return new AuthContextTaskDecorator();
+  }
+
+}
@@ -1,16 +1,36 @@
 package com.intern.hub.starter.security.autoconfig;
 
 import com.intern.hub.starter.security.annotation.aspect.SecurityAspect;
+import com.intern.hub.starter.security.annotation.aspect.ServiceSecurityAspect;
+import com.intern.hub.starter.security.aot.SecurityRuntimeHints;
+import com.intern.hub.starter.security.autoconfig.filter.FilterCollaborators;
+import com.intern.hub.starter.security.autoconfig.filter.RateLimiter;
 import com.intern.hub.starter.security.autoconfig.filter.SecurityFilter;
+import com.intern.hub.starter.security.autoconfig.interceptor.InterceptorModeVerifier;
+import com.intern.hub.starter.security.autoconfig.interceptor.SecurityHandlerInterceptor;
+import com.intern.hub.starter.security.event.SecurityEventListener;
+import com.intern.hub.starter.security.metadata.SecurityEnforcer;
+import com.intern.hub.starter.security.metadata.SecurityMetadataRegistry;
+import com.intern.hub.starter.security.permission.AuthoritiesCache;
+import com.intern.hub.starter.security.permission.AuthoritiesCodec;
+import com.intern.hub.starter.security.permission.PermissionCache;
+import com.intern.hub.starter.security.ratelimit.AdaptiveConcurrencyLimiter;
 import io.opentelemetry.api.trace.SpanContext;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import tools.jackson.databind.ObjectMapper;
 
 /**
@@ -21,7 +41,11 @@ import tools.jackson.databind.ObjectMapper;
  * <li>{@link SecurityFilter} - Request filter for authentication context
  * propagation</li>
  * <li>{@link SecurityAspect} - AOP aspect for permission checking</li>
+ * <li>{@link SecurityHandlerInterceptor} - Proxy-free enforcement for
+ * controllers when {@code security.enforcement-mode=interceptor}</li>
  * </ul>
+ * Components shared with the reactive variant come from
+ * {@link SecurityCoreConfiguration}.
  * </p>
  *
  * @see SecurityProperties
@@ -32,25 +56,82 @@ import tools.jackson.databind.ObjectMapper;
 @EnableAspectJAutoProxy
 @EnableConfigurationProperties(SecurityProperties.class)
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Import(SecurityCoreConfiguration.class)
+@ImportRuntimeHints(SecurityRuntimeHints.class)
 public class CustomSecurityAutoConfiguration {
 
   @Bean
   public SecurityFilter securityFilter(SecurityProperties securityProperties,
-                                       ObjectProvider<ObjectMapper> objectMapperProvider) {
+                                       ObjectProvider<ObjectMapper> objectMapperProvider,
+                                       AuthoritiesCache authoritiesCache,
+                                       ObjectProvider<AuthoritiesCodec> authoritiesCodecProvider,
+                                       ObjectProvider<SecurityEventListener> securityEventListeners,
+                                       ObjectProvider<PermissionCache> permissionCacheProvider,
+                                       ObjectProvider<RateLimiter> rateLimiterProvider,
+                                       ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiterProvider) {
     ObjectMapper objectMapper = objectMapperProvider.getIfAvailable(ObjectMapper::new);
-    return new SecurityFilter(securityProperties, objectMapper);
+    return new SecurityFilter(securityProperties, objectMapper, FilterCollaborators.builder(authoritiesCache)
+        .authoritiesCodec(authoritiesCodecProvider.getIfAvailable())
+        .eventListener(SecurityEventListener.of(securityEventListeners.orderedStream().toList()))
+        .permissionCache(permissionCacheProvider.getIfAvailable())
+        .rateLimiter(rateLimiterProvider.getIfAvailable())
+        .concurrencyLimiter(concurrencyLimiterProvider.getIfAvailable())
+        .build());
   }
 
   @Bean
   @ConditionalOnMissingBean(SecurityAspect.class)
-  public SecurityAspect securityAspect() {
-    return new SecurityAspect();
+  @ConditionalOnProperty(prefix = "security", name = "enforcement-mode", havingValue = "aspect", matchIfMissing = true)
+  public SecurityAspect securityAspect(SecurityMetadataRegistry securityMetadataRegistry,
+                                       SecurityEnforcer securityEnforcer) {
+    return new SecurityAspect(securityMetadataRegistry, securityEnforcer);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean(ServiceSecurityAspect.class)
+  @ConditionalOnProperty(prefix = "security", name = "enforcement-mode", havingValue = "interceptor")
+  @ConditionalOnProperty(prefix = "security", name = "service-aspect-enabled", havingValue = "true", matchIfMissing = true)
+  public ServiceSecurityAspect serviceSecurityAspect(SecurityMetadataRegistry securityMetadataRegistry,
+                                                     SecurityEnforcer securityEnforcer) {
+    return new ServiceSecurityAspect(securityMetadataRegistry, securityEnforcer);
   }
 
   @Bean
   @ConditionalOnBean(SpanContext.class)
-  public UserIdSpanProcessor userIdSpanProcessor() {
-    return new UserIdSpanProcessor();
+  public UserIdSpanProcessor userIdSpanProcessor(SecurityProperties securityProperties) {
+    return new UserIdSpanProcessor(securityProperties.getTracing().getAttributes());
+  }
+
+  /**
+   * Registers the {@link SecurityHandlerInterceptor} and its {@link InterceptorModeVerifier} in the
+   * {@link SecurityProperties.EnforcementMode#INTERCEPTOR INTERCEPTOR} mode. Kept in its own
+   * configuration so servlet applications without Spring MVC never load {@link WebMvcConfigurer}.
+   */
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(WebMvcConfigurer.class)
+  @ConditionalOnProperty(prefix = "security", name = "enforcement-mode", havingValue = "interceptor")
+  static class SecurityHandlerInterceptorConfiguration {
+
+    @Bean
+    public WebMvcConfigurer securityHandlerInterceptorConfigurer(SecurityMetadataRegistry securityMetadataRegistry,
+                                                                 SecurityEnforcer securityEnforcer) {
+      SecurityHandlerInterceptor interceptor = new SecurityHandlerInterceptor(securityMetadataRegistry, securityEnforcer);
+      return new WebMvcConfigurer() {
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+          registry.addInterceptor(interceptor);
+        }
+      };
+    }
+
+    @Bean
+    public InterceptorModeVerifier securityInterceptorModeVerifier(ConfigurableListableBeanFactory beanFactory,
+                                                                   SecurityMetadataRegistry securityMetadataRegistry,
+                                                                   SecurityProperties securityProperties) {
+      return new InterceptorModeVerifier(beanFactory, securityMetadataRegistry,
+          securityProperties.isServiceAspectEnabled());
+    }
+
   }
 
 }
\ No newline at end of file
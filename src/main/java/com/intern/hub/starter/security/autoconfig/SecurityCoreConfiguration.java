@@ -0,0 +1,147 @@
+package com.intern.hub.starter.security.autoconfig;
+
+import com.intern.hub.starter.security.autoconfig.filter.RateLimiter;
+import com.intern.hub.starter.security.decisionlog.DecisionLog;
+import com.intern.hub.starter.security.event.SecurityEventListener;
+import com.intern.hub.starter.security.metadata.SecurityEnforcer;
+import com.intern.hub.starter.security.metadata.SecurityIndex;
+import com.intern.hub.starter.security.metadata.SecurityMetadataRegistry;
+import com.intern.hub.starter.security.permission.AuthoritiesCache;
+import com.intern.hub.starter.security.permission.AuthoritiesCodec;
+import com.intern.hub.starter.security.permission.PermissionCache;
+import com.intern.hub.starter.security.permission.PermissionProvider;
+import com.intern.hub.starter.security.ratelimit.AdaptiveConcurrencyLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Components shared by the servlet and the reactive security configuration.
+ * <p>
+ * This configuration provides:
+ * <ul>
+ * <li>{@link SecurityMetadataRegistry} and {@link SecurityMetadataPostProcessor} - Startup
+ * resolution of the security metadata of every guarded method, from the compile-time
+ * {@link SecurityIndex} when one is on the class path</li>
+ * <li>{@link SecurityEnforcer} - The enforcement rules and settings shared by the aspects and
+ * the handler interceptor</li>
+ * <li>{@link AuthoritiesCache} - Shared permission sets for repeated
+ * {@code X-Authorities} values</li>
+ * <li>{@link AuthoritiesCodec} - Decoder for the binary {@code X-Authorities-Bin}
+ * header when {@code security.permission-catalog.version} is set</li>
+ * <li>{@link DecisionLog} - Asynchronous decision log when
+ * {@code security.decision-log.enabled} is {@code true}</li>
+ * <li>{@link RateLimiter} - Per-caller rate limits of the security filter when
+ * {@code security.rate-limit.enabled} is {@code true}</li>
+ * <li>{@link AdaptiveConcurrencyLimiter} - Priority-aware load shedding of the security filter
+ * when {@code security.load-shedding.enabled} is {@code true}</li>
+ * </ul>
+ * </p>
+ *
+ * @see CustomSecurityAutoConfiguration
+ * @see com.intern.hub.starter.security.autoconfig.reactive.ReactiveSecurityAutoConfiguration
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(SecurityProperties.class)
+public class SecurityCoreConfiguration {
+
+  @Bean
+  public static SecurityMetadataRegistry securityMetadataRegistry(Environment environment, BeanFactory beanFactory) {
+    if (!environment.getProperty("security.index-enabled", Boolean.class, true)) {
+      return new SecurityMetadataRegistry();
+    }
+    SecurityIndex index = SecurityIndex.load(ClassUtils.getDefaultClassLoader());
+    if (index != null) {
+      log.info("Loaded security index with {} guarded methods and {} permission keys",
+          index.size(), index.permissionKeys().size());
+    }
+    // application classes missing from the index are still scanned; library beans are skipped
+    List<String> applicationPackages = AutoConfigurationPackages.has(beanFactory)
+        ? AutoConfigurationPackages.get(beanFactory)
+        : List.of();
+    return new SecurityMetadataRegistry(index, applicationPackages);
+  }
+
+  @Bean
+  public static SecurityMetadataPostProcessor securityMetadataPostProcessor(SecurityMetadataRegistry securityMetadataRegistry) {
+    return new SecurityMetadataPostProcessor(securityMetadataRegistry);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public SecurityEnforcer securityEnforcer(SecurityProperties securityProperties, BeanFactory beanFactory) {
+    return new SecurityEnforcer(securityProperties.isStacklessDenials(),
+        securityProperties.getTracing().isPermissionEvents(), new BeanFactoryResolver(beanFactory));
+  }
+
+  /**
+   * Hands every {@link SecurityEventListener} bean to the {@link SecurityEnforcer} once all
+   * singletons exist, so listeners defined by later auto-configurations are included.
+   */
+  @Bean
+  public SmartInitializingSingleton securityEnforcerEventListenerInitializer(
+      SecurityEnforcer securityEnforcer, ObjectProvider<SecurityEventListener> securityEventListeners) {
+    return () -> securityEnforcer.setEventListener(
+        SecurityEventListener.of(securityEventListeners.orderedStream().toList()));
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public AuthoritiesCache authoritiesCache(SecurityProperties securityProperties) {
+    return new AuthoritiesCache(securityProperties.getAuthoritiesCacheSize());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.permission-catalog", name = "version")
+  public AuthoritiesCodec authoritiesCodec(SecurityProperties securityProperties) {
+    SecurityProperties.PermissionCatalog catalog = securityProperties.getPermissionCatalog();
+    return new AuthoritiesCodec(catalog.getVersion(), catalog.getKeys());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.decision-log", name = "enabled", havingValue = "true")
+  public DecisionLog securityDecisionLog(SecurityProperties securityProperties) {
+    return new DecisionLog(securityProperties.getDecisionLog());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.rate-limit", name = "enabled", havingValue = "true")
+  public RateLimiter securityRateLimiter(SecurityProperties securityProperties) {
+    return new RateLimiter(securityProperties.getRateLimit());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "security.load-shedding", name = "enabled", havingValue = "true")
+  public AdaptiveConcurrencyLimiter securityConcurrencyLimiter(SecurityProperties securityProperties) {
+    SecurityProperties.LoadShedding settings = securityProperties.getLoadShedding();
+    return new AdaptiveConcurrencyLimiter(settings.getInitialLimit(), settings.getMinLimit(), settings.getMaxLimit(),
+        settings.getBackoffRatio(), settings.getLatencyTolerance(), settings.getUserShare(), settings.getAnonymousShare());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnBean(PermissionProvider.class)
+  public PermissionCache permissionCache(PermissionProvider permissionProvider, SecurityProperties securityProperties) {
+    SecurityProperties.PermissionProvider settings = securityProperties.getPermissionProvider();
+    return new PermissionCache(permissionProvider, settings.getCacheSize(), settings.getTtl(), settings.getRefreshAfter());
+  }
+
+}
@@ -0,0 +1,33 @@
+package com.intern.hub.starter.security.autoconfig;
+
+import com.intern.hub.starter.security.metadata.SecurityMetadataRegistry;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link BeanPostProcessor} that resolves the security metadata of every bean class once while
+ * the context starts.
+ * <p>
+ * Each guarded method is turned into an immutable
+ * {@link com.intern.hub.starter.security.metadata.MethodSecurityMetadata} entry of the
+ * {@link SecurityMetadataRegistry}. This also registers every declared permission key in the
+ * {@link com.intern.hub.starter.security.permission.PermissionRegistry}, giving them the lowest,
+ * densest ids.
+ * </p>
+ *
+ * @see SecurityMetadataRegistry
+ */
+@RequiredArgsConstructor
+public class SecurityMetadataPostProcessor implements BeanPostProcessor {
+
+  private final SecurityMetadataRegistry metadataRegistry;
+
+  @Override
+  public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+    metadataRegistry.register(ClassUtils.getUserClass(bean));
+    return bean;
+  }
+
+}
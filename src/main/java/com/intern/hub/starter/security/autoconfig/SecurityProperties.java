@@ -4,10 +4,14 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Configuration properties for the security starter.
@@ -54,8 +58,588 @@ public class SecurityProperties {
    * <p>
    * Requests matching these patterns will bypass the security filter entirely.
    * Useful for health checks, actuator endpoints, etc.
+   * A pattern without wildcards is matched as a prefix; Ant-style {@code ?},
+   * {@code *} and {@code **} wildcards are also supported (e.g.
+   * {@code /swagger-ui/**}, {@code /static/*.css}). URIs are matched without
+   * {@code ;} path parameters or dot segments and with repeated slashes merged, and paths under
+   * {@link #internalPathPrefix} are never excluded.
    * </p>
    */
   private List<String> excludedPaths = new ArrayList<>();
 
+  /**
+   * Maximum number of request URIs whose path classification is cached.
+   * <p>
+   * Only used when {@code excluded-paths} contains wildcard patterns. Set to
+   * {@code 0} to disable the cache. Defaults to {@code 512}.
+   * </p>
+   */
+  private int pathClassificationCacheSize = 512;
+
+  /**
+   * Maximum number of distinct {@code X-Authorities} header values whose parsed
+   * permission sets are cached and shared between requests.
+   * <p>
+   * Set to {@code 0} to parse the header on every request. Defaults to
+   * {@code 256}.
+   * </p>
+   */
+  private int authoritiesCacheSize = 256;
+
+  /**
+   * HMAC signing of internal requests.
+   */
+  private InternalSignature internalSignature = new InternalSignature();
+
+  /**
+   * Shared permission catalogue used to decode the binary
+   * {@code X-Authorities-Bin} header.
+   */
+  private PermissionCatalog permissionCatalog = new PermissionCatalog();
+
+  /**
+   * How the security annotations are enforced.
+   * <p>
+   * Defaults to {@link EnforcementMode#ASPECT}.
+   * </p>
+   */
+  private EnforcementMode enforcementMode = EnforcementMode.ASPECT;
+
+  /**
+   * Deny access with a {@code ForbiddenException} that skips capturing a stack
+   * trace, instead of one with a full stack trace for every denial.
+   * <p>
+   * Denials are expected outcomes whose stack trace is never useful, so this
+   * defaults to {@code true}; disable it to get per-denial stack traces while
+   * debugging.
+   * </p>
+   */
+  private boolean stacklessDenials = true;
+
+  /**
+   * With {@link EnforcementMode#INTERCEPTOR}, whether annotated beans other
+   * than controllers are proxied and enforced by an aspect. Disable for a
+   * proxy-free setup, e.g. in native images; startup then fails if a bean
+   * other than a controller has security annotations, since they would not be
+   * enforced. Defaults to {@code true}.
+   */
+  private boolean serviceAspectEnabled = true;
+
+  /**
+   * Write the current user to the {@code userId} MDC entry for every request.
+   * <p>
+   * Defaults to {@code true}. Applications rendering the user with
+   * {@link com.intern.hub.starter.security.logging.UserIdConverter} can disable
+   * it to skip the per-request {@code ThreadLocal} MDC writes.
+   * </p>
+   */
+  private boolean mdcEnabled = true;
+
+  /**
+   * Use the endpoint security index generated at compile time by
+   * {@link com.intern.hub.starter.security.processor.SecurityIndexProcessor}
+   * when one is on the class path, instead of scanning every bean class.
+   * Defaults to {@code true}.
+   */
+  private boolean indexEnabled = true;
+
+  /**
+   * Register an {@link com.intern.hub.starter.security.context.AuthContextTaskDecorator}
+   * so {@code @Async} methods and auto-configured task executors run with the
+   * caller's {@link com.intern.hub.starter.security.context.AuthContext}.
+   * Defaults to {@code true}.
+   */
+  private boolean contextPropagationEnabled = true;
+
+  /**
+   * OpenTelemetry span enrichment.
+   */
+  private Tracing tracing = new Tracing();
+
+  /**
+   * Micrometer metrics.
+   */
+  private Metrics metrics = new Metrics();
+
+  /**
+   * Asynchronous security decision log.
+   */
+  private DecisionLog decisionLog = new DecisionLog();
+
+  /**
+   * Near-cache of a {@link com.intern.hub.starter.security.permission.PermissionProvider}.
+   */
+  private PermissionProvider permissionProvider = new PermissionProvider();
+
+  /**
+   * Per-caller rate limiting in the security filter.
+   */
+  private RateLimit rateLimit = new RateLimit();
+
+  /**
+   * Priority-aware load shedding in the security filter.
+   */
+  private LoadShedding loadShedding = new LoadShedding();
+
+  /**
+   * Settings for HMAC-signed internal requests.
+   * <p>
+   * When enabled, callers sign "{@code METHOD\npath\ntimestamp\nnonce}" with
+   * the internal secret and send it in the {@code X-Internal-Signature},
+   * {@code X-Internal-Timestamp} and {@code X-Internal-Nonce} headers. Requests
+   * outside the clock-skew window or reusing a nonce are rejected.
+   * </p>
+   */
+  @Getter
+  @Setter
+  public static class InternalSignature {
+
+    /**
+     * Require HMAC-signed internal requests. Defaults to {@code false}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Also accept the static {@code X-Internal-Secret} header while callers
+     * migrate to signed requests. Defaults to {@code false}.
+     */
+    private boolean acceptStaticSecret = false;
+
+    /**
+     * The HMAC algorithm. Defaults to {@code HmacSHA256}.
+     */
+    private String algorithm = "HmacSHA256";
+
+    /**
+     * Maximum accepted distance between the request timestamp and the server
+     * clock. Defaults to 10 seconds.
+     */
+    private Duration maxClockSkew = Duration.ofSeconds(10);
+
+    /**
+     * Number of time buckets of the nonce replay cache. Defaults to {@code 10}.
+     */
+    private int nonceBuckets = 10;
+
+    /**
+     * Nonce slots per time bucket, rounded up to a power of two. Should exceed
+     * the peak internal request rate times the bucket width
+     * ({@code 2 * max-clock-skew / (nonce-buckets - 1)}). Defaults to
+     * {@code 131072} (1 MiB per bucket).
+     */
+    private int nonceBucketCapacity = 1 << 17;
+
+  }
+
+  /**
+   * Settings for the OpenTelemetry {@code UserIdSpanProcessor}.
+   */
+  @Getter
+  @Setter
+  public static class Tracing {
+
+    /**
+     * Attributes added to every span started while a context is bound.
+     * Defaults to {@code enduser.id} only.
+     */
+    private Set<SpanAttribute> attributes = EnumSet.of(SpanAttribute.USER_ID);
+
+    /**
+     * Record a {@code security.permission_check} event on the current span for
+     * every permission check, with the permission and the outcome. Only
+     * recording spans pay for it. Defaults to {@code true}.
+     */
+    private boolean permissionEvents = true;
+
+  }
+
+  /**
+   * Settings for the Micrometer security metrics, registered when a
+   * {@code MeterRegistry} bean is present.
+   */
+  @Getter
+  @Setter
+  public static class Metrics {
+
+    /**
+     * Publish the security metrics. Defaults to {@code true}.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of guarded methods with their own
+     * {@code security.access.decisions} series; further methods are counted
+     * under {@code method=other}. Defaults to {@code 1000}.
+     */
+    private int maxMethodTags = 1000;
+
+  }
+
+  /**
+   * Settings for the cache in front of a
+   * {@link com.intern.hub.starter.security.permission.PermissionProvider} bean.
+   * <p>
+   * Only used when the application defines such a bean; permissions are then
+   * looked up by {@code X-UserId} and the authorities headers are ignored.
+   * </p>
+   */
+  @Getter
+  @Setter
+  public static class PermissionProvider {
+
+    /**
+     * Maximum number of users whose permissions are cached. Defaults to
+     * {@code 10000}.
+     */
+    private int cacheSize = 10_000;
+
+    /**
+     * Age after which cached permissions are loaded again before use.
+     * Defaults to 5 minutes.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Age after which a cache hit triggers a background refresh. Defaults to
+     * 1 minute.
+     */
+    private Duration refreshAfter = Duration.ofMinutes(1);
+
+    /**
+     * Header carrying the permission version of the user; a version the cache
+     * has not loaded forces a reload. Defaults to {@code X-Permissions-Version}.
+     */
+    private String versionHeader = "X-Permissions-Version";
+
+  }
+
+  /**
+   * Settings for the per-caller rate limits of the security filter.
+   * <p>
+   * Authenticated users are limited by {@code X-UserId} and internal callers
+   * by {@link #internalCallerHeader}. Requests over the limit are answered with
+   * 429 and a {@code Retry-After} header. Unauthenticated requests and excluded
+   * paths are not limited.
+   * </p>
+   */
+  @Getter
+  @Setter
+  public static class RateLimit {
+
+    /**
+     * Enable rate limiting. Defaults to {@code false}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of users tracked per limit; when full, the bucket closest
+     * to full is evicted. Each tracked user takes 16 bytes. Defaults to
+     * {@code 100000}.
+     */
+    private int capacity = 100_000;
+
+    /**
+     * Limit of each authenticated user. Defaults to 50 requests per second
+     * with bursts of 100.
+     */
+    private Limit user = new Limit(50, 100);
+
+    /**
+     * Limit of each internal caller. Defaults to 500 requests per second with
+     * bursts of 1000.
+     */
+    private Limit internal = new Limit(500, 1000);
+
+    /**
+     * Header naming the calling service on internal requests. Callers without
+     * it share one bucket. Defaults to {@code X-Internal-Caller}.
+     */
+    private String internalCallerHeader = "X-Internal-Caller";
+
+    /**
+     * Limits overriding {@link #user} and {@link #internal} for matching
+     * paths, in order of precedence.
+     */
+    private List<PathRateLimit> paths = new ArrayList<>();
+
+  }
+
+  /**
+   * Settings for the adaptive concurrency limit of the security filter.
+   * <p>
+   * The limit on requests in flight adapts to the observed latency. When it is
+   * reached, anonymous requests are refused first, then authenticated users,
+   * and internal calls last, with 503 and {@code Retry-After: 1}. Excluded
+   * paths are never shed.
+   * </p>
+   */
+  @Getter
+  @Setter
+  public static class LoadShedding {
+
+    /**
+     * Enable load shedding. Defaults to {@code false}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Limit on requests in flight before any latency is observed. Defaults to
+     * {@code 100}.
+     */
+    private int initialLimit = 100;
+
+    /**
+     * Lowest limit. Defaults to {@code 10}.
+     */
+    private int minLimit = 10;
+
+    /**
+     * Highest limit. Defaults to {@code 1000}.
+     */
+    private int maxLimit = 1000;
+
+    /**
+     * Factor applied to the limit when a request is slow. Defaults to
+     * {@code 0.9}.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * How many times the average latency a request may take before it counts
+     * as slow. Defaults to {@code 2.0}.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Share of the limit available to authenticated users. Defaults to
+     * {@code 0.9}.
+     */
+    private double userShare = 0.9;
+
+    /**
+     * Share of the limit available to anonymous requests. Defaults to
+     * {@code 0.7}.
+     */
+    private double anonymousShare = 0.7;
+
+  }
+
+  /**
+   * A token-bucket limit.
+   */
+  @Getter
+  @Setter
+  public static class Limit {
+
+    /**
+     * Sustained number of requests per second.
+     */
+    private double permitsPerSecond;
+
+    /**
+     * Number of requests allowed at once after a quiet period.
+     */
+    private int burst;
+
+    public Limit() {
+    }
+
+    public Limit(double permitsPerSecond, int burst) {
+      this.permitsPerSecond = permitsPerSecond;
+      this.burst = burst;
+    }
+
+  }
+
+  /**
+   * A limit applied to every caller of the paths matching {@link #pattern}.
+   */
+  @Getter
+  @Setter
+  public static class PathRateLimit extends Limit {
+
+    /**
+     * Path prefix or Ant-style pattern, with the syntax of
+     * {@code security.excluded-paths}.
+     */
+    private String pattern;
+
+  }
+
+  /**
+   * Settings for the asynchronous security decision log.
+   * <p>
+   * Decisions are handed to a background writer through a bounded ring buffer
+   * and appended to rolling files in {@link #directory}.
+   * </p>
+   */
+  @Getter
+  @Setter
+  public static class DecisionLog {
+
+    /**
+     * Write the decision log. Defaults to {@code false}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory of the log files. Defaults to {@code logs/security-decisions}.
+     */
+    private String directory = "logs/security-decisions";
+
+    /**
+     * File format. Defaults to {@link Format#NDJSON}.
+     */
+    private Format format = Format.NDJSON;
+
+    /**
+     * Also log granted requests and calls; denials are always logged.
+     * Defaults to {@code false}.
+     */
+    private boolean includeGrants = false;
+
+    /**
+     * Number of decisions the ring buffer holds, rounded up to a power of two.
+     * Defaults to {@code 8192}.
+     */
+    private int bufferCapacity = 8192;
+
+    /**
+     * What request threads do when the buffer is full. Defaults to
+     * {@link OverflowPolicy#DROP}.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    /**
+     * Maximum number of decisions the writer takes from the buffer at once.
+     * Defaults to {@code 512}.
+     */
+    private int batchSize = 512;
+
+    /**
+     * Size at which the writer rolls to a new file. Binary files are mapped
+     * at this size up front. Defaults to 64 MB.
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Number of files kept; older files are deleted. {@code 0} keeps all.
+     * Defaults to {@code 20}.
+     */
+    private int maxFiles = 20;
+
+    /**
+     * How often written decisions are forced to disk. Defaults to 1 second.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Format of the decision log files.
+     */
+    public enum Format {
+
+      /**
+       * One JSON object per line ({@code .ndjson}).
+       */
+      NDJSON,
+
+      /**
+       * Compact memory-mapped binary records ({@code .sdl}), decoded with
+       * {@code DecisionLogReader}.
+       */
+      BINARY
+
+    }
+
+    /**
+     * Behaviour when the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+
+      /**
+       * Drop the decision and count it; requests are never slowed down.
+       */
+      DROP,
+
+      /**
+       * Make the request thread wait until the writer frees a slot.
+       */
+      BLOCK
+
+    }
+
+  }
+
+  /**
+   * Span attributes describing the current {@code AuthContext}.
+   */
+  public enum SpanAttribute {
+
+    /**
+     * {@code enduser.id}: the authenticated user's id.
+     */
+    USER_ID,
+
+    /**
+     * {@code security.internal}: whether the request is an internal call.
+     */
+    INTERNAL,
+
+    /**
+     * {@code security.authenticated}: whether the user is authenticated.
+     */
+    AUTHENTICATED,
+
+    /**
+     * {@code security.permission_count}: number of granted permissions.
+     */
+    PERMISSION_COUNT
+
+  }
+
+  /**
+   * Versioned, ordered list of every permission key, shared with the gateway.
+   * <p>
+   * The position of a key in {@link #keys} is its index in the binary
+   * {@code X-Authorities-Bin} encoding. The binary header is only accepted when
+   * {@link #version} is set, and only if it was encoded with the same version.
+   * </p>
+   */
+  @Getter
+  @Setter
+  public static class PermissionCatalog {
+
+    /**
+     * Version of the catalogue. Must be bumped whenever keys are reordered or
+     * removed.
+     */
+    private Integer version;
+
+    /**
+     * The ordered permission keys. New keys should only be appended.
+     */
+    private List<String> keys = new ArrayList<>();
+
+  }
+
+  /**
+   * Strategy used to enforce {@code @HasPermission}, {@code @Internal} and
+   * {@code @Authenticated}.
+   */
+  public enum EnforcementMode {
+
+    /**
+     * Every annotated bean, controllers included, is proxied by the security aspect.
+     */
+    ASPECT,
+
+    /**
+     * Controller methods are checked by a {@code HandlerInterceptor} using the precomputed
+     * metadata, so controllers are not proxied. Other beans are still proxied unless
+     * {@code security.service-aspect-enabled} is {@code false}.
+     */
+    INTERCEPTOR
+
+  }
+
 }
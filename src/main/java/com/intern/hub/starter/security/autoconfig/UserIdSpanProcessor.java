@@ -1,22 +1,109 @@
 package com.intern.hub.starter.security.autoconfig;
 
+import com.intern.hub.starter.security.context.AuthContext;
 import com.intern.hub.starter.security.context.AuthContextHolder;
+import com.intern.hub.starter.security.context.AuthContextValueCache;
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.trace.ReadWriteSpan;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Enriches every started span with attributes of the bound {@link AuthContext}.
+ * <p>
+ * Services start dozens of spans per request, so the enrichment path does not allocate: the
+ * context is read straight from {@link AuthContextHolder#AUTH_CONTEXT}, and the attributes are
+ * built once per context and kept in an {@link AuthContextValueCache}.
+ * Values are copied from the cached {@link Attributes} key by key, as they are already boxed.
+ * </p>
+ *
+ * @see SecurityProperties.Tracing
+ */
 public class UserIdSpanProcessor implements SpanProcessor {
 
-  private static final AttributeKey<Long> ENDUSER_ID = AttributeKey.longKey("enduser.id");
+  static final AttributeKey<Long> ENDUSER_ID = AttributeKey.longKey("enduser.id");
+
+  static final AttributeKey<Boolean> INTERNAL_KEY = AttributeKey.booleanKey("security.internal");
+
+  static final AttributeKey<Boolean> AUTHENTICATED_KEY = AttributeKey.booleanKey("security.authenticated");
+
+  static final AttributeKey<Long> PERMISSION_COUNT_KEY = AttributeKey.longKey("security.permission_count");
+
+  private static final int CACHE_SIZE = 256;
+
+  private final boolean userId;
+  private final boolean internal;
+  private final boolean authenticated;
+  private final boolean permissionCount;
+
+  private final AttributeKey<?>[] keys;
+
+  private final AuthContextValueCache<Attributes> attributesCache =
+      new AuthContextValueCache<>(CACHE_SIZE, this::buildAttributes);
+
+  public UserIdSpanProcessor() {
+    this(EnumSet.of(SecurityProperties.SpanAttribute.USER_ID));
+  }
+
+  /**
+   * Creates a processor adding the given attributes.
+   *
+   * @param attributes the attributes to add
+   */
+  public UserIdSpanProcessor(Set<SecurityProperties.SpanAttribute> attributes) {
+    this.userId = attributes.contains(SecurityProperties.SpanAttribute.USER_ID);
+    this.internal = attributes.contains(SecurityProperties.SpanAttribute.INTERNAL);
+    this.authenticated = attributes.contains(SecurityProperties.SpanAttribute.AUTHENTICATED);
+    this.permissionCount = attributes.contains(SecurityProperties.SpanAttribute.PERMISSION_COUNT);
+    this.keys = attributes.stream()
+        .map(attribute -> switch (attribute) {
+          case USER_ID -> ENDUSER_ID;
+          case INTERNAL -> INTERNAL_KEY;
+          case AUTHENTICATED -> AUTHENTICATED_KEY;
+          case PERMISSION_COUNT -> PERMISSION_COUNT_KEY;
+        })
+        .toArray(AttributeKey<?>[]::new);
+  }
 
   @Override
+  @SuppressWarnings("unchecked")
   public void onStart(Context context, ReadWriteSpan readWriteSpan) {
-    if(!AuthContextHolder.AUTH_CONTEXT.isBound()) return;
-    AuthContextHolder.get()
-        .filter(ctx -> ctx.authenticated() && ctx.userId() != null)
-        .ifPresent(ctx -> readWriteSpan.setAttribute(ENDUSER_ID, ctx.userId()));
+    if (keys.length == 0 || !AuthContextHolder.AUTH_CONTEXT.isBound()) {
+      return;
+    }
+    Attributes attributes = attributesCache.get(AuthContextHolder.AUTH_CONTEXT.get());
+    if (attributes.isEmpty()) {
+      return;
+    }
+    for (AttributeKey<?> key : keys) {
+      Object value = attributes.get(key);
+      if (value != null) {
+        readWriteSpan.setAttribute((AttributeKey<Object>) key, value);
+      }
+    }
+  }
+
+  private Attributes buildAttributes(AuthContext authContext) {
+    AttributesBuilder builder = Attributes.builder();
+    if (userId && authContext.authenticated() && authContext.userId() != null) {
+      builder.put(ENDUSER_ID, authContext.userId());
+    }
+    if (internal) {
+      builder.put(INTERNAL_KEY, authContext.internal());
+    }
+    if (authenticated) {
+      builder.put(AUTHENTICATED_KEY, authContext.authenticated());
+    }
+    if (permissionCount) {
+      builder.put(PERMISSION_COUNT_KEY, (long) authContext.permissions().size());
+    }
+    return builder.build();
   }
 
   @Override
@@ -1,10 +1,13 @@
 package com.intern.hub.starter.security.autoconfig.audit;
 
+import com.intern.hub.starter.security.aot.AuditRuntimeHints;
+import com.intern.hub.starter.security.context.SystemBatchRunner;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.domain.AuditorAware;
 
 /**
@@ -26,6 +29,7 @@ import org.springframework.data.domain.AuditorAware;
  * @see AuditorAwareImpl
  */
 @AutoConfiguration
+@ImportRuntimeHints(AuditRuntimeHints.class)
 @EnableConfigurationProperties(AuditDataProperties.class)
 @ConditionalOnProperty(prefix = "audit.data", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class AuditAwareAutoConfiguration {
@@ -42,4 +46,17 @@ public class AuditAwareAutoConfiguration {
     return new AuditorAwareImpl(auditDataProperties);
   }
 
+  /**
+   * Creates the {@link SystemBatchRunner} for jobs running outside a request,
+   * using the configured default system ID as the system user.
+   *
+   * @param auditDataProperties the audit configuration properties
+   * @return the runner
+   */
+  @Bean
+  @ConditionalOnMissingBean
+  public SystemBatchRunner systemBatchRunner(AuditDataProperties auditDataProperties) {
+    return new SystemBatchRunner(auditDataProperties.getDefaultSystemId(), auditDataProperties.isBatchTimestamp());
+  }
+
 }
@@ -18,6 +18,8 @@ import org.springframework.validation.annotation.Validated;
  *   data:
  *     enabled: true
  *     default-system-id: 0
+ *     history:
+ *       enabled: true
  * </pre>
  *
  * @see AuditAwareAutoConfiguration
@@ -47,4 +49,68 @@ public class AuditDataProperties {
    */
   private Long defaultSystemId = 0L;
 
+  /**
+   * Stamp every entity written by one {@code SystemBatchRunner} job with the
+   * same {@code createdAt}/{@code updatedAt}, read once when the job starts,
+   * instead of reading the clock per entity.
+   * Default: {@code false}
+   */
+  private boolean batchTimestamp = false;
+
+  /**
+   * Field-level change history of {@code AuditEntity} subclasses.
+   */
+  private History history = new History();
+
+  /**
+   * Settings for the entity change history.
+   * <p>
+   * When enabled, every insert and update of an {@code AuditEntity} subclass is
+   * diffed field by field and written, one row per changed field, to
+   * {@link #tableName} by a background writer using JDBC batch inserts.
+   * </p>
+   */
+  @Getter
+  @Setter
+  public static class History {
+
+    /**
+     * Record the change history. Requires a {@code DataSource} bean.
+     * Default: {@code false}
+     */
+    private boolean enabled = false;
+
+    /**
+     * Name of the history table, optionally schema-qualified.
+     * Default: {@code audit_change_history}
+     */
+    private String tableName = "audit_change_history";
+
+    /**
+     * Create the history table on startup if it does not exist.
+     * Default: {@code true}
+     */
+    private boolean initializeSchema = true;
+
+    /**
+     * Maximum number of entity changes waiting to be written; further changes
+     * are dropped and counted.
+     * Default: {@code 10000}
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Maximum number of entity changes written per JDBC batch.
+     * Default: {@code 100}
+     */
+    private int batchSize = 100;
+
+    /**
+     * Number of characters after which recorded values are truncated.
+     * Default: {@code 1000}
+     */
+    private int maxValueLength = 1000;
+
+  }
+
 }
@@ -0,0 +1,83 @@
+package com.intern.hub.starter.security.autoconfig.audit;
+
+import com.intern.hub.starter.security.history.ChangeHistoryRecorder;
+import com.intern.hub.starter.security.history.ChangeHistoryWriter;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Auto-configuration for the entity change history.
+ * <p>
+ * This configuration is enabled when:
+ * <ul>
+ *   <li>Spring JDBC is on the classpath</li>
+ *   <li>A {@link DataSource} and an {@link AuditorAware} bean are available</li>
+ *   <li>The audit feature and its history are enabled
+ *   ({@code audit.data.history.enabled=true})</li>
+ * </ul>
+ * </p>
+ *
+ * @see AuditDataProperties.History
+ * @see ChangeHistoryRecorder
+ */
+@AutoConfiguration(
+    after = AuditAwareAutoConfiguration.class,
+    afterName = {
+        "org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration",
+        "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration"
+    })
+@EnableConfigurationProperties(AuditDataProperties.class)
+@ConditionalOnClass(JdbcTemplate.class)
+@ConditionalOnBean({DataSource.class, AuditorAware.class})
+@ConditionalOnProperty(prefix = "audit.data", name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnProperty(prefix = "audit.data.history", name = "enabled", havingValue = "true")
+public class AuditHistoryAutoConfiguration {
+
+  /**
+   * Creates the background writer, creating the history table first if configured.
+   *
+   * @param dataSource          the data source of the history table
+   * @param auditDataProperties the audit configuration properties
+   * @return the writer
+   */
+  @Bean
+  @ConditionalOnMissingBean
+  public ChangeHistoryWriter changeHistoryWriter(DataSource dataSource, AuditDataProperties auditDataProperties) {
+    AuditDataProperties.History history = auditDataProperties.getHistory();
+    ChangeHistoryWriter writer = new ChangeHistoryWriter(
+        dataSource, history.getTableName(), history.getQueueCapacity(), history.getBatchSize());
+    if (history.isInitializeSchema()) {
+      writer.initializeSchema(history.getMaxValueLength());
+    }
+    return writer;
+  }
+
+  /**
+   * Creates and activates the recorder used by {@code AuditEntity}.
+   *
+   * @param auditorAware        the source of the auditor
+   * @param changeHistoryWriter the writer
+   * @param auditDataProperties the audit configuration properties
+   * @return the recorder
+   */
+  @Bean
+  @ConditionalOnMissingBean
+  public ChangeHistoryRecorder changeHistoryRecorder(AuditorAware<Long> auditorAware,
+                                                     ChangeHistoryWriter changeHistoryWriter,
+                                                     AuditDataProperties auditDataProperties) {
+    ChangeHistoryRecorder recorder = new ChangeHistoryRecorder(
+        auditorAware, changeHistoryWriter, auditDataProperties.getHistory().getMaxValueLength());
+    recorder.activate();
+    return recorder;
+  }
+
+}
@@ -1,11 +1,13 @@
 package com.intern.hub.starter.security.autoconfig.audit;
 
+import com.intern.hub.starter.security.aot.AuditRuntimeHints;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
@@ -50,6 +52,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
  * @see AuditorAwareImpl
  */
 @AutoConfiguration
+@ImportRuntimeHints(AuditRuntimeHints.class)
 @AutoConfigureAfter(AuditAwareAutoConfiguration.class)
 @EnableConfigurationProperties(AuditDataProperties.class)
 @ConditionalOnClass(EnableJpaAuditing.class)
@@ -2,7 +2,7 @@ package com.intern.hub.starter.security.autoconfig.audit;
 
 import com.intern.hub.starter.security.context.AuthContext;
 import com.intern.hub.starter.security.context.AuthContextHolder;
-import lombok.RequiredArgsConstructor;
+import com.intern.hub.starter.security.context.AuthContextValueCache;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.data.domain.AuditorAware;
@@ -20,18 +20,36 @@ import java.util.Optional;
  * <p>The auditor resolution follows this logic:</p>
  * <ol>
  *   <li>If an authenticated user exists in the context, return their user ID</li>
- *   <li>Otherwise, return the configured default system ID</li>
+ *   <li>Otherwise, return the configured default system ID, also when no context
+ *   is bound at all (e.g. on {@code @Scheduled} threads)</li>
  * </ol>
  *
+ * <p>
+ * Spring Data calls this once per audited field of every saved entity, so the
+ * result is resolved once per {@link AuthContext} and kept in an
+ * {@link AuthContextValueCache}; bulk writes return the same {@link Optional}
+ * without allocating.
+ * </p>
+ *
  * @see AuditDataProperties
  * @see AuthContextHolder
  */
 @Slf4j
-@RequiredArgsConstructor
 public class AuditorAwareImpl implements AuditorAware<Long> {
 
+  private static final int CACHE_SIZE = 256;
+
   private final AuditDataProperties auditDataProperties;
 
+  private final Optional<Long> systemAuditor;
+
+  private final AuthContextValueCache<Optional<Long>> auditors = new AuthContextValueCache<>(CACHE_SIZE, this::resolveAuditor);
+
+  public AuditorAwareImpl(AuditDataProperties auditDataProperties) {
+    this.auditDataProperties = auditDataProperties;
+    this.systemAuditor = Optional.ofNullable(auditDataProperties.getDefaultSystemId());
+  }
+
   /**
    * Returns the current auditor (user ID) for JPA auditing.
    *
@@ -39,10 +57,20 @@ public class AuditorAwareImpl implements AuditorAware<Long> {
    */
   @Override
   public @NullMarked Optional<Long> getCurrentAuditor() {
-    AuthContext auditor = AuthContextHolder.get().orElse(null);
-    if (auditor == null || auditor.userId() == null) {
+    if (!AuthContextHolder.AUTH_CONTEXT.isBound()) {
+      return systemAuditor;
+    }
+    AuthContext auditor = AuthContextHolder.AUTH_CONTEXT.get();
+    if (auditor == null) {
+      return systemAuditor;
+    }
+    return auditors.get(auditor);
+  }
+
+  private Optional<Long> resolveAuditor(AuthContext auditor) {
+    if (auditor.userId() == null) {
       log.debug("No authenticated user found, using default system ID: {}", auditDataProperties.getDefaultSystemId());
-      return Optional.of(auditDataProperties.getDefaultSystemId());
+      return systemAuditor;
     }
     log.debug("Authenticated user found, auto audit using user ID: {}", auditor.userId());
     return Optional.of(auditor.userId());
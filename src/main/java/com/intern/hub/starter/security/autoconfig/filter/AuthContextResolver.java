@@ -0,0 +1,251 @@
+package com.intern.hub.starter.security.autoconfig.filter;
+
+import com.intern.hub.library.common.dto.ResponseStatus;
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.permission.AuthoritiesCache;
+import com.intern.hub.starter.security.permission.AuthoritiesCodec;
+import com.intern.hub.starter.security.permission.PermissionCache;
+import com.intern.hub.starter.security.permission.PermissionSet;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Function;
+
+/**
+ * Builds the {@link AuthContext} of a user request from the gateway headers.
+ * <p>
+ * Shared by the servlet {@link SecurityFilter} and the reactive
+ * {@link com.intern.hub.starter.security.autoconfig.reactive.ReactiveSecurityFilter}; headers are
+ * read through a lookup function so the same code serves both request types. Malformed identity
+ * headers are reported through the return value rather than exceptions, so the filters can answer
+ * them with a plain 400/401 response.
+ * </p>
+ * <p>
+ * With a {@link PermissionCache}, permissions are looked up by {@code X-UserId} instead of being
+ * read from the authorities headers, which are then ignored. A provider failure on a cache miss
+ * resolves to an empty permission set, so affected requests are denied rather than failing open.
+ * </p>
+ */
+@Slf4j
+public class AuthContextResolver {
+
+  /**
+   * Returned by {@link #userIdOf} for a missing or malformed id.
+   */
+  public static final long INVALID_USER_ID = Long.MIN_VALUE;
+
+  private final AuthoritiesCache authoritiesCache;
+
+  private final AuthoritiesCache binaryAuthoritiesCache;
+
+  private final PermissionCache permissionCache;
+
+  private final String versionHeader;
+
+  /**
+   * Creates a resolver.
+   *
+   * @param authoritiesCache the cache for {@code X-Authorities} values
+   * @param authoritiesCodec the codec for {@code X-Authorities-Bin} values, or {@code null} to
+   *                         ignore that header
+   */
+  public AuthContextResolver(AuthoritiesCache authoritiesCache, AuthoritiesCodec authoritiesCodec) {
+    this(authoritiesCache, authoritiesCodec, null, null);
+  }
+
+  /**
+   * Creates a resolver that loads permissions through a {@link PermissionCache}.
+   *
+   * @param authoritiesCache the cache for {@code X-Authorities} values
+   * @param authoritiesCodec the codec for {@code X-Authorities-Bin} values, or {@code null} to
+   *                         ignore that header
+   * @param permissionCache  the permission cache, or {@code null} to read the authorities headers
+   * @param versionHeader    the header carrying the permission version, or {@code null} if none
+   */
+  public AuthContextResolver(AuthoritiesCache authoritiesCache, AuthoritiesCodec authoritiesCodec,
+                             PermissionCache permissionCache, String versionHeader) {
+    this.authoritiesCache = authoritiesCache;
+    this.binaryAuthoritiesCache = authoritiesCodec != null
+        ? new AuthoritiesCache(authoritiesCache.capacity(), authoritiesCodec::decode)
+        : null;
+    this.permissionCache = permissionCache;
+    this.versionHeader = versionHeader;
+  }
+
+  /**
+   * Resolves the context of a request to a protected path.
+   *
+   * @param headers looks up a request header by name, returning {@code null} if absent
+   * @return {@link AuthContext#UNAUTHENTICATED_CONTEXT} unless {@code X-Authenticated} is
+   * {@code true}, otherwise the authenticated context, or {@code null} if the request is
+   * authenticated but {@code X-UserId} is missing or invalid (see {@link #rejectionOf})
+   */
+  public AuthContext resolve(Function<String, String> headers) {
+    if (!authenticated(headers)) {
+      return AuthContext.UNAUTHENTICATED_CONTEXT;
+    }
+    long userId = userIdOf(headers);
+    return userId != INVALID_USER_ID ? resolve(userId, headers) : null;
+  }
+
+  /**
+   * Checks {@code X-Authenticated}, the first step of {@link #resolve(Function)}.
+   *
+   * @param headers looks up a request header by name, returning {@code null} if absent
+   * @return {@code true} if the gateway authenticated the request
+   */
+  public boolean authenticated(Function<String, String> headers) {
+    String authenticated = headers.apply("X-Authenticated");
+    return authenticated != null && authenticated.equalsIgnoreCase("true");
+  }
+
+  /**
+   * Parses {@code X-UserId} of an authenticated request without loading any permission, so the
+   * filters can rate-limit and shed the request before doing that work.
+   *
+   * @param headers looks up a request header by name, returning {@code null} if absent
+   * @return the user id, or {@link #INVALID_USER_ID} if the header is missing or malformed (see
+   * {@link #rejectionOf})
+   */
+  public long userIdOf(Function<String, String> headers) {
+    return parseUserId(headers.apply("X-UserId"));
+  }
+
+  /**
+   * Builds the context of an authenticated user, loading its permissions.
+   *
+   * @param userId  the user id returned by {@link #userIdOf}
+   * @param headers looks up a request header by name, returning {@code null} if absent
+   * @return the authenticated context
+   */
+  public AuthContext resolve(long userId, Function<String, String> headers) {
+    PermissionSet permissions = permissionCache != null
+        ? loadPermissions(userId, headers)
+        : parseAuthorities(headers);
+    return new AuthContext(false, true, userId, permissions);
+  }
+
+  /**
+   * Checks whether {@link #resolve(long, Function)} can answer without calling a
+   * {@link com.intern.hub.starter.security.permission.PermissionProvider}, so the reactive filter
+   * only moves requests of uncached users off the event loop.
+   *
+   * @param userId  the user id returned by {@link #userIdOf}
+   * @param headers looks up a request header by name, returning {@code null} if absent
+   * @return {@code false} if resolving may block on the provider
+   */
+  public boolean resolvesWithoutLoading(long userId, Function<String, String> headers) {
+    return permissionCache == null || permissionCache.isCached(userId, version(headers));
+  }
+
+  /**
+   * Explains why {@link #resolve(Function)} returned {@code null} for the given headers.
+   *
+   * @param headers looks up a request header by name, returning {@code null} if absent
+   * @return the rejection to send
+   */
+  public Rejection rejectionOf(Function<String, String> headers) {
+    String userIdHeader = headers.apply("X-UserId");
+    return userIdHeader == null || userIdHeader.isBlank() ? Rejection.MISSING_USER_ID : Rejection.INVALID_USER_ID;
+  }
+
+  private PermissionSet loadPermissions(long userId, Function<String, String> headers) {
+    try {
+      return permissionCache.get(userId, version(headers));
+    } catch (RuntimeException e) {
+      log.warn("Could not load the permissions of user {}, denying all permissions", userId, e);
+      return PermissionSet.EMPTY;
+    }
+  }
+
+  private String version(Function<String, String> headers) {
+    return versionHeader != null ? headers.apply(versionHeader) : null;
+  }
+
+  private PermissionSet parseAuthorities(Function<String, String> headers) {
+    if (binaryAuthoritiesCache != null) {
+      String binaryHeader = headers.apply("X-Authorities-Bin");
+      if (binaryHeader != null) {
+        try {
+          return binaryAuthoritiesCache.get(binaryHeader);
+        } catch (IllegalArgumentException e) {
+          log.debug("Ignoring undecodable X-Authorities-Bin header: {}", e.getMessage());
+        }
+      }
+    }
+    return authoritiesCache.get(headers.apply("X-Authorities"));
+  }
+
+  /**
+   * Parses a decimal user id without throwing, so malformed headers never reach the exception
+   * machinery.
+   *
+   * @return the user id, or {@link #INVALID_USER_ID} if the value is missing, not a number or out
+   * of range
+   */
+  static long parseUserId(String value) {
+    if (value == null) {
+      return INVALID_USER_ID;
+    }
+    int length = value.length();
+    int i = 0;
+    boolean negative = false;
+    if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+      negative = value.charAt(0) == '-';
+      i = 1;
+    }
+    if (i == length || length - i > 19) {
+      return INVALID_USER_ID;
+    }
+    long result = 0;
+    for (; i < length; i++) {
+      int digit = value.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return INVALID_USER_ID;
+      }
+      // Accumulate negatively so Long.MIN_VALUE itself is the only overflow sentinel
+      if (result < (Long.MIN_VALUE + digit) / 10) {
+        return INVALID_USER_ID;
+      }
+      result = result * 10 - digit;
+    }
+    if (!negative) {
+      return result == Long.MIN_VALUE ? INVALID_USER_ID : -result;
+    }
+    return result;
+  }
+
+  /**
+   * Why an authenticated request carries unusable identity headers.
+   */
+  public enum Rejection {
+
+    /**
+     * {@code X-Authenticated} is {@code true} but {@code X-UserId} is absent: 401.
+     */
+    MISSING_USER_ID(401, "UNAUTHORIZED", "Unauthorized: Missing X-UserId header"),
+
+    /**
+     * {@code X-UserId} is not a valid number: 400.
+     */
+    INVALID_USER_ID(400, "BAD_REQUEST", "Bad Request: Invalid X-UserId header");
+
+    private final int httpStatus;
+
+    private final ResponseStatus responseStatus;
+
+    Rejection(int httpStatus, String code, String message) {
+      this.httpStatus = httpStatus;
+      this.responseStatus = new ResponseStatus(code, message);
+    }
+
+    public int httpStatus() {
+      return httpStatus;
+    }
+
+    public ResponseStatus responseStatus() {
+      return responseStatus;
+    }
+
+  }
+
+}
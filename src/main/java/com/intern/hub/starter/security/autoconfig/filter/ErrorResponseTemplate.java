@@ -0,0 +1,205 @@
+package com.intern.hub.starter.security.autoconfig.filter;
+
+import com.intern.hub.library.common.dto.ResponseApi;
+import com.intern.hub.library.common.dto.ResponseMetadata;
+import com.intern.hub.library.common.dto.ResponseStatus;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Error response body rendered once by Jackson and then reused as a byte template.
+ * <p>
+ * The body is serialized at startup with placeholder metadata; the placeholders are located in the
+ * output and every later response only splices the request id, trace id and timestamp into the
+ * pre-encoded bytes. The result is byte-for-byte what the {@link ObjectMapper} would have produced,
+ * without walking the object graph per request. If the mapper output cannot be templated (e.g. the
+ * mapper omits or renames the metadata fields) or a request id needs JSON escaping,
+ * {@link #render(String, String, long)} falls back to the mapper.
+ * </p>
+ */
+public final class ErrorResponseTemplate {
+
+  private static final String REQUEST_ID_PLACEHOLDER = "__security_request_id__";
+
+  private static final String TRACE_ID_PLACEHOLDER = "__security_trace_id__";
+
+  private static final long TIMESTAMP_PLACEHOLDER = 7_391_846_205_317_946_281L;
+
+  private static final byte REQUEST_ID = 0;
+  private static final byte TRACE_ID = 1;
+  private static final byte TIMESTAMP = 2;
+
+  private final ObjectMapper objectMapper;
+
+  private final ResponseStatus status;
+
+  private final byte[] withoutMetadata;
+
+  private final Template traced;
+
+  private final Template untraced;
+
+  /**
+   * Renders the templates for the given status.
+   *
+   * @param objectMapper the mapper used to render the body, and as fallback
+   * @param status       the response status of the body
+   */
+  public ErrorResponseTemplate(ObjectMapper objectMapper, ResponseStatus status) {
+    this.objectMapper = objectMapper;
+    this.status = status;
+    this.withoutMetadata = objectMapper.writeValueAsBytes(ResponseApi.of(status, null, null));
+    this.traced = Template.compile(objectMapper.writeValueAsBytes(ResponseApi.of(status, null,
+        new ResponseMetadata(REQUEST_ID_PLACEHOLDER, TRACE_ID_PLACEHOLDER, null, TIMESTAMP_PLACEHOLDER))), true);
+    this.untraced = Template.compile(objectMapper.writeValueAsBytes(ResponseApi.of(status, null,
+        new ResponseMetadata(REQUEST_ID_PLACEHOLDER, null, null, TIMESTAMP_PLACEHOLDER))), false);
+  }
+
+  /**
+   * Returns the body without response metadata. The array is shared and must not be modified.
+   *
+   * @return the pre-rendered body
+   */
+  public byte[] renderWithoutMetadata() {
+    return withoutMetadata;
+  }
+
+  /**
+   * Renders the body with the given metadata.
+   *
+   * @param requestId the request id, not {@code null}
+   * @param traceId   the trace id, or {@code null}
+   * @param timestamp the response timestamp
+   * @return a new array holding the body
+   */
+  public byte[] render(String requestId, String traceId, long timestamp) {
+    Template template = traceId != null ? traced : untraced;
+    if (template == null || requestId == null || !isPlainAscii(requestId)
+        || (traceId != null && !isPlainAscii(traceId))) {
+      return objectMapper.writeValueAsBytes(ResponseApi.of(status, null,
+          new ResponseMetadata(requestId, traceId, null, timestamp)));
+    }
+    return template.render(requestId, traceId, timestamp);
+  }
+
+  /**
+   * Whether the value can be written between JSON quotes without escaping.
+   */
+  private static boolean isPlainAscii(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Literal byte segments interleaved with placeholder slots.
+   */
+  private record Template(byte[][] segments, byte[] slots) {
+
+    /**
+     * Splits the rendered body around its placeholders, or returns {@code null} if an expected
+     * placeholder is missing.
+     */
+    static Template compile(byte[] body, boolean withTraceId) {
+      List<int[]> found = new ArrayList<>();
+      if (!find(body, quoted(REQUEST_ID_PLACEHOLDER), REQUEST_ID, found)
+          || !find(body, Long.toString(TIMESTAMP_PLACEHOLDER).getBytes(StandardCharsets.US_ASCII), TIMESTAMP, found)
+          || (withTraceId && !find(body, quoted(TRACE_ID_PLACEHOLDER), TRACE_ID, found))) {
+        return null;
+      }
+      found.sort((a, b) -> Integer.compare(a[0], b[0]));
+      byte[][] segments = new byte[found.size() + 1][];
+      byte[] slots = new byte[found.size()];
+      int start = 0;
+      for (int i = 0; i < found.size(); i++) {
+        int[] match = found.get(i);
+        segments[i] = Arrays.copyOfRange(body, start, match[0]);
+        slots[i] = (byte) match[2];
+        start = match[1];
+      }
+      segments[found.size()] = Arrays.copyOfRange(body, start, body.length);
+      return new Template(segments, slots);
+    }
+
+    byte[] render(String requestId, String traceId, long timestamp) {
+      String timestampText = Long.toString(timestamp);
+      int length = 0;
+      for (byte[] segment : segments) {
+        length += segment.length;
+      }
+      for (byte slot : slots) {
+        length += switch (slot) {
+          case REQUEST_ID -> requestId.length() + 2;
+          case TRACE_ID -> traceId.length() + 2;
+          default -> timestampText.length();
+        };
+      }
+      byte[] out = new byte[length];
+      int position = 0;
+      for (int i = 0; i < slots.length; i++) {
+        System.arraycopy(segments[i], 0, out, position, segments[i].length);
+        position += segments[i].length;
+        position = switch (slots[i]) {
+          case REQUEST_ID -> writeQuoted(requestId, out, position);
+          case TRACE_ID -> writeQuoted(traceId, out, position);
+          default -> writeAscii(timestampText, out, position);
+        };
+      }
+      byte[] last = segments[slots.length];
+      System.arraycopy(last, 0, out, position, last.length);
+      return out;
+    }
+
+    private static int writeQuoted(String value, byte[] out, int position) {
+      out[position++] = '"';
+      position = writeAscii(value, out, position);
+      out[position++] = '"';
+      return position;
+    }
+
+    private static int writeAscii(String value, byte[] out, int position) {
+      for (int i = 0; i < value.length(); i++) {
+        out[position++] = (byte) value.charAt(i);
+      }
+      return position;
+    }
+
+    private static byte[] quoted(String placeholder) {
+      return ('"' + placeholder + '"').getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Records the single occurrence of {@code needle} as {@code {start, end, slot}}.
+     */
+    private static boolean find(byte[] body, byte[] needle, byte slot, List<int[]> found) {
+      int match = -1;
+      outer:
+      for (int i = 0; i <= body.length - needle.length; i++) {
+        for (int j = 0; j < needle.length; j++) {
+          if (body[i + j] != needle[j]) {
+            continue outer;
+          }
+        }
+        if (match >= 0) {
+          return false;
+        }
+        match = i;
+      }
+      if (match < 0) {
+        return false;
+      }
+      found.add(new int[]{match, match + needle.length, slot});
+      return true;
+    }
+
+  }
+
+}
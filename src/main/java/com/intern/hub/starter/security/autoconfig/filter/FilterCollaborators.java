@@ -0,0 +1,140 @@
+package com.intern.hub.starter.security.autoconfig.filter;
+
+import com.intern.hub.starter.security.event.SecurityEventListener;
+import com.intern.hub.starter.security.permission.AuthoritiesCache;
+import com.intern.hub.starter.security.permission.AuthoritiesCodec;
+import com.intern.hub.starter.security.permission.PermissionCache;
+import com.intern.hub.starter.security.ratelimit.AdaptiveConcurrencyLimiter;
+
+import java.util.Objects;
+
+/**
+ * Optional collaborators of the servlet {@link SecurityFilter} and the reactive
+ * {@link com.intern.hub.starter.security.autoconfig.reactive.ReactiveSecurityFilter}.
+ * <p>
+ * Only the {@link AuthoritiesCache} is required; every other collaborator enables a feature and
+ * is {@code null} when that feature is off. Created through {@link #builder(AuthoritiesCache)}, so
+ * a new feature adds a builder method instead of another filter constructor.
+ * </p>
+ *
+ * @param authoritiesCache   the cache for {@code X-Authorities} values
+ * @param authoritiesCodec   the codec for {@code X-Authorities-Bin} values, or {@code null} to
+ *                           ignore that header
+ * @param eventListener      notified of every filter decision
+ * @param permissionCache    loads permissions by user id instead of reading the authorities
+ *                           headers, or {@code null}
+ * @param rateLimiter        the per-caller rate limits, or {@code null} to disable rate limiting
+ * @param concurrencyLimiter the adaptive limit on requests in flight, or {@code null} to disable
+ *                           load shedding
+ */
+public record FilterCollaborators(AuthoritiesCache authoritiesCache,
+                                  AuthoritiesCodec authoritiesCodec,
+                                  SecurityEventListener eventListener,
+                                  PermissionCache permissionCache,
+                                  RateLimiter rateLimiter,
+                                  AdaptiveConcurrencyLimiter concurrencyLimiter) {
+
+  public FilterCollaborators {
+    Objects.requireNonNull(authoritiesCache, "authoritiesCache");
+    Objects.requireNonNull(eventListener, "eventListener");
+  }
+
+  /**
+   * Creates a builder with every optional collaborator unset.
+   *
+   * @param authoritiesCache the cache for {@code X-Authorities} values
+   * @return a new builder
+   */
+  public static Builder builder(AuthoritiesCache authoritiesCache) {
+    return new Builder(authoritiesCache);
+  }
+
+  /**
+   * Mutable builder for {@link FilterCollaborators}. Not thread-safe.
+   */
+  public static final class Builder {
+
+    private final AuthoritiesCache authoritiesCache;
+
+    private AuthoritiesCodec authoritiesCodec;
+
+    private SecurityEventListener eventListener = SecurityEventListener.NOOP;
+
+    private PermissionCache permissionCache;
+
+    private RateLimiter rateLimiter;
+
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private Builder(AuthoritiesCache authoritiesCache) {
+      this.authoritiesCache = authoritiesCache;
+    }
+
+    /**
+     * Sets the codec for {@code X-Authorities-Bin} values.
+     *
+     * @param authoritiesCodec the codec, or {@code null} to ignore that header
+     * @return this builder
+     */
+    public Builder authoritiesCodec(AuthoritiesCodec authoritiesCodec) {
+      this.authoritiesCodec = authoritiesCodec;
+      return this;
+    }
+
+    /**
+     * Sets the listener notified of every filter decision.
+     *
+     * @param eventListener the listener, {@link SecurityEventListener#NOOP} by default
+     * @return this builder
+     */
+    public Builder eventListener(SecurityEventListener eventListener) {
+      this.eventListener = eventListener;
+      return this;
+    }
+
+    /**
+     * Sets the cache that loads permissions by user id instead of reading the authorities headers.
+     *
+     * @param permissionCache the permission cache, or {@code null}
+     * @return this builder
+     */
+    public Builder permissionCache(PermissionCache permissionCache) {
+      this.permissionCache = permissionCache;
+      return this;
+    }
+
+    /**
+     * Sets the per-caller rate limits.
+     *
+     * @param rateLimiter the rate limiter, or {@code null} to disable rate limiting
+     * @return this builder
+     */
+    public Builder rateLimiter(RateLimiter rateLimiter) {
+      this.rateLimiter = rateLimiter;
+      return this;
+    }
+
+    /**
+     * Sets the adaptive limit on requests in flight.
+     *
+     * @param concurrencyLimiter the limiter, or {@code null} to disable load shedding
+     * @return this builder
+     */
+    public Builder concurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+      this.concurrencyLimiter = concurrencyLimiter;
+      return this;
+    }
+
+    /**
+     * Builds the collaborators.
+     *
+     * @return the collaborators
+     */
+    public FilterCollaborators build() {
+      return new FilterCollaborators(authoritiesCache, authoritiesCodec, eventListener, permissionCache,
+          rateLimiter, concurrencyLimiter);
+    }
+
+  }
+
+}
@@ -0,0 +1,103 @@
+package com.intern.hub.starter.security.autoconfig.filter;
+
+import com.intern.hub.starter.security.autoconfig.SecurityProperties;
+import com.intern.hub.starter.security.signature.InternalRequestSigner;
+import com.intern.hub.starter.security.signature.NonceReplayCache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.Function;
+
+/**
+ * Decides whether a request to an internal endpoint comes from a trusted service.
+ * <p>
+ * By default the static {@code X-Internal-Secret} header is compared in constant time with the
+ * configured secret, whose bytes are encoded once. When
+ * {@code security.internal-signature.enabled=true}, requests must instead carry an HMAC signature
+ * over method, path, timestamp and nonce (see {@link InternalRequestSigner}); stale timestamps and
+ * reused nonces are rejected by a {@link NonceReplayCache}. Setting
+ * {@code security.internal-signature.accept-static-secret=true} accepts both while callers migrate.
+ * </p>
+ */
+@Slf4j
+public class InternalRequestAuthenticator {
+
+  private final byte[] expectedSecret;
+
+  private final InternalRequestSigner signer;
+
+  private final NonceReplayCache nonceCache;
+
+  private final boolean acceptStaticSecret;
+
+  public InternalRequestAuthenticator(SecurityProperties securityProperties) {
+    this.expectedSecret = securityProperties.getInternalSecret().getBytes(StandardCharsets.UTF_8);
+    SecurityProperties.InternalSignature signature = securityProperties.getInternalSignature();
+    if (signature.isEnabled()) {
+      this.signer = new InternalRequestSigner(securityProperties.getInternalSecret(), signature.getAlgorithm());
+      this.nonceCache = new NonceReplayCache(
+          signature.getMaxClockSkew(),
+          signature.getNonceBuckets(),
+          signature.getNonceBucketCapacity());
+      this.acceptStaticSecret = signature.isAcceptStaticSecret();
+    } else {
+      this.signer = null;
+      this.nonceCache = null;
+      this.acceptStaticSecret = true;
+    }
+  }
+
+  /**
+   * Checks the credentials of a request to an internal endpoint.
+   *
+   * @param method  the HTTP method
+   * @param path    the request URI without query string
+   * @param headers looks up a request header by name, returning {@code null} if absent
+   * @return {@code true} if the request comes from a trusted service
+   */
+  public boolean authenticate(String method, String path, Function<String, String> headers) {
+    if (signer != null) {
+      String signature = headers.apply(InternalRequestSigner.SIGNATURE_HEADER);
+      if (signature != null) {
+        return isCorrectSignature(method, path, headers, signature);
+      }
+    }
+    return acceptStaticSecret && isCorrectInternalSecret(headers.apply("X-Internal-Secret"));
+  }
+
+  private boolean isCorrectSignature(String method, String path, Function<String, String> headers, String signature) {
+    String timestamp = headers.apply(InternalRequestSigner.TIMESTAMP_HEADER);
+    String nonce = headers.apply(InternalRequestSigner.NONCE_HEADER);
+    if (timestamp == null || nonce == null || nonce.isEmpty()) {
+      log.debug("Signed internal request without timestamp or nonce");
+      return false;
+    }
+    long millis;
+    try {
+      millis = Long.parseLong(timestamp);
+    } catch (NumberFormatException e) {
+      log.debug("Invalid internal request timestamp: {}", timestamp);
+      return false;
+    }
+    if (!signer.verify(method, path, timestamp, nonce, signature)) {
+      log.debug("Invalid internal request signature");
+      return false;
+    }
+    // only record the nonce once the signature is known to be genuine
+    if (!nonceCache.tryAccept(nonce, millis, System.currentTimeMillis())) {
+      log.debug("Rejected stale or replayed internal request");
+      return false;
+    }
+    return true;
+  }
+
+  private boolean isCorrectInternalSecret(String internalSecret) {
+    if (internalSecret == null) {
+      return false;
+    }
+    byte[] provided = internalSecret.getBytes(StandardCharsets.UTF_8);
+    return MessageDigest.isEqual(provided, expectedSecret);
+  }
+
+}
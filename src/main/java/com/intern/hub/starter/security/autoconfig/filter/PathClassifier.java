@@ -0,0 +1,307 @@
+package com.intern.hub.starter.security.autoconfig.filter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies request URIs as {@link PathType#EXCLUDED}, {@link PathType#INTERNAL} or
+ * {@link PathType#PROTECTED} in a single pass.
+ * <p>
+ * The internal path prefix is tested first, so no excluded-path pattern can exempt an internal
+ * path from its credentials. All excluded-path patterns are compiled at startup into one character
+ * trie. Walking the URI down the trie visits every pattern whose literal prefix matches, so the
+ * cost depends on the URI length rather than on the number of patterns.
+ * </p>
+ *
+ * <p>
+ * URIs are classified in their {@link #normalize normalized} form, without {@code ;} path
+ * parameters or dot segments and with repeated slashes merged, which is the form the request
+ * mappings see. A crafted URI such as {@code /actuator;x/../api} therefore cannot borrow an
+ * excluded prefix.
+ * </p>
+ *
+ * <p>
+ * <b>Pattern syntax:</b>
+ * </p>
+ * <ul>
+ * <li>A pattern without wildcards is a plain prefix: {@code /actuator/} excludes every URI starting
+ * with {@code /actuator/}</li>
+ * <li>{@code ?} matches one character except {@code /}</li>
+ * <li>{@code *} matches zero or more characters except {@code /}</li>
+ * <li>{@code **} matches zero or more path segments, e.g. {@code /docs/**} also matches
+ * {@code /docs}</li>
+ * </ul>
+ *
+ * <p>
+ * Wildcard patterns are only evaluated for URIs that reach the trie node of their literal prefix.
+ * Their results are kept in a small direct-mapped cache so the most frequent URIs skip the
+ * evaluation; a classifier without wildcard patterns does not use the cache at all.
+ * </p>
+ */
+public final class PathClassifier {
+
+  /**
+   * The classification of a request URI.
+   */
+  public enum PathType {
+
+    /**
+     * The URI matches an excluded-path pattern and bypasses security processing.
+     */
+    EXCLUDED,
+
+    /**
+     * The URI starts with the internal path prefix and requires the internal secret.
+     */
+    INTERNAL,
+
+    /**
+     * Any other URI.
+     */
+    PROTECTED
+
+  }
+
+  private static final int MAX_CACHED_URI_LENGTH = 256;
+
+  private final Node root = new Node();
+
+  private final String internalPathPrefix;
+
+  private final CacheEntry[] cache;
+
+  private final int cacheMask;
+
+  /**
+   * Compiles the given patterns.
+   *
+   * @param excludedPatterns   the excluded-path patterns
+   * @param internalPathPrefix the internal path prefix, may be {@code null}
+   * @param cacheSize          the maximum number of cached classifications, {@code 0} to disable
+   *                           the cache; rounded up to a power of two
+   */
+  public PathClassifier(Collection<String> excludedPatterns, String internalPathPrefix, int cacheSize) {
+    boolean hasWildcards = false;
+    for (String pattern : excludedPatterns) {
+      hasWildcards |= addExcludedPattern(pattern);
+    }
+    this.internalPathPrefix = internalPathPrefix;
+    if (hasWildcards && cacheSize > 0) {
+      int capacity = Integer.highestOneBit(Math.max(1, cacheSize - 1)) << 1;
+      this.cache = new CacheEntry[capacity];
+      this.cacheMask = capacity - 1;
+    } else {
+      this.cache = null;
+      this.cacheMask = 0;
+    }
+  }
+
+  /**
+   * Classifies the given URI.
+   *
+   * @param uri the request URI, {@link #normalize normalized}
+   * @return the classification
+   */
+  public PathType classify(String uri) {
+    if (internalPathPrefix != null && uri.startsWith(internalPathPrefix)) {
+      return PathType.INTERNAL;
+    }
+    if (cache == null || uri.length() > MAX_CACHED_URI_LENGTH) {
+      return walk(uri);
+    }
+    int slot = uri.hashCode() & cacheMask;
+    CacheEntry entry = cache[slot];
+    if (entry != null && entry.uri.equals(uri)) {
+      return entry.type;
+    }
+    PathType type = walk(uri);
+    cache[slot] = new CacheEntry(uri, type);
+    return type;
+  }
+
+  /**
+   * Normalizes a request URI the way the servlet container does before mapping it: removes
+   * {@code ;} path parameters (such as {@code ;jsessionid=...}) from every segment, merges
+   * repeated slashes and resolves {@code .} and {@code ..} segments, also when their dots are
+   * percent-encoded. Other percent-encoded characters are left as they are, so an encoded URI that
+   * names an excluded path does not match it and stays protected.
+   *
+   * @param uri the raw request URI
+   * @return the normalized URI, the same instance if there was nothing to change
+   */
+  public static String normalize(String uri) {
+    if (uri.indexOf(';') < 0 && uri.indexOf('%') < 0 && !uri.contains("//") && !uri.contains("/.")) {
+      return uri;
+    }
+    int length = uri.length();
+    StringBuilder normalized = new StringBuilder(length);
+    int[] segmentStarts = new int[length / 2 + 1];
+    int depth = 0;
+    boolean trailingSlash = false;
+    int start = 0;
+    while (start <= length) {
+      int end = uri.indexOf('/', start);
+      if (end < 0) {
+        end = length;
+      }
+      int parameters = uri.indexOf(';', start);
+      int segmentEnd = parameters >= 0 && parameters < end ? parameters : end;
+      int dots = dotSegment(uri, start, segmentEnd);
+      if (dots == 2 && depth > 0) {
+        normalized.setLength(segmentStarts[--depth]);
+      } else if (dots == 0 && segmentEnd > start) {
+        segmentStarts[depth++] = normalized.length();
+        normalized.append('/').append(uri, start, segmentEnd);
+      }
+      // "/a/", "/a/." and "/a/b/.." all name a directory
+      trailingSlash = end == length && (dots > 0 || segmentEnd == start);
+      start = end + 1;
+    }
+    if (normalized.isEmpty() || trailingSlash) {
+      normalized.append('/');
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * Returns {@code 1} for a {@code .} segment, {@code 2} for a {@code ..} segment and {@code 0}
+   * otherwise, accepting {@code %2e} for a dot.
+   */
+  private static int dotSegment(String uri, int start, int end) {
+    int dots = 0;
+    int i = start;
+    while (i < end) {
+      if (uri.charAt(i) == '.') {
+        i++;
+      } else if (i + 3 <= end && uri.charAt(i) == '%' && uri.charAt(i + 1) == '2'
+          && (uri.charAt(i + 2) == 'e' || uri.charAt(i + 2) == 'E')) {
+        i += 3;
+      } else {
+        return 0;
+      }
+      if (++dots > 2) {
+        return 0;
+      }
+    }
+    return dots;
+  }
+
+  private PathType walk(String uri) {
+    Node node = root;
+    int length = uri.length();
+    for (int i = 0; ; i++) {
+      if (node.excludedPrefix) {
+        return PathType.EXCLUDED;
+      }
+      if (node.patterns != null) {
+        for (Pattern pattern : node.patterns) {
+          if (pattern.matcher(uri).matches()) {
+            return PathType.EXCLUDED;
+          }
+        }
+      }
+      if (i == length || (node = node.child(uri.charAt(i))) == null) {
+        return PathType.PROTECTED;
+      }
+    }
+  }
+
+  private boolean addExcludedPattern(String pattern) {
+    int wildcard = indexOfWildcard(pattern);
+    if (wildcard < 0) {
+      root.insert(pattern).excludedPrefix = true;
+      return false;
+    }
+    // "/docs/**" must also match "/docs", so its literal prefix stops before the slash
+    if (wildcard > 0 && pattern.charAt(wildcard - 1) == '/' && pattern.startsWith("**", wildcard)) {
+      wildcard--;
+    }
+    root.insert(pattern.substring(0, wildcard)).addPattern(compile(pattern));
+    return true;
+  }
+
+  private static int indexOfWildcard(String pattern) {
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c == '*' || c == '?') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  static Pattern compile(String pattern) {
+    StringBuilder regex = new StringBuilder(pattern.length() + 16);
+    int length = pattern.length();
+    int i = 0;
+    while (i < length) {
+      char c = pattern.charAt(i);
+      if (c == '/' && pattern.startsWith("**", i + 1) && (i + 3 == length || pattern.charAt(i + 3) == '/')) {
+        regex.append("(?:/.*)?");
+        i += 3;
+      } else if (c == '*' && pattern.startsWith("**", i)) {
+        regex.append(".*");
+        i += 2;
+      } else if (c == '*') {
+        regex.append("[^/]*");
+        i++;
+      } else if (c == '?') {
+        regex.append("[^/]");
+        i++;
+      } else {
+        if (!Character.isLetterOrDigit(c)) {
+          regex.append('\\');
+        }
+        regex.append(c);
+        i++;
+      }
+    }
+    return Pattern.compile(regex.toString());
+  }
+
+  private record CacheEntry(String uri, PathType type) {
+  }
+
+  private static final class Node {
+
+    private char[] labels = new char[0];
+    private Node[] children = new Node[0];
+    private Pattern[] patterns;
+    private boolean excludedPrefix;
+
+    Node child(char c) {
+      char[] labels = this.labels;
+      for (int i = 0; i < labels.length; i++) {
+        if (labels[i] == c) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+
+    Node insert(String path) {
+      Node node = this;
+      for (int i = 0; i < path.length(); i++) {
+        char c = path.charAt(i);
+        Node next = node.child(c);
+        if (next == null) {
+          next = new Node();
+          node.labels = Arrays.copyOf(node.labels, node.labels.length + 1);
+          node.children = Arrays.copyOf(node.children, node.children.length + 1);
+          node.labels[node.labels.length - 1] = c;
+          node.children[node.children.length - 1] = next;
+        }
+        node = next;
+      }
+      return node;
+    }
+
+    void addPattern(Pattern pattern) {
+      patterns = patterns == null ? new Pattern[]{pattern} : Arrays.copyOf(patterns, patterns.length + 1);
+      patterns[patterns.length - 1] = pattern;
+    }
+
+  }
+
+}
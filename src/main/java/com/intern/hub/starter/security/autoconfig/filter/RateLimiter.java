@@ -0,0 +1,184 @@
+package com.intern.hub.starter.security.autoconfig.filter;
+
+import com.intern.hub.starter.security.autoconfig.SecurityProperties;
+import com.intern.hub.starter.security.ratelimit.TokenBucketTable;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Per-caller rate limits applied by the security filters once the caller is known, before its
+ * permissions are loaded.
+ * <p>
+ * Authenticated users are limited by {@code X-UserId}; requests to internal paths are limited per
+ * calling service, identified by {@code security.rate-limit.internal-caller-header} (callers
+ * without the header share one bucket). Every limit owns a {@link TokenBucketTable}, so its memory
+ * is fixed by {@code security.rate-limit.capacity} and idle callers make room for new ones.
+ * </p>
+ *
+ * <p>
+ * Entries of {@code security.rate-limit.paths} override the default limits for the URIs they
+ * match; the first matching entry wins and callers have a separate bucket per entry. Patterns use
+ * the syntax of {@code security.excluded-paths} (see {@link PathClassifier}). Wildcard results are
+ * kept in a small direct-mapped cache so frequent URIs skip the regular expressions.
+ * </p>
+ */
+public class RateLimiter {
+
+  /**
+   * Number of internal callers tracked per limit.
+   */
+  static final int INTERNAL_CALLERS = 1024;
+
+  private static final int PATH_CACHE_SIZE = 256;
+
+  private static final int MAX_CACHED_URI_LENGTH = 256;
+
+  private final Limit defaultLimit;
+
+  private final Limit[] pathLimits;
+
+  private final String[] prefixes;
+
+  private final Pattern[] patterns;
+
+  private final CacheEntry[] cache;
+
+  private final String internalCallerHeader;
+
+  /**
+   * Creates the limiter.
+   *
+   * @param settings the rate-limit settings
+   */
+  public RateLimiter(SecurityProperties.RateLimit settings) {
+    int capacity = settings.getCapacity();
+    this.defaultLimit = new Limit(
+        table(settings.getUser(), capacity),
+        table(settings.getInternal(), Math.min(capacity, INTERNAL_CALLERS)));
+    List<SecurityProperties.PathRateLimit> paths = settings.getPaths();
+    this.pathLimits = new Limit[paths.size()];
+    this.prefixes = new String[paths.size()];
+    this.patterns = new Pattern[paths.size()];
+    boolean hasWildcards = false;
+    for (int i = 0; i < paths.size(); i++) {
+      SecurityProperties.PathRateLimit path = paths.get(i);
+      pathLimits[i] = new Limit(table(path, capacity), table(path, Math.min(capacity, INTERNAL_CALLERS)));
+      String pattern = path.getPattern();
+      if (pattern.indexOf('*') >= 0 || pattern.indexOf('?') >= 0) {
+        patterns[i] = PathClassifier.compile(pattern);
+        hasWildcards = true;
+      } else {
+        prefixes[i] = pattern;
+      }
+    }
+    this.cache = hasWildcards ? new CacheEntry[PATH_CACHE_SIZE] : null;
+    this.internalCallerHeader = settings.getInternalCallerHeader();
+  }
+
+  /**
+   * Takes a permit for an authenticated user.
+   *
+   * @param uri    the request URI
+   * @param userId the user id
+   * @return {@code 0} if the request may proceed, otherwise the nanoseconds until it would be
+   * allowed
+   */
+  public long acquireUser(String uri, long userId) {
+    return limitOf(uri).users.tryAcquire(userId);
+  }
+
+  /**
+   * Takes a permit for an authenticated internal caller.
+   *
+   * @param uri     the request URI
+   * @param headers looks up a request header by name, returning {@code null} if absent
+   * @return {@code 0} if the request may proceed, otherwise the nanoseconds until it would be
+   * allowed
+   */
+  public long acquireInternal(String uri, Function<String, String> headers) {
+    return limitOf(uri).internal.tryAcquire(callerKey(headers.apply(internalCallerHeader)));
+  }
+
+  /**
+   * Gives back the permit taken by {@link #acquireUser} for a request refused afterwards, such as
+   * one shed by the concurrency limit.
+   *
+   * @param uri    the request URI
+   * @param userId the user id
+   */
+  public void refundUser(String uri, long userId) {
+    limitOf(uri).users.refund(userId);
+  }
+
+  /**
+   * Gives back the permit taken by {@link #acquireInternal} for a request refused afterwards.
+   *
+   * @param uri     the request URI
+   * @param headers looks up a request header by name, returning {@code null} if absent
+   */
+  public void refundInternal(String uri, Function<String, String> headers) {
+    limitOf(uri).internal.refund(callerKey(headers.apply(internalCallerHeader)));
+  }
+
+  /**
+   * Converts a wait returned by {@link #acquireUser} or {@link #acquireInternal} to the value of a
+   * {@code Retry-After} header.
+   *
+   * @param waitNanos the wait in nanoseconds
+   * @return the wait in whole seconds, at least {@code 1}
+   */
+  public static long retryAfterSeconds(long waitNanos) {
+    return Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L);
+  }
+
+  private Limit limitOf(String uri) {
+    if (pathLimits.length == 0) {
+      return defaultLimit;
+    }
+    if (cache == null || uri.length() > MAX_CACHED_URI_LENGTH) {
+      return match(uri);
+    }
+    int slot = uri.hashCode() & (PATH_CACHE_SIZE - 1);
+    CacheEntry entry = cache[slot];
+    if (entry != null && entry.uri.equals(uri)) {
+      return entry.limit;
+    }
+    Limit limit = match(uri);
+    cache[slot] = new CacheEntry(uri, limit);
+    return limit;
+  }
+
+  private Limit match(String uri) {
+    for (int i = 0; i < pathLimits.length; i++) {
+      if (prefixes[i] != null ? uri.startsWith(prefixes[i]) : patterns[i].matcher(uri).matches()) {
+        return pathLimits[i];
+      }
+    }
+    return defaultLimit;
+  }
+
+  private static TokenBucketTable table(SecurityProperties.Limit limit, int capacity) {
+    return new TokenBucketTable(limit.getPermitsPerSecond(), limit.getBurst(), capacity);
+  }
+
+  private static long callerKey(String caller) {
+    if (caller == null) {
+      return 0L;
+    }
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < caller.length(); i++) {
+      hash ^= caller.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  private record Limit(TokenBucketTable users, TokenBucketTable internal) {
+  }
+
+  private record CacheEntry(String uri, Limit limit) {
+  }
+
+}
@@ -1,15 +1,20 @@
 package com.intern.hub.starter.security.autoconfig.filter;
 
 import com.intern.hub.library.common.context.RequestContextHolder;
-import com.intern.hub.library.common.dto.ResponseApi;
-import com.intern.hub.library.common.dto.ResponseMetadata;
 import com.intern.hub.library.common.dto.ResponseStatus;
 import com.intern.hub.library.common.exception.ExceptionConstant;
 import com.intern.hub.starter.security.autoconfig.SecurityProperties;
 import com.intern.hub.starter.security.context.AuthContext;
 import com.intern.hub.starter.security.context.AuthContextHolder;
+import com.intern.hub.starter.security.event.FilterDecision;
+import com.intern.hub.starter.security.event.SecurityEventListener;
+import com.intern.hub.starter.security.permission.AuthoritiesCache;
+import com.intern.hub.starter.security.permission.PermissionSet;
+import com.intern.hub.starter.security.ratelimit.AdaptiveConcurrencyLimiter;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,9 +28,6 @@ import tools.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * Security filter that handles authentication context propagation and internal
@@ -33,10 +35,20 @@ import java.util.Set;
  * <p>
  * This filter runs once per request and:
  * <ul>
- * <li>Validates internal secret for requests to internal endpoints</li>
- * <li>Populates {@link AuthContext} from request headers</li>
+ * <li>Validates the internal secret or HMAC signature for requests to internal
+ * endpoints</li>
+ * <li>Populates {@link AuthContext} from request headers, answering malformed
+ * identity headers with 400/401</li>
+ * <li>Answers users and internal callers over their {@link RateLimiter} limit
+ * with 429 when {@code security.rate-limit.enabled=true}, before any
+ * permission is loaded</li>
+ * <li>Sheds anonymous, then user, then internal requests with 503 once the
+ * {@link AdaptiveConcurrencyLimiter} limit is reached, when
+ * {@code security.load-shedding.enabled=true}; an admitted request holds its
+ * slot until the response completes, including async requests</li>
  * <li>Binds the context using {@link ScopedValue} for virtual thread
- * safety</li>
+ * safety, and mirrors the user into the {@code userId} MDC entry unless
+ * {@code security.mdc-enabled=false}</li>
  * </ul>
  * </p>
  *
@@ -48,20 +60,81 @@ import java.util.Set;
 public class SecurityFilter extends OncePerRequestFilter implements Ordered {
 
   private final SecurityProperties securityProperties;
-  private final ObjectMapper objectMapper;
 
-  private final Set<String> excludedPaths;
+  private final ErrorResponseTemplate forbiddenTemplate;
+
+  private final ErrorResponseTemplate[] rejectionTemplates;
+
+  private final ErrorResponseTemplate rateLimitedTemplate;
+
+  private final ErrorResponseTemplate sheddingTemplate;
+
+  private final PathClassifier pathClassifier;
+
+  private final InternalRequestAuthenticator internalRequestAuthenticator;
+
+  private final AuthContextResolver authContextResolver;
+
+  private final boolean mdcEnabled;
+
+  private final SecurityEventListener eventListener;
+
+  private final RateLimiter rateLimiter;
+
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
 
   private static final ResponseStatus FORBIDDEN_RESPONSE_STATUS = new ResponseStatus(
       ExceptionConstant.FORBIDDEN_DEFAULT_CODE,
       "Forbidden: Invalid internal secret");
 
+  private static final ResponseStatus RATE_LIMITED_RESPONSE_STATUS = new ResponseStatus(
+      "TOO_MANY_REQUESTS",
+      "Too Many Requests: Rate limit exceeded");
+
+  private static final ResponseStatus SHED_RESPONSE_STATUS = new ResponseStatus(
+      "SERVICE_UNAVAILABLE",
+      "Service Unavailable: Server overloaded");
+
+  private static final int SC_TOO_MANY_REQUESTS = 429;
+
   private static final String MDC_USER_ID = "userId";
 
   public SecurityFilter(SecurityProperties securityProperties, ObjectMapper objectMapper) {
+    this(securityProperties, objectMapper,
+        FilterCollaborators.builder(new AuthoritiesCache(securityProperties.getAuthoritiesCacheSize())).build());
+  }
+
+  /**
+   * Creates the filter.
+   *
+   * @param securityProperties the security properties
+   * @param objectMapper       the mapper used to pre-render error responses
+   * @param collaborators      the authorities cache and the optional collaborators
+   */
+  public SecurityFilter(SecurityProperties securityProperties,
+                        ObjectMapper objectMapper,
+                        FilterCollaborators collaborators) {
     this.securityProperties = securityProperties;
-    this.objectMapper = objectMapper;
-    this.excludedPaths = new HashSet<>(securityProperties.getExcludedPaths());
+    this.authContextResolver = new AuthContextResolver(collaborators.authoritiesCache(),
+        collaborators.authoritiesCodec(), collaborators.permissionCache(),
+        securityProperties.getPermissionProvider().getVersionHeader());
+    this.forbiddenTemplate = new ErrorResponseTemplate(objectMapper, FORBIDDEN_RESPONSE_STATUS);
+    AuthContextResolver.Rejection[] rejections = AuthContextResolver.Rejection.values();
+    this.rejectionTemplates = new ErrorResponseTemplate[rejections.length];
+    for (AuthContextResolver.Rejection rejection : rejections) {
+      rejectionTemplates[rejection.ordinal()] = new ErrorResponseTemplate(objectMapper, rejection.responseStatus());
+    }
+    this.pathClassifier = new PathClassifier(
+        securityProperties.getExcludedPaths(),
+        securityProperties.getInternalPathPrefix(),
+        securityProperties.getPathClassificationCacheSize());
+    this.internalRequestAuthenticator = new InternalRequestAuthenticator(securityProperties);
+    this.mdcEnabled = securityProperties.isMdcEnabled();
+    this.eventListener = collaborators.eventListener();
+    this.rateLimiter = collaborators.rateLimiter();
+    this.rateLimitedTemplate = new ErrorResponseTemplate(objectMapper, RATE_LIMITED_RESPONSE_STATUS);
+    this.concurrencyLimiter = collaborators.concurrencyLimiter();
+    this.sheddingTemplate = new ErrorResponseTemplate(objectMapper, SHED_RESPONSE_STATUS);
   }
 
   @Override
@@ -69,99 +142,165 @@ public class SecurityFilter extends OncePerRequestFilter implements Ordered {
       @NonNull HttpServletRequest request,
       @NonNull HttpServletResponse response,
       @NonNull FilterChain filterChain) throws IOException {
-    String uri = request.getRequestURI();
+    long start = eventListener != SecurityEventListener.NOOP ? System.nanoTime() : 0L;
+    String requestUri = request.getRequestURI();
+    String uri = PathClassifier.normalize(requestUri);
+    PathClassifier.PathType pathType = pathClassifier.classify(uri);
 
-    if (isExcludedPath(uri)) {
+    if (pathType == PathClassifier.PathType.EXCLUDED) {
       log.debug("Excluding path from security filter: {}", uri);
+      report(FilterDecision.EXCLUDED, uri, AuthContext.UNAUTHENTICATED_CONTEXT, start);
       next(request, response, AuthContext.UNAUTHENTICATED_CONTEXT, filterChain);
       return;
     }
 
-    if (uri.startsWith(securityProperties.getInternalPathPrefix())) {
-      String internalSecret = request.getHeader("X-Internal-Secret");
-      if (!isCorrectInternalSecret(internalSecret)) {
-        log.debug("Invalid internal secret for request to: {}", uri);
-        responseForbidden(response);
+    if (pathType == PathClassifier.PathType.INTERNAL) {
+      // the caller signed the URI as sent
+      if (!internalRequestAuthenticator.authenticate(request.getMethod(), requestUri, request::getHeader)) {
+        log.debug("Invalid internal credentials for request to: {}", uri);
+        writeError(response, HttpServletResponse.SC_FORBIDDEN, forbiddenTemplate);
+        report(FilterDecision.INTERNAL_REJECTED, uri, null, start);
+        return;
+      }
+      if (rateLimiter != null) {
+        long wait = rateLimiter.acquireInternal(uri, request::getHeader);
+        if (wait > 0) {
+          log.debug("Rate limit exceeded by internal caller for: {}", uri);
+          rejectRateLimited(response, wait);
+          report(FilterDecision.RATE_LIMITED, uri, AuthContext.INTERNAL_CONTEXT, start);
+          return;
+        }
+      }
+      if (!admit(AdaptiveConcurrencyLimiter.Priority.INTERNAL)) {
+        if (rateLimiter != null) {
+          rateLimiter.refundInternal(uri, request::getHeader);
+        }
+        shed(response, uri, AuthContext.INTERNAL_CONTEXT, AdaptiveConcurrencyLimiter.Priority.INTERNAL, start);
         return;
       }
       log.debug("Internal access granted for: {}", uri);
-      next(request, response, AuthContext.INTERNAL_CONTEXT, filterChain);
+      report(FilterDecision.INTERNAL_ACCEPTED, uri, AuthContext.INTERNAL_CONTEXT, start);
+      nextAdmitted(request, response, AuthContext.INTERNAL_CONTEXT, filterChain);
       return;
     }
 
-    String authenticated = request.getHeader("X-Authenticated");
-    if (authenticated == null || !authenticated.equalsIgnoreCase("true")) {
+    if (!authContextResolver.authenticated(request::getHeader)) {
+      AuthContext authContext = AuthContext.UNAUTHENTICATED_CONTEXT;
+      if (!admit(AdaptiveConcurrencyLimiter.Priority.ANONYMOUS)) {
+        shed(response, uri, authContext, AdaptiveConcurrencyLimiter.Priority.ANONYMOUS, start);
+        return;
+      }
       log.debug("Unauthenticated access to: {}", uri);
-      next(request, response, AuthContext.UNAUTHENTICATED_CONTEXT, filterChain);
+      report(FilterDecision.UNAUTHENTICATED, uri, authContext, start);
+      nextAdmitted(request, response, authContext, filterChain);
       return;
     }
 
-    AuthContext authContext = populateAuthContext(request);
-    if (authContext.authenticated()) {
-      log.debug("Authenticated user {} accessing: {}", authContext.userId(), uri);
+    long userId = authContextResolver.userIdOf(request::getHeader);
+    if (userId == AuthContextResolver.INVALID_USER_ID) {
+      AuthContextResolver.Rejection rejection = authContextResolver.rejectionOf(request::getHeader);
+      log.debug("Rejecting request to {}: {}", uri, rejection);
+      writeError(response, rejection.httpStatus(), rejectionTemplates[rejection.ordinal()]);
+      report(FilterDecision.IDENTITY_REJECTED, uri, null, start);
+      return;
     }
-    next(request, response, authContext, filterChain);
-  }
-
-  private boolean isExcludedPath(String uri) {
-    for (String prefix : excludedPaths) {
-      if (uri.startsWith(prefix)) {
-        return true;
+    // rate limiting and shedding come before the permissions are loaded, so refused requests
+    // never reach the permission provider
+    if (rateLimiter != null) {
+      long wait = rateLimiter.acquireUser(uri, userId);
+      if (wait > 0) {
+        log.debug("Rate limit exceeded by user {} for: {}", userId, uri);
+        rejectRateLimited(response, wait);
+        report(FilterDecision.RATE_LIMITED, uri, identified(userId), start);
+        return;
+      }
+    }
+    if (!admit(AdaptiveConcurrencyLimiter.Priority.USER)) {
+      if (rateLimiter != null) {
+        rateLimiter.refundUser(uri, userId);
       }
+      shed(response, uri, identified(userId), AdaptiveConcurrencyLimiter.Priority.USER, start);
+      return;
     }
-    return false;
+
+    AuthContext authContext = authContextResolver.resolve(userId, request::getHeader);
+    log.debug("Authenticated user {} accessing: {}", userId, uri);
+    report(FilterDecision.AUTHENTICATED, uri, authContext, start);
+    nextAdmitted(request, response, authContext, filterChain);
   }
 
-  private boolean isCorrectInternalSecret(String internalSecret) {
-    if (internalSecret == null) {
-      return false;
+  private void report(FilterDecision decision, String uri, AuthContext authContext, long start) {
+    if (eventListener != SecurityEventListener.NOOP) {
+      eventListener.onFilterDecision(decision, uri, authContext, System.nanoTime() - start);
     }
-    byte[] provided = internalSecret.getBytes(StandardCharsets.UTF_8);
-    byte[] expected = securityProperties.getInternalSecret().getBytes(StandardCharsets.UTF_8);
-    return MessageDigest.isEqual(provided, expected);
   }
 
-  private AuthContext populateAuthContext(HttpServletRequest request) {
-    String userIdHeader = request.getHeader("X-UserId");
-    String authoritiesHeader = request.getHeader("X-Authorities");
-    return new AuthContext(false, true, parseUserId(userIdHeader), parseAuthorities(authoritiesHeader));
+  /**
+   * Returns the context reported for a user refused before its permissions were loaded.
+   */
+  private AuthContext identified(long userId) {
+    return eventListener != SecurityEventListener.NOOP
+        ? new AuthContext(false, true, userId, PermissionSet.EMPTY)
+        : null;
   }
 
-  private long parseUserId(String userIdHeader) {
-    if (userIdHeader == null || userIdHeader.isBlank()) {
-      throw new IllegalArgumentException("Missing X-UserId header");
-    }
-    try {
-      return Long.parseLong(userIdHeader);
-    } catch (NumberFormatException e) {
-      throw new IllegalArgumentException("Invalid X-UserId header: " + userIdHeader, e);
-    }
+  private boolean admit(AdaptiveConcurrencyLimiter.Priority priority) {
+    return concurrencyLimiter == null || concurrencyLimiter.tryAcquire(priority);
   }
 
-  private static final Set<String> EMPTY_AUTHORITIES = Set.of();
+  private void shed(HttpServletResponse response, String uri, AuthContext authContext,
+                    AdaptiveConcurrencyLimiter.Priority priority, long start) throws IOException {
+    log.debug("Shedding {} request to {}", priority, uri);
+    response.setHeader("Retry-After", "1");
+    writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, sheddingTemplate);
+    report(FilterDecision.SHED, uri, authContext, start);
+  }
 
-  private Set<String> parseAuthorities(String authoritiesHeader) {
-    if (authoritiesHeader == null || authoritiesHeader.isBlank()) {
-      return EMPTY_AUTHORITIES;
-    }
-    String[] authorities = authoritiesHeader.split(",");
-    return authorities.length == 0 ? EMPTY_AUTHORITIES : Set.of(authorities);
+  private void rejectRateLimited(HttpServletResponse response, long waitNanos) throws IOException {
+    response.setHeader("Retry-After", Long.toString(RateLimiter.retryAfterSeconds(waitNanos)));
+    writeError(response, SC_TOO_MANY_REQUESTS, rateLimitedTemplate);
   }
 
-  private void responseForbidden(HttpServletResponse response) throws IOException {
-    ResponseMetadata metadata = null;
+  private void writeError(HttpServletResponse response, int status, ErrorResponseTemplate template) throws IOException {
+    byte[] body;
     if (RequestContextHolder.REQUEST_CONTEXT.isBound()) {
       SpanContext spanContext = Span.current().getSpanContext();
-      metadata = new ResponseMetadata(
+      body = template.render(
           RequestContextHolder.get().requestId(),
           spanContext.isValid() ? spanContext.getTraceId() : null,
-          null, System.currentTimeMillis());
+          System.currentTimeMillis());
+    } else {
+      body = template.renderWithoutMetadata();
     }
     response.setContentType("application/json");
-    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+    response.setStatus(status);
     response.setCharacterEncoding(StandardCharsets.UTF_8);
-    ResponseApi<?> responseApi = ResponseApi.of(FORBIDDEN_RESPONSE_STATUS, null, metadata);
-    objectMapper.writeValue(response.getWriter(), responseApi);
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  private void nextAdmitted(HttpServletRequest request,
+                            HttpServletResponse response,
+                            AuthContext authContext,
+                            FilterChain filterChain) {
+    if (concurrencyLimiter == null) {
+      next(request, response, authContext, filterChain);
+      return;
+    }
+    long admitted = System.nanoTime();
+    boolean async = false;
+    try {
+      next(request, response, authContext, filterChain);
+      if (request.isAsyncStarted()) {
+        // the response is still being produced: hold the slot until the async cycle completes
+        request.getAsyncContext().addListener(new ReleaseOnComplete(concurrencyLimiter, admitted));
+        async = true;
+      }
+    } finally {
+      if (!async) {
+        concurrencyLimiter.release(admitted);
+      }
+    }
   }
 
   private void next(HttpServletRequest request,
@@ -169,20 +308,66 @@ public class SecurityFilter extends OncePerRequestFilter implements Ordered {
                     AuthContext authContext,
                     FilterChain filterChain) {
     ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, authContext).run(() -> {
+      if (!mdcEnabled) {
+        doFilter(request, response, filterChain);
+        return;
+      }
       try {
-        MDC.put(MDC_USER_ID, authContext.userId() != null ? String.valueOf(authContext.userId()) : (authContext.internal() ? "internal" : "anonymous"));
-        filterChain.doFilter(request, response);
-      } catch (IOException | ServletException e) {
-        throw new RuntimeException(e);
+        MDC.put(MDC_USER_ID, authContext.principalName());
+        doFilter(request, response, filterChain);
       } finally {
         MDC.remove(MDC_USER_ID);
       }
     });
   }
 
+  private static void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) {
+    try {
+      filterChain.doFilter(request, response);
+    } catch (IOException | ServletException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public int getOrder() {
     return Ordered.HIGHEST_PRECEDENCE + 1;
   }
 
+  /**
+   * Releases the concurrency slot of an async request once its response is complete; the
+   * container calls {@link #onComplete} after timeouts and errors too.
+   */
+  private static final class ReleaseOnComplete implements AsyncListener {
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final long admitted;
+
+    private ReleaseOnComplete(AdaptiveConcurrencyLimiter concurrencyLimiter, long admitted) {
+      this.concurrencyLimiter = concurrencyLimiter;
+      this.admitted = admitted;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      concurrencyLimiter.release(admitted);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      // a new async cycle drops the registered listeners
+      event.getAsyncContext().addListener(this);
+    }
+
+  }
+
 }
\ No newline at end of file
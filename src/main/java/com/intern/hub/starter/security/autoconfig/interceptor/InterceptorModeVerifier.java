@@ -0,0 +1,90 @@
+package com.intern.hub.starter.security.autoconfig.interceptor;
+
+import com.intern.hub.starter.security.annotation.Authenticated;
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.annotation.HasPermissions;
+import com.intern.hub.starter.security.annotation.Internal;
+import com.intern.hub.starter.security.metadata.MethodSecurityMetadata;
+import com.intern.hub.starter.security.metadata.SecurityMetadataRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fails startup when the
+ * {@link com.intern.hub.starter.security.autoconfig.SecurityProperties.EnforcementMode#INTERCEPTOR INTERCEPTOR} mode
+ * would leave a security annotation unenforced or unsatisfiable.
+ * <p>
+ * The {@link SecurityHandlerInterceptor} checks controller methods before argument binding, so a
+ * {@code @HasPermission} condition that reads a method argument ({@code #id}, {@code #p0}) would
+ * deny every call; such controller methods are rejected. With
+ * {@code security.service-aspect-enabled=false} only controller methods are checked at all, so a
+ * guarded method of any other bean would fail open and is rejected as well. The bean classes are
+ * checked once all singletons exist, and the context refuses to start if one of them is affected.
+ * </p>
+ *
+ * @see SecurityHandlerInterceptor
+ */
+@RequiredArgsConstructor
+public class InterceptorModeVerifier implements SmartInitializingSingleton {
+
+  private static final Set<Class<? extends Annotation>> SECURITY_ANNOTATIONS =
+      Set.of(HasPermission.class, HasPermissions.class, Internal.class, Authenticated.class);
+
+  private final ConfigurableListableBeanFactory beanFactory;
+
+  private final SecurityMetadataRegistry metadataRegistry;
+
+  private final boolean serviceAspectEnabled;
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    List<String> argumentConditions = new ArrayList<>();
+    List<String> unenforced = new ArrayList<>();
+    for (String beanName : beanFactory.getBeanDefinitionNames()) {
+      Class<?> beanType = beanFactory.getType(beanName, false);
+      if (beanType == null) {
+        continue;
+      }
+      Class<?> userClass = ClassUtils.getUserClass(beanType);
+      if (!AnnotationUtils.isCandidateClass(userClass, SECURITY_ANNOTATIONS)) {
+        continue;
+      }
+      boolean controller = AnnotatedElementUtils.hasAnnotation(userClass, Controller.class);
+      if (!controller && serviceAspectEnabled) {
+        continue;
+      }
+      ReflectionUtils.doWithMethods(userClass, method -> {
+        MethodSecurityMetadata metadata = metadataRegistry.get(method);
+        String name = userClass.getName() + "." + method.getName() + " (bean '" + beanName + "')";
+        if (!controller && !metadata.isEmpty()) {
+          unenforced.add(name);
+        } else if (controller && metadata.requiresPermission() && metadata.permission().usesArguments()) {
+          argumentConditions.add(name + ": " + metadata.permissionKey());
+        }
+      }, ReflectionUtils.USER_DECLARED_METHODS);
+    }
+    if (!argumentConditions.isEmpty()) {
+      throw new IllegalStateException("security.enforcement-mode=interceptor checks controllers before their "
+          + "arguments are bound, so these @HasPermission conditions would deny every call: "
+          + String.join(", ", argumentConditions)
+          + ". Move the condition to a service method or use security.enforcement-mode=aspect.");
+    }
+    if (!unenforced.isEmpty()) {
+      throw new IllegalStateException("security.service-aspect-enabled=false leaves the security annotations "
+          + "of these methods outside controllers unenforced: " + String.join(", ", unenforced)
+          + ". Enable the service aspect, move the checks to controllers or call SecurityEnforcer directly.");
+    }
+  }
+
+}
@@ -0,0 +1,42 @@
+package com.intern.hub.starter.security.autoconfig.interceptor;
+
+import com.intern.hub.starter.security.metadata.MethodSecurityMetadata;
+import com.intern.hub.starter.security.metadata.SecurityEnforcer;
+import com.intern.hub.starter.security.metadata.SecurityMetadataRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NonNull;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * {@link HandlerInterceptor} that enforces the security annotations of controller methods.
+ * <p>
+ * Active when {@code security.enforcement-mode=interceptor}. The requirement of the handler method
+ * is taken from the precomputed {@link SecurityMetadataRegistry}, so controllers need no AOP proxy.
+ * A {@link com.intern.hub.library.common.exception.ForbiddenException} thrown here is handled by
+ * the regular MVC exception resolvers, exactly like one thrown from the controller itself.
+ * </p>
+ *
+ * @see SecurityEnforcer
+ */
+@RequiredArgsConstructor
+public class SecurityHandlerInterceptor implements HandlerInterceptor {
+
+  private final SecurityMetadataRegistry metadataRegistry;
+
+  private final SecurityEnforcer enforcer;
+
+  @Override
+  public boolean preHandle(@NonNull HttpServletRequest request,
+                           @NonNull HttpServletResponse response,
+                           @NonNull Object handler) {
+    if (handler instanceof HandlerMethod handlerMethod) {
+      MethodSecurityMetadata metadata = metadataRegistry.get(handlerMethod.getMethod());
+      enforcer.enforce(metadata);
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,161 @@
+package com.intern.hub.starter.security.autoconfig.metrics;
+
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.event.AccessRequirement;
+import com.intern.hub.starter.security.event.FilterDecision;
+import com.intern.hub.starter.security.event.SecurityEventListener;
+import com.intern.hub.starter.security.metadata.MethodSecurityMetadata;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Micrometer metrics for the security filter and method-level enforcement.
+ * <p>
+ * Counts live in {@link LongAdder}s owned by this class and are exposed as
+ * {@link FunctionCounter}s, so the request path only increments a striped counter and never looks
+ * up a meter. Published meters:
+ * <ul>
+ * <li>{@code security.filter.decisions} - requests per filter decision ({@code decision})</li>
+ * <li>{@code security.filter.duration} - time spent in the filter itself ({@code decision})</li>
+ * <li>{@code security.access.decisions} - method-level checks ({@code requirement},
+ * {@code permission}, {@code method}, {@code outcome})</li>
+ * <li>{@code security.access.duration} - time spent on a check ({@code requirement})</li>
+ * </ul>
+ * Tag values come from closed sets or from the guarded methods found at startup. At most
+ * {@code maxMethodTags} methods get their own series; checks of further methods are counted with
+ * {@code method=other} and {@code permission=other}.
+ * </p>
+ */
+public class SecurityMetrics implements SecurityEventListener {
+
+  private static final String OTHER = "other";
+
+  private static final FilterDecision[] FILTER_DECISIONS = FilterDecision.values();
+
+  private static final AccessRequirement[] REQUIREMENTS = AccessRequirement.values();
+
+  private final MeterRegistry registry;
+
+  private final int maxMethodTags;
+
+  private final LongAdder[] filterDecisions = new LongAdder[FILTER_DECISIONS.length];
+
+  private final Timer[] filterTimers = new Timer[FILTER_DECISIONS.length];
+
+  private final Timer[] accessTimers = new Timer[REQUIREMENTS.length];
+
+  private final ConcurrentHashMap<MethodSecurityMetadata, AccessCounters> accessCounters = new ConcurrentHashMap<>();
+
+  private final AccessCounters overflowCounters = new AccessCounters(OTHER, OTHER);
+
+  /**
+   * Registers the meters.
+   *
+   * @param registry      the registry
+   * @param maxMethodTags maximum number of methods with their own access series
+   */
+  public SecurityMetrics(MeterRegistry registry, int maxMethodTags) {
+    this.registry = registry;
+    this.maxMethodTags = maxMethodTags;
+    for (FilterDecision decision : FILTER_DECISIONS) {
+      String tag = tagValue(decision);
+      LongAdder counter = new LongAdder();
+      filterDecisions[decision.ordinal()] = counter;
+      FunctionCounter.builder("security.filter.decisions", counter, LongAdder::doubleValue)
+          .description("Requests handled by the security filter, per decision")
+          .tag("decision", tag)
+          .register(registry);
+      filterTimers[decision.ordinal()] = Timer.builder("security.filter.duration")
+          .description("Time spent in the security filter, excluding the rest of the filter chain")
+          .tag("decision", tag)
+          .register(registry);
+    }
+    for (AccessRequirement requirement : REQUIREMENTS) {
+      accessTimers[requirement.ordinal()] = Timer.builder("security.access.duration")
+          .description("Time spent checking a method-level security requirement")
+          .tag("requirement", tagValue(requirement))
+          .register(registry);
+    }
+  }
+
+  @Override
+  public void onFilterDecision(FilterDecision decision, String path, AuthContext authContext, long durationNanos) {
+    filterDecisions[decision.ordinal()].increment();
+    filterTimers[decision.ordinal()].record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void onAccessDecision(AccessRequirement requirement,
+                               MethodSecurityMetadata metadata,
+                               AuthContext authContext,
+                               boolean granted,
+                               long durationNanos) {
+    countersOf(metadata).counter(requirement, granted).increment();
+    accessTimers[requirement.ordinal()].record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private AccessCounters countersOf(MethodSecurityMetadata metadata) {
+    AccessCounters counters = accessCounters.get(metadata);
+    if (counters != null) {
+      return counters;
+    }
+    if (accessCounters.size() >= maxMethodTags) {
+      return overflowCounters;
+    }
+    return accessCounters.computeIfAbsent(metadata, m -> new AccessCounters(
+        m.methodName() != null ? m.methodName() : OTHER,
+        m.permissionKey() != null ? m.permissionKey() : "none"));
+  }
+
+  private static String tagValue(Enum<?> value) {
+    return value.name().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Granted/denied counters of one method, per requirement, registered on first use so only
+   * requirements the method actually declares get a series.
+   */
+  private final class AccessCounters {
+
+    private final String method;
+
+    private final String permission;
+
+    private final LongAdder[] counters = new LongAdder[REQUIREMENTS.length * 2];
+
+    AccessCounters(String method, String permission) {
+      this.method = method;
+      this.permission = permission;
+    }
+
+    LongAdder counter(AccessRequirement requirement, boolean granted) {
+      int index = requirement.ordinal() * 2 + (granted ? 0 : 1);
+      LongAdder counter = counters[index];
+      return counter != null ? counter : register(requirement, granted, index);
+    }
+
+    private synchronized LongAdder register(AccessRequirement requirement, boolean granted, int index) {
+      LongAdder counter = counters[index];
+      if (counter == null) {
+        counter = new LongAdder();
+        FunctionCounter.builder("security.access.decisions", counter, LongAdder::doubleValue)
+            .description("Method-level security checks, per method, requirement and outcome")
+            .tag("requirement", tagValue(requirement))
+            .tag("permission", requirement == AccessRequirement.PERMISSION ? permission : "none")
+            .tag("method", method)
+            .tag("outcome", granted ? "granted" : "denied")
+            .register(registry);
+        counters[index] = counter;
+      }
+      return counter;
+    }
+
+  }
+
+}
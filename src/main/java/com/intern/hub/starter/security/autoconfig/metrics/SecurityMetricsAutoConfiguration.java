@@ -0,0 +1,41 @@
+package com.intern.hub.starter.security.autoconfig.metrics;
+
+import com.intern.hub.starter.security.autoconfig.SecurityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration for the security metrics.
+ * <p>
+ * Registers {@link SecurityMetrics} when Micrometer is on the classpath, a {@link MeterRegistry}
+ * bean is available and {@code security.metrics.enabled} is not {@code false}. The filters and the
+ * enforcer pick it up as a {@link com.intern.hub.starter.security.event.SecurityEventListener}.
+ * </p>
+ *
+ * @see SecurityMetrics
+ */
+@AutoConfiguration(afterName = {
+    "org.springframework.boot.micrometer.metrics.autoconfigure.CompositeMeterRegistryAutoConfiguration",
+    "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"
+})
+@EnableConfigurationProperties(SecurityProperties.class)
+@ConditionalOnWebApplication
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "security.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SecurityMetricsAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public SecurityMetrics securityMetrics(MeterRegistry meterRegistry, SecurityProperties securityProperties) {
+    return new SecurityMetrics(meterRegistry, securityProperties.getMetrics().getMaxMethodTags());
+  }
+
+}
@@ -0,0 +1,26 @@
+package com.intern.hub.starter.security.autoconfig.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+@Configuration
+public class DefaultSecurityWebFilterChain {
+
+  @Bean
+  @ConditionalOnMissingBean(SecurityWebFilterChain.class)
+  @ConditionalOnBean(ServerHttpSecurity.class)
+  public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    return http.authorizeExchange(exchange -> exchange.anyExchange().permitAll())
+        .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+        .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+        .logout(ServerHttpSecurity.LogoutSpec::disable)
+        .cors(ServerHttpSecurity.CorsSpec::disable)
+        .csrf(ServerHttpSecurity.CsrfSpec::disable)
+        .build();
+  }
+
+}
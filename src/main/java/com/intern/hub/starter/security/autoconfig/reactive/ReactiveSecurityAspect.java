@@ -0,0 +1,88 @@
+package com.intern.hub.starter.security.autoconfig.reactive;
+
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.context.AuthContextHolder;
+import com.intern.hub.starter.security.context.ReactiveAuthContextHolder;
+import com.intern.hub.starter.security.metadata.MethodSecurityMetadata;
+import com.intern.hub.starter.security.metadata.SecurityEnforcer;
+import com.intern.hub.starter.security.metadata.SecurityMetadataRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.jspecify.annotations.NonNull;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+
+/**
+ * Aspect that enforces {@code @HasPermission}, {@code @Internal} and {@code @Authenticated} in
+ * WebFlux applications.
+ * <p>
+ * For methods returning {@link Mono} or {@link Flux} (or {@link Publisher}), the check is deferred
+ * until subscription and reads the {@link AuthContext} from the Reactor context, so a denial is
+ * signalled as an error of the returned publisher and the method body is never invoked. Methods
+ * with any other return type are checked immediately against a context bound through
+ * {@link AuthContextHolder}, and are denied when none is bound.
+ * </p>
+ *
+ * <p>
+ * All requirements of a method are enforced by a single advice using its precomputed
+ * {@link MethodSecurityMetadata}.
+ * </p>
+ *
+ * @see ReactiveSecurityFilter
+ * @see ReactiveAuthContextHolder
+ */
+@Aspect
+@RequiredArgsConstructor
+public class ReactiveSecurityAspect {
+
+  private final SecurityMetadataRegistry metadataRegistry;
+
+  private final SecurityEnforcer enforcer;
+
+  @Around("@annotation(com.intern.hub.starter.security.annotation.HasPermission)"
+      + " || @annotation(com.intern.hub.starter.security.annotation.HasPermissions)"
+      + " || @within(com.intern.hub.starter.security.annotation.HasPermission)"
+      + " || @within(com.intern.hub.starter.security.annotation.HasPermissions)"
+      + " || @annotation(com.intern.hub.starter.security.annotation.Internal)"
+      + " || @annotation(com.intern.hub.starter.security.annotation.Authenticated)")
+  public Object enforce(@NonNull ProceedingJoinPoint pjp) {
+    Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+    MethodSecurityMetadata metadata = metadataRegistry.get(method);
+    Class<?> returnType = method.getReturnType();
+
+    if (returnType == Mono.class) {
+      return check(metadata, pjp.getArgs()).then(Mono.defer(() -> (Mono<?>) proceed(pjp)));
+    }
+    if (Publisher.class.isAssignableFrom(returnType) && returnType.isAssignableFrom(Flux.class)) {
+      return check(metadata, pjp.getArgs()).thenMany(Flux.defer(() -> (Publisher<?>) proceed(pjp)));
+    }
+
+    AuthContext authContext = AuthContextHolder.AUTH_CONTEXT.isBound() ? AuthContextHolder.AUTH_CONTEXT.get() : null;
+    enforcer.enforce(metadata, authContext, pjp.getArgs());
+    return proceed(pjp);
+  }
+
+  private Mono<Void> check(MethodSecurityMetadata metadata, Object[] args) {
+    return Mono.deferContextual(context -> {
+      enforcer.enforce(metadata, context.getOrDefault(ReactiveAuthContextHolder.CONTEXT_KEY, null), args);
+      return Mono.empty();
+    });
+  }
+
+  private static Object proceed(ProceedingJoinPoint pjp) {
+    try {
+      return pjp.proceed();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+}
@@ -0,0 +1,79 @@
+package com.intern.hub.starter.security.autoconfig.reactive;
+
+import com.intern.hub.starter.security.aot.SecurityRuntimeHints;
+import com.intern.hub.starter.security.autoconfig.SecurityCoreConfiguration;
+import com.intern.hub.starter.security.autoconfig.SecurityProperties;
+import com.intern.hub.starter.security.autoconfig.filter.FilterCollaborators;
+import com.intern.hub.starter.security.autoconfig.filter.RateLimiter;
+import com.intern.hub.starter.security.event.SecurityEventListener;
+import com.intern.hub.starter.security.metadata.SecurityEnforcer;
+import com.intern.hub.starter.security.metadata.SecurityMetadataRegistry;
+import com.intern.hub.starter.security.permission.AuthoritiesCache;
+import com.intern.hub.starter.security.permission.AuthoritiesCodec;
+import com.intern.hub.starter.security.permission.PermissionCache;
+import com.intern.hub.starter.security.ratelimit.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Auto-configuration for the security starter in WebFlux applications.
+ * <p>
+ * This configuration provides:
+ * <ul>
+ * <li>{@link ReactiveSecurityFilter} - {@code WebFilter} that stores the
+ * authentication context in the Reactor context</li>
+ * <li>{@link ReactiveSecurityAspect} - AOP aspect enforcing the security
+ * annotations on methods returning {@code Mono}/{@code Flux}</li>
+ * <li>{@link DefaultSecurityWebFilterChain} - Permit-all Spring Security chain,
+ * as for servlet applications</li>
+ * </ul>
+ * WebFlux applications do not need {@code @EnableSecurity}.
+ * </p>
+ *
+ * @see ReactiveSecurityFilter
+ * @see ReactiveSecurityAspect
+ */
+@Configuration
+@EnableAspectJAutoProxy
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import({
+    SecurityCoreConfiguration.class,
+    DefaultSecurityWebFilterChain.class
+})
+@ImportRuntimeHints(SecurityRuntimeHints.class)
+public class ReactiveSecurityAutoConfiguration {
+
+  @Bean
+  public ReactiveSecurityFilter reactiveSecurityFilter(SecurityProperties securityProperties,
+                                                       ObjectProvider<ObjectMapper> objectMapperProvider,
+                                                       AuthoritiesCache authoritiesCache,
+                                                       ObjectProvider<AuthoritiesCodec> authoritiesCodecProvider,
+                                                       ObjectProvider<SecurityEventListener> securityEventListeners,
+                                                       ObjectProvider<PermissionCache> permissionCacheProvider,
+                                                       ObjectProvider<RateLimiter> rateLimiterProvider,
+                                                       ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiterProvider) {
+    ObjectMapper objectMapper = objectMapperProvider.getIfAvailable(ObjectMapper::new);
+    return new ReactiveSecurityFilter(securityProperties, objectMapper, FilterCollaborators.builder(authoritiesCache)
+        .authoritiesCodec(authoritiesCodecProvider.getIfAvailable())
+        .eventListener(SecurityEventListener.of(securityEventListeners.orderedStream().toList()))
+        .permissionCache(permissionCacheProvider.getIfAvailable())
+        .rateLimiter(rateLimiterProvider.getIfAvailable())
+        .concurrencyLimiter(concurrencyLimiterProvider.getIfAvailable())
+        .build());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean(ReactiveSecurityAspect.class)
+  public ReactiveSecurityAspect reactiveSecurityAspect(SecurityMetadataRegistry securityMetadataRegistry,
+                                                       SecurityEnforcer securityEnforcer) {
+    return new ReactiveSecurityAspect(securityMetadataRegistry, securityEnforcer);
+  }
+
+}
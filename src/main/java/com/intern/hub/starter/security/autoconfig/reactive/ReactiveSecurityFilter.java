@@ -0,0 +1,275 @@
+package com.intern.hub.starter.security.autoconfig.reactive;
+
+import com.intern.hub.library.common.dto.ResponseStatus;
+import com.intern.hub.library.common.exception.ExceptionConstant;
+import com.intern.hub.starter.security.autoconfig.SecurityProperties;
+import com.intern.hub.starter.security.autoconfig.filter.AuthContextResolver;
+import com.intern.hub.starter.security.autoconfig.filter.ErrorResponseTemplate;
+import com.intern.hub.starter.security.autoconfig.filter.FilterCollaborators;
+import com.intern.hub.starter.security.autoconfig.filter.InternalRequestAuthenticator;
+import com.intern.hub.starter.security.autoconfig.filter.PathClassifier;
+import com.intern.hub.starter.security.autoconfig.filter.RateLimiter;
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.context.ReactiveAuthContextHolder;
+import com.intern.hub.starter.security.event.FilterDecision;
+import com.intern.hub.starter.security.event.SecurityEventListener;
+import com.intern.hub.starter.security.permission.PermissionCache;
+import com.intern.hub.starter.security.permission.PermissionSet;
+import com.intern.hub.starter.security.ratelimit.AdaptiveConcurrencyLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.function.Function;
+
+/**
+ * Reactive counterpart of {@link com.intern.hub.starter.security.autoconfig.filter.SecurityFilter}
+ * for WebFlux applications.
+ * <p>
+ * Classifies the path, validates internal credentials, applies the {@link RateLimiter} limits and
+ * the {@link AdaptiveConcurrencyLimiter} load shedding once the caller is identified, and only then
+ * builds the {@link AuthContext} from the same headers with the same rules as the servlet filter, then stores the context in the Reactor
+ * context of the exchange (see {@link ReactiveAuthContextHolder}). All work is CPU-bound header
+ * processing, so nothing blocks the event loop. The exception is a
+ * {@link com.intern.hub.starter.security.permission.PermissionProvider} call for a user missing from
+ * the {@link PermissionCache}, which runs on the bounded elastic scheduler. The latency fed to the
+ * concurrency limit runs until the response completes.
+ * </p>
+ *
+ * @see ReactiveSecurityAspect
+ */
+@Slf4j
+public class ReactiveSecurityFilter implements WebFilter, Ordered {
+
+  private static final ResponseStatus FORBIDDEN_RESPONSE_STATUS = new ResponseStatus(
+      ExceptionConstant.FORBIDDEN_DEFAULT_CODE,
+      "Forbidden: Invalid internal secret");
+
+  private static final ResponseStatus RATE_LIMITED_RESPONSE_STATUS = new ResponseStatus(
+      "TOO_MANY_REQUESTS",
+      "Too Many Requests: Rate limit exceeded");
+
+  private static final ResponseStatus SHED_RESPONSE_STATUS = new ResponseStatus(
+      "SERVICE_UNAVAILABLE",
+      "Service Unavailable: Server overloaded");
+
+  private final PathClassifier pathClassifier;
+
+  private final InternalRequestAuthenticator internalRequestAuthenticator;
+
+  private final AuthContextResolver authContextResolver;
+
+  private final byte[] forbiddenBody;
+
+  private final byte[][] rejectionBodies;
+
+  private final SecurityEventListener eventListener;
+
+  private final RateLimiter rateLimiter;
+
+  private final byte[] rateLimitedBody;
+
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+  private final byte[] shedBody;
+
+  /**
+   * Creates the filter.
+   *
+   * @param securityProperties the security properties
+   * @param objectMapper       the mapper used to render the error responses once
+   * @param collaborators      the authorities cache and the optional collaborators
+   */
+  public ReactiveSecurityFilter(SecurityProperties securityProperties,
+                                ObjectMapper objectMapper,
+                                FilterCollaborators collaborators) {
+    this.pathClassifier = new PathClassifier(
+        securityProperties.getExcludedPaths(),
+        securityProperties.getInternalPathPrefix(),
+        securityProperties.getPathClassificationCacheSize());
+    this.internalRequestAuthenticator = new InternalRequestAuthenticator(securityProperties);
+    this.authContextResolver = new AuthContextResolver(collaborators.authoritiesCache(),
+        collaborators.authoritiesCodec(), collaborators.permissionCache(),
+        securityProperties.getPermissionProvider().getVersionHeader());
+    this.eventListener = collaborators.eventListener();
+    this.rateLimiter = collaborators.rateLimiter();
+    this.rateLimitedBody = new ErrorResponseTemplate(objectMapper, RATE_LIMITED_RESPONSE_STATUS).renderWithoutMetadata();
+    this.concurrencyLimiter = collaborators.concurrencyLimiter();
+    this.shedBody = new ErrorResponseTemplate(objectMapper, SHED_RESPONSE_STATUS).renderWithoutMetadata();
+    this.forbiddenBody = new ErrorResponseTemplate(objectMapper, FORBIDDEN_RESPONSE_STATUS).renderWithoutMetadata();
+    AuthContextResolver.Rejection[] rejections = AuthContextResolver.Rejection.values();
+    this.rejectionBodies = new byte[rejections.length][];
+    for (AuthContextResolver.Rejection rejection : rejections) {
+      rejectionBodies[rejection.ordinal()] =
+          new ErrorResponseTemplate(objectMapper, rejection.responseStatus()).renderWithoutMetadata();
+    }
+  }
+
+  @Override
+  public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+    long start = eventListener != SecurityEventListener.NOOP ? System.nanoTime() : 0L;
+    ServerHttpRequest request = exchange.getRequest();
+    String requestUri = request.getPath().value();
+    String uri = PathClassifier.normalize(requestUri);
+    PathClassifier.PathType pathType = pathClassifier.classify(uri);
+
+    if (pathType == PathClassifier.PathType.EXCLUDED) {
+      log.debug("Excluding path from security filter: {}", uri);
+      report(FilterDecision.EXCLUDED, uri, AuthContext.UNAUTHENTICATED_CONTEXT, start);
+      return next(exchange, chain, AuthContext.UNAUTHENTICATED_CONTEXT);
+    }
+
+    if (pathType == PathClassifier.PathType.INTERNAL) {
+      // the caller signed the URI as sent
+      if (!internalRequestAuthenticator.authenticate(request.getMethod().name(), requestUri,
+          request.getHeaders()::getFirst)) {
+        log.debug("Invalid internal credentials for request to: {}", uri);
+        report(FilterDecision.INTERNAL_REJECTED, uri, null, start);
+        return writeError(exchange.getResponse(), HttpStatus.FORBIDDEN, forbiddenBody);
+      }
+      if (rateLimiter != null) {
+        long wait = rateLimiter.acquireInternal(uri, request.getHeaders()::getFirst);
+        if (wait > 0) {
+          log.debug("Rate limit exceeded by internal caller for: {}", uri);
+          report(FilterDecision.RATE_LIMITED, uri, AuthContext.INTERNAL_CONTEXT, start);
+          return rejectRateLimited(exchange.getResponse(), wait);
+        }
+      }
+      if (!admit(AdaptiveConcurrencyLimiter.Priority.INTERNAL)) {
+        if (rateLimiter != null) {
+          rateLimiter.refundInternal(uri, request.getHeaders()::getFirst);
+        }
+        return shed(exchange.getResponse(), uri, AuthContext.INTERNAL_CONTEXT,
+            AdaptiveConcurrencyLimiter.Priority.INTERNAL, start);
+      }
+      log.debug("Internal access granted for: {}", uri);
+      report(FilterDecision.INTERNAL_ACCEPTED, uri, AuthContext.INTERNAL_CONTEXT, start);
+      return nextAdmitted(exchange, chain, AuthContext.INTERNAL_CONTEXT);
+    }
+
+    Function<String, String> headers = request.getHeaders()::getFirst;
+    if (!authContextResolver.authenticated(headers)) {
+      AuthContext authContext = AuthContext.UNAUTHENTICATED_CONTEXT;
+      if (!admit(AdaptiveConcurrencyLimiter.Priority.ANONYMOUS)) {
+        return shed(exchange.getResponse(), uri, authContext, AdaptiveConcurrencyLimiter.Priority.ANONYMOUS, start);
+      }
+      log.debug("Unauthenticated access to: {}", uri);
+      report(FilterDecision.UNAUTHENTICATED, uri, authContext, start);
+      return nextAdmitted(exchange, chain, authContext);
+    }
+
+    long userId = authContextResolver.userIdOf(headers);
+    if (userId == AuthContextResolver.INVALID_USER_ID) {
+      AuthContextResolver.Rejection rejection = authContextResolver.rejectionOf(headers);
+      log.debug("Rejecting request to {}: {}", uri, rejection);
+      report(FilterDecision.IDENTITY_REJECTED, uri, null, start);
+      return writeError(exchange.getResponse(), HttpStatus.valueOf(rejection.httpStatus()), rejectionBodies[rejection.ordinal()]);
+    }
+    // rate limiting and shedding come before the permissions are loaded, so refused requests
+    // never reach the permission provider
+    if (rateLimiter != null) {
+      long wait = rateLimiter.acquireUser(uri, userId);
+      if (wait > 0) {
+        log.debug("Rate limit exceeded by user {} for: {}", userId, uri);
+        report(FilterDecision.RATE_LIMITED, uri, identified(userId), start);
+        return rejectRateLimited(exchange.getResponse(), wait);
+      }
+    }
+    if (!admit(AdaptiveConcurrencyLimiter.Priority.USER)) {
+      if (rateLimiter != null) {
+        rateLimiter.refundUser(uri, userId);
+      }
+      return shed(exchange.getResponse(), uri, identified(userId), AdaptiveConcurrencyLimiter.Priority.USER, start);
+    }
+
+    Mono<Void> authenticated;
+    if (authContextResolver.resolvesWithoutLoading(userId, headers)) {
+      authenticated = proceed(exchange, chain, uri, authContextResolver.resolve(userId, headers), start);
+    } else {
+      authenticated = Mono.fromSupplier(() -> authContextResolver.resolve(userId, headers))
+          .subscribeOn(Schedulers.boundedElastic())
+          .flatMap(authContext -> proceed(exchange, chain, uri, authContext, start));
+    }
+    // the slot is held while the permissions load, and released however the exchange ends
+    return released(authenticated);
+  }
+
+  private Mono<Void> proceed(ServerWebExchange exchange, WebFilterChain chain, String uri,
+                             AuthContext authContext, long start) {
+    log.debug("Authenticated user {} accessing: {}", authContext.userId(), uri);
+    report(FilterDecision.AUTHENTICATED, uri, authContext, start);
+    return next(exchange, chain, authContext);
+  }
+
+  private void report(FilterDecision decision, String uri, AuthContext authContext, long start) {
+    if (eventListener != SecurityEventListener.NOOP) {
+      eventListener.onFilterDecision(decision, uri, authContext, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Returns the context reported for a user refused before its permissions were loaded.
+   */
+  private AuthContext identified(long userId) {
+    return eventListener != SecurityEventListener.NOOP
+        ? new AuthContext(false, true, userId, PermissionSet.EMPTY)
+        : null;
+  }
+
+  private boolean admit(AdaptiveConcurrencyLimiter.Priority priority) {
+    return concurrencyLimiter == null || concurrencyLimiter.tryAcquire(priority);
+  }
+
+  private Mono<Void> shed(ServerHttpResponse response, String uri, AuthContext authContext,
+                          AdaptiveConcurrencyLimiter.Priority priority, long start) {
+    log.debug("Shedding {} request to {}", priority, uri);
+    report(FilterDecision.SHED, uri, authContext, start);
+    response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+    return writeError(response, HttpStatus.SERVICE_UNAVAILABLE, shedBody);
+  }
+
+  private Mono<Void> nextAdmitted(ServerWebExchange exchange, WebFilterChain chain, AuthContext authContext) {
+    return released(next(exchange, chain, authContext));
+  }
+
+  private Mono<Void> released(Mono<Void> admitted) {
+    if (concurrencyLimiter == null) {
+      return admitted;
+    }
+    long start = System.nanoTime();
+    return admitted.doFinally(signal -> concurrencyLimiter.release(start));
+  }
+
+  private Mono<Void> next(ServerWebExchange exchange, WebFilterChain chain, AuthContext authContext) {
+    return chain.filter(exchange).contextWrite(ReactiveAuthContextHolder.withAuthContext(authContext));
+  }
+
+  private Mono<Void> rejectRateLimited(ServerHttpResponse response, long waitNanos) {
+    response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(RateLimiter.retryAfterSeconds(waitNanos)));
+    return writeError(response, HttpStatus.TOO_MANY_REQUESTS, rateLimitedBody);
+  }
+
+  private Mono<Void> writeError(ServerHttpResponse response, HttpStatus status, byte[] body) {
+    response.setStatusCode(status);
+    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    response.getHeaders().setContentLength(body.length);
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE + 1;
+  }
+
+}
@@ -1,6 +1,8 @@
 package com.intern.hub.starter.security.context;
 
 import com.intern.hub.starter.security.annotation.aspect.SecurityAspect;
+import com.intern.hub.starter.security.permission.PermissionRegistry;
+import com.intern.hub.starter.security.permission.PermissionSet;
 
 import java.util.Set;
 
@@ -18,14 +20,22 @@ import java.util.Set;
  * <ul>
  * <li>Key format: "{@code resource:action}" (e.g., "user:read",
  * "order:delete")</li>
- * ALL)</li>
+ * <li>Stored as a {@link PermissionSet}: any {@link Set} passed to the
+ * constructor is converted, and checks by {@link PermissionRegistry} id are a
+ * single bit test (see {@link #hasPermission(int)})</li>
  * </ul>
  *
+ * <p>
+ * Values derived from a context, such as span attributes or the JPA auditor,
+ * are cached by their consumers in an {@link AuthContextValueCache} rather
+ * than on the record itself.
+ * </p>
+ *
  * @param internal      whether this is an internal service-to-service request
  * @param authenticated whether the user is authenticated
  * @param userId        the unique identifier of the authenticated user (null if
  *                      not authenticated)
- * @param permissions   a map of permission keys to their corresponding scopes
+ * @param permissions   the granted permission keys
  * @see AuthContextHolder
  */
 public record AuthContext(
@@ -58,4 +68,37 @@ public record AuthContext(
       null,
       Set.of());
 
+  public AuthContext {
+    permissions = PermissionSet.copyOf(permissions);
+  }
+
+  /**
+   * Returns the granted permissions as a {@link PermissionSet}.
+   *
+   * @return the granted permissions
+   */
+  public PermissionSet permissionSet() {
+    return (PermissionSet) permissions;
+  }
+
+  /**
+   * Checks whether the permission with the given {@link PermissionRegistry} id is granted.
+   *
+   * @param permissionId the permission id
+   * @return {@code true} if the permission is granted
+   */
+  public boolean hasPermission(int permissionId) {
+    return permissionSet().contains(permissionId);
+  }
+
+  /**
+   * Returns the name used for this context in logs: the user id, {@code internal} or
+   * {@code anonymous}.
+   *
+   * @return the principal name, never {@code null}
+   */
+  public String principalName() {
+    return userId != null ? userId.toString() : (internal ? "internal" : "anonymous");
+  }
+
 }
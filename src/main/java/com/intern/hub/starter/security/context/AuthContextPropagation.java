@@ -0,0 +1,144 @@
+package com.intern.hub.starter.security.context;
+
+import com.intern.hub.starter.security.entity.BatchTimestamp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Carries the current {@link AuthContext} into work that runs on other threads.
+ * <p>
+ * {@link ScopedValue} bindings are only inherited by {@code StructuredTaskScope} forks, so tasks
+ * handed to executors, {@code CompletableFuture} pools or {@code @Async} methods would see no
+ * context. The wrappers here capture the bindings of {@link AuthContextHolder#AUTH_CONTEXT} and
+ * {@link BatchTimestamp#CURRENT} when the task is created and bind them again around its
+ * execution. When nothing is bound, the task is returned unchanged, so wrapping costs nothing
+ * outside a request.
+ * </p>
+ *
+ * <pre>{@code
+ * CompletableFuture<Profile> profile = CompletableFuture.supplyAsync(
+ *     AuthContextPropagation.wrapSupplier(() -> profileService.find(userId)), pool);
+ *
+ * List<Report> reports = AuthContextPropagation.invokeAll(List.of(
+ *     () -> reportService.sales(),
+ *     () -> reportService.stock()));
+ * }</pre>
+ *
+ * @see AuthContextTaskDecorator
+ */
+public final class AuthContextPropagation {
+
+  private AuthContextPropagation() {
+  }
+
+  /**
+   * Binds the current bindings around a task.
+   *
+   * @param task the task
+   * @return the wrapped task, or {@code task} itself if nothing is bound
+   */
+  public static Runnable wrap(Runnable task) {
+    ScopedValue.Carrier carrier = capture();
+    return carrier == null ? task : () -> carrier.run(task);
+  }
+
+  /**
+   * Binds the current bindings around a task.
+   *
+   * @param task the task
+   * @param <T>  the result type
+   * @return the wrapped task, or {@code task} itself if nothing is bound
+   */
+  public static <T> Callable<T> wrap(Callable<T> task) {
+    ScopedValue.Carrier carrier = capture();
+    return carrier == null ? task : () -> carrier.call(task::call);
+  }
+
+  /**
+   * Binds the current bindings around a supplier, e.g. for
+   * {@link java.util.concurrent.CompletableFuture#supplyAsync(Supplier, Executor)}.
+   * <p>
+   * Named apart from {@link #wrap(Callable)} so that lambdas are not ambiguous.
+   * </p>
+   *
+   * @param task the supplier
+   * @param <T>  the result type
+   * @return the wrapped supplier, or {@code task} itself if nothing is bound
+   */
+  public static <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+    ScopedValue.Carrier carrier = capture();
+    return carrier == null ? task : () -> carrier.call(task::get);
+  }
+
+  /**
+   * Returns an executor that runs every task with the bindings of the thread that submitted it.
+   *
+   * @param executor the executor to delegate to
+   * @return the propagating executor
+   */
+  public static Executor wrap(Executor executor) {
+    return task -> executor.execute(wrap(task));
+  }
+
+  /**
+   * Runs the tasks concurrently on virtual threads, each with the current bindings, and waits for
+   * all of them.
+   * <p>
+   * A plain alternative to {@code StructuredTaskScope}, which is a preview API in Java 25; forks of
+   * a {@code StructuredTaskScope} inherit the bindings without any wrapping. When a task fails,
+   * the tasks still running are cancelled and the first failure is rethrown.
+   * </p>
+   *
+   * @param tasks the tasks
+   * @param <T>   the result type
+   * @return the results, in the order of {@code tasks}
+   * @throws Exception the failure of the first failed task
+   */
+  public static <T> List<T> invokeAll(Collection<? extends Callable<T>> tasks) throws Exception {
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<T>> futures = new ArrayList<>(tasks.size());
+      for (Callable<T> task : tasks) {
+        futures.add(executor.submit(wrap(task)));
+      }
+      List<T> results = new ArrayList<>(futures.size());
+      try {
+        for (Future<T> future : futures) {
+          results.add(future.get());
+        }
+      } catch (ExecutionException e) {
+        futures.forEach(future -> future.cancel(true));
+        if (e.getCause() instanceof Exception cause) {
+          throw cause;
+        }
+        throw e;
+      } catch (InterruptedException e) {
+        futures.forEach(future -> future.cancel(true));
+        throw e;
+      }
+      return results;
+    }
+  }
+
+  private static ScopedValue.Carrier capture() {
+    ScopedValue.Carrier carrier = null;
+    if (AuthContextHolder.AUTH_CONTEXT.isBound()) {
+      carrier = ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, AuthContextHolder.AUTH_CONTEXT.get());
+    }
+    if (BatchTimestamp.CURRENT.isBound()) {
+      carrier = carrier == null
+          ? ScopedValue.where(BatchTimestamp.CURRENT, BatchTimestamp.CURRENT.get())
+          : carrier.where(BatchTimestamp.CURRENT, BatchTimestamp.CURRENT.get());
+    }
+    return carrier;
+  }
+
+}
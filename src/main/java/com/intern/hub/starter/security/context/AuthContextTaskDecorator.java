@@ -0,0 +1,23 @@
+package com.intern.hub.starter.security.context;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * {@link TaskDecorator} that runs tasks with the {@link AuthContext} of the submitting thread.
+ * <p>
+ * Registered as a bean by the starter, so Spring Boot applies it to the task executors it builds,
+ * including the virtual-thread executor and the one behind {@code @Async}. Tasks submitted while
+ * no context is bound are not wrapped.
+ * </p>
+ *
+ * @see AuthContextPropagation
+ */
+public class AuthContextTaskDecorator implements TaskDecorator {
+
+  @Override
+  public @NonNull Runnable decorate(@NonNull Runnable runnable) {
+    return AuthContextPropagation.wrap(runnable);
+  }
+
+}
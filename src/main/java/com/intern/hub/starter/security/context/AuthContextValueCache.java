@@ -0,0 +1,60 @@
+package com.intern.hub.starter.security.context;
+
+import java.util.function.Function;
+
+/**
+ * Small cache of a value derived from an {@link AuthContext}, such as the span attributes or the
+ * JPA auditor of a request.
+ * <p>
+ * Entries are keyed by the identity of the context, which is created once per request and then
+ * read many times, in a direct-mapped table: a lookup is one array read and an identity check, a
+ * collision simply replaces the older entry, and memory stays bounded by the capacity. Entries
+ * are immutable, so the table needs no locking; racing threads at worst compute the same value
+ * twice.
+ * </p>
+ *
+ * @param <V> the type of the derived value
+ */
+public final class AuthContextValueCache<V> {
+
+  private final Function<? super AuthContext, ? extends V> function;
+
+  private final Entry<V>[] entries;
+
+  private final int mask;
+
+  /**
+   * Creates a cache.
+   *
+   * @param capacity the number of entries, rounded up to a power of two
+   * @param function derives the value of a context; must not depend on anything but the context
+   */
+  @SuppressWarnings("unchecked")
+  public AuthContextValueCache(int capacity, Function<? super AuthContext, ? extends V> function) {
+    int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+    this.function = function;
+    this.entries = (Entry<V>[]) new Entry<?>[size];
+    this.mask = size - 1;
+  }
+
+  /**
+   * Returns the value of the given context, deriving it on a miss.
+   *
+   * @param authContext the context
+   * @return the derived value
+   */
+  public V get(AuthContext authContext) {
+    int slot = System.identityHashCode(authContext) & mask;
+    Entry<V> entry = entries[slot];
+    if (entry != null && entry.authContext == authContext) {
+      return entry.value;
+    }
+    V value = function.apply(authContext);
+    entries[slot] = new Entry<>(authContext, value);
+    return value;
+  }
+
+  private record Entry<V>(AuthContext authContext, V value) {
+  }
+
+}
@@ -0,0 +1,57 @@
+package com.intern.hub.starter.security.context;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Access to the current {@link AuthContext} in reactive (WebFlux) applications.
+ * <p>
+ * A {@link ScopedValue} cannot follow a reactive pipeline across threads, so the
+ * {@link com.intern.hub.starter.security.autoconfig.reactive.ReactiveSecurityFilter} stores the
+ * context in the Reactor {@link Context} of the exchange instead, under {@link #CONTEXT_KEY}.
+ * </p>
+ *
+ * <p>
+ * <b>Usage:</b>
+ * </p>
+ *
+ * <pre>{@code
+ * public Mono<Profile> getProfile() {
+ *   return ReactiveAuthContextHolder.get()
+ *       .flatMap(ctx -> profileService.findByUserId(ctx.userId()));
+ * }
+ * }</pre>
+ *
+ * @see AuthContextHolder
+ */
+public final class ReactiveAuthContextHolder {
+
+  /**
+   * The Reactor context key under which the {@link AuthContext} is stored.
+   */
+  public static final Class<AuthContext> CONTEXT_KEY = AuthContext.class;
+
+  private ReactiveAuthContextHolder() {
+  }
+
+  /**
+   * Get the AuthContext from the Reactor context of the subscriber.
+   *
+   * @return a Mono emitting the current AuthContext, or empty if none is stored
+   */
+  public static Mono<AuthContext> get() {
+    return Mono.deferContextual(context -> Mono.justOrEmpty(context.<AuthContext>getOrEmpty(CONTEXT_KEY)));
+  }
+
+  /**
+   * Creates a Reactor context holding the given AuthContext, for use with
+   * {@code contextWrite}.
+   *
+   * @param authContext the context to store
+   * @return the Reactor context
+   */
+  public static Context withAuthContext(AuthContext authContext) {
+    return Context.of(CONTEXT_KEY, authContext);
+  }
+
+}
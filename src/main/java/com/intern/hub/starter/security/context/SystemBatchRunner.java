@@ -0,0 +1,81 @@
+package com.intern.hub.starter.security.context;
+
+import com.intern.hub.starter.security.entity.BatchTimestamp;
+
+import java.util.Set;
+
+/**
+ * Runs jobs that have no request, such as {@code @Scheduled} methods and batch imports, under a
+ * system {@link AuthContext}.
+ * <p>
+ * Outside a request nothing is bound to {@link AuthContextHolder#AUTH_CONTEXT}, so guarded
+ * services and {@link AuthContextHolder#get()} would fail. The runner binds the system context
+ * once for the whole job: it is an internal context whose user id is the system id, so
+ * {@code @Internal} methods are allowed and audited entities are stamped with the system id.
+ * Optionally, the job also shares a single {@link BatchTimestamp}.
+ * </p>
+ *
+ * <pre>{@code
+ * @Scheduled(cron = "0 0 2 * * *")
+ * void nightlyImport() {
+ *   systemBatchRunner.run(() -> repository.saveAll(importer.read()));
+ * }
+ * }</pre>
+ */
+public class SystemBatchRunner {
+
+  private final AuthContext systemContext;
+
+  private final boolean batchTimestamp;
+
+  /**
+   * Creates a runner.
+   *
+   * @param systemUserId   the user id of the system context
+   * @param batchTimestamp whether every job binds a single {@link BatchTimestamp}
+   */
+  public SystemBatchRunner(Long systemUserId, boolean batchTimestamp) {
+    this.systemContext = new AuthContext(true, false, systemUserId, Set.of());
+    this.batchTimestamp = batchTimestamp;
+  }
+
+  /**
+   * Returns the context bound while jobs run.
+   *
+   * @return the system context
+   */
+  public AuthContext systemContext() {
+    return systemContext;
+  }
+
+  /**
+   * Runs the job under the system context.
+   *
+   * @param job the job
+   */
+  public void run(Runnable job) {
+    ScopedValue.Carrier carrier = ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, systemContext);
+    if (batchTimestamp) {
+      carrier = carrier.where(BatchTimestamp.CURRENT, System.currentTimeMillis());
+    }
+    carrier.run(job);
+  }
+
+  /**
+   * Calls the job under the system context.
+   *
+   * @param job the job
+   * @param <T> the result type
+   * @param <X> the exception type
+   * @return the result of the job
+   * @throws X if the job fails
+   */
+  public <T, X extends Throwable> T call(ScopedValue.CallableOp<? extends T, X> job) throws X {
+    ScopedValue.Carrier carrier = ScopedValue.where(AuthContextHolder.AUTH_CONTEXT, systemContext);
+    if (batchTimestamp) {
+      carrier = carrier.where(BatchTimestamp.CURRENT, System.currentTimeMillis());
+    }
+    return carrier.call(job);
+  }
+
+}
@@ -0,0 +1,134 @@
+package com.intern.hub.starter.security.decisionlog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of decision log files.
+ * <p>
+ * A file starts with {@link #MAGIC} and {@link #VERSION} (one {@code int} each) followed by
+ * records. A record is an {@code int} payload length followed by the payload:
+ * </p>
+ * <pre>
+ * long   timestamp (epoch ms)
+ * byte   kind, byte code, byte granted
+ * long   userId ({@link DecisionRecord#NO_USER} if none)
+ * long   durationNanos
+ * string target, string permission   (short length, -1 for null, then UTF-8 bytes)
+ * </pre>
+ * <p>
+ * A length of {@code 0} marks the end of the data: files are memory-mapped at their full size and
+ * the unused tail stays zero-filled. All numbers are big-endian.
+ * </p>
+ */
+final class DecisionCodec {
+
+  static final int MAGIC = 0x53444C47;
+
+  static final int VERSION = 1;
+
+  static final int HEADER_BYTES = 8;
+
+  /**
+   * Strings longer than this are truncated so that a record always fits {@link #MAX_RECORD_BYTES}.
+   */
+  static final int MAX_STRING_CHARS = 1024;
+
+  static final int MAX_RECORD_BYTES = 4 + 8 + 3 + 8 + 8 + 2 * (2 + 3 * MAX_STRING_CHARS);
+
+  private static final DecisionRecord.Kind[] KINDS = DecisionRecord.Kind.values();
+
+  private DecisionCodec() {
+  }
+
+  static void writeHeader(ByteBuffer buffer) {
+    buffer.putInt(MAGIC).putInt(VERSION);
+  }
+
+  /**
+   * Checks the header at the current position of the buffer.
+   *
+   * @throws IllegalArgumentException if the buffer does not start with a decision log header
+   */
+  static void readHeader(ByteBuffer buffer) {
+    if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a security decision log file");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported security decision log version " + version);
+    }
+  }
+
+  /**
+   * Encodes one record, including its length prefix, at the current position of the buffer, which
+   * must have at least {@link #MAX_RECORD_BYTES} remaining.
+   */
+  static void encode(DecisionRecord record, ByteBuffer buffer) {
+    int start = buffer.position();
+    buffer.putInt(0)
+        .putLong(record.timestamp())
+        .put((byte) record.kind().ordinal())
+        .put((byte) record.code())
+        .put((byte) (record.granted() ? 1 : 0))
+        .putLong(record.userId())
+        .putLong(record.durationNanos());
+    putString(buffer, record.target());
+    putString(buffer, record.permission());
+    buffer.putInt(start, buffer.position() - start - 4);
+  }
+
+  /**
+   * Decodes the record at the current position of the buffer.
+   *
+   * @return the record, or {@code null} at the end of the data
+   * @throws IllegalArgumentException if the record is truncated or corrupt
+   */
+  static DecisionRecord decode(ByteBuffer buffer) {
+    if (buffer.remaining() < 4) {
+      return null;
+    }
+    int length = buffer.getInt();
+    if (length == 0) {
+      return null;
+    }
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IllegalArgumentException("Corrupt record of length " + length + " at " + (buffer.position() - 4));
+    }
+    long timestamp = buffer.getLong();
+    int kind = buffer.get();
+    int code = buffer.get();
+    boolean granted = buffer.get() != 0;
+    long userId = buffer.getLong();
+    long durationNanos = buffer.getLong();
+    String target = getString(buffer);
+    String permission = getString(buffer);
+    if (kind < 0 || kind >= KINDS.length) {
+      throw new IllegalArgumentException("Unknown record kind " + kind);
+    }
+    return new DecisionRecord(timestamp, KINDS[kind], code, granted, userId, target, permission, durationNanos);
+  }
+
+  private static void putString(ByteBuffer buffer, String value) {
+    if (value == null) {
+      buffer.putShort((short) -1);
+      return;
+    }
+    if (value.length() > MAX_STRING_CHARS) {
+      value = value.substring(0, MAX_STRING_CHARS);
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putShort((short) bytes.length).put(bytes);
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = buffer.getShort();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+}
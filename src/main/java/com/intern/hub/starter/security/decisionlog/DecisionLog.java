@@ -0,0 +1,169 @@
+package com.intern.hub.starter.security.decisionlog;
+
+import com.intern.hub.starter.security.autoconfig.SecurityProperties;
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.event.AccessRequirement;
+import com.intern.hub.starter.security.event.FilterDecision;
+import com.intern.hub.starter.security.event.SecurityEventListener;
+import com.intern.hub.starter.security.metadata.MethodSecurityMetadata;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous, append-only log of security decisions.
+ * <p>
+ * Request threads only copy the decision into a lock-free {@link DecisionRingBuffer}; a single
+ * background thread drains it in batches and appends the records to rolling files (see
+ * {@link SecurityProperties.DecisionLog}). Denials are always logged, grants only when
+ * {@code include-grants} is set. When the buffer is full, events are dropped and counted, or the
+ * request thread waits, depending on the overflow policy. Binary files can be read back with
+ * {@link DecisionLogReader}.
+ * </p>
+ */
+@Slf4j
+public class DecisionLog implements SecurityEventListener, Closeable {
+
+  private static final String THREAD_NAME = "security-decision-log";
+
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final DecisionRingBuffer buffer;
+
+  private final RollingDecisionFiles files;
+
+  private final boolean includeGrants;
+
+  private final int batchSize;
+
+  private final long flushIntervalNanos;
+
+  private final Consumer<DecisionRecord> appender = this::append;
+
+  private final Thread writer;
+
+  private volatile boolean running = true;
+
+  /**
+   * Creates the log and starts its writer thread.
+   *
+   * @param properties the decision log settings
+   */
+  public DecisionLog(SecurityProperties.DecisionLog properties) {
+    this.buffer = new DecisionRingBuffer(properties.getBufferCapacity(),
+        properties.getOverflowPolicy() == SecurityProperties.DecisionLog.OverflowPolicy.BLOCK);
+    this.files = new RollingDecisionFiles(Path.of(properties.getDirectory()),
+        properties.getFormat() == SecurityProperties.DecisionLog.Format.BINARY,
+        properties.getMaxFileSize().toBytes(),
+        properties.getMaxFiles());
+    this.includeGrants = properties.isIncludeGrants();
+    this.batchSize = Math.max(1, properties.getBatchSize());
+    this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+    this.writer = Thread.ofPlatform().name(THREAD_NAME).daemon().unstarted(this::run);
+    this.writer.start();
+  }
+
+  @Override
+  public void onFilterDecision(FilterDecision decision, String path, AuthContext authContext, long durationNanos) {
+    boolean granted = decision.granted();
+    if (granted && !includeGrants) {
+      return;
+    }
+    buffer.publish(System.currentTimeMillis(), DecisionRecord.Kind.FILTER, decision.ordinal(), granted,
+        userIdOf(authContext), path, null, durationNanos);
+  }
+
+  @Override
+  public void onAccessDecision(AccessRequirement requirement,
+                               MethodSecurityMetadata metadata,
+                               AuthContext authContext,
+                               boolean granted,
+                               long durationNanos) {
+    if (granted && !includeGrants) {
+      return;
+    }
+    buffer.publish(System.currentTimeMillis(), DecisionRecord.Kind.ACCESS, requirement.ordinal(), granted,
+        userIdOf(authContext), metadata != null ? metadata.methodName() : null,
+        requirement == AccessRequirement.PERMISSION && metadata != null ? metadata.permissionKey() : null,
+        durationNanos);
+  }
+
+  private static long userIdOf(AuthContext authContext) {
+    return authContext != null && authContext.userId() != null ? authContext.userId() : DecisionRecord.NO_USER;
+  }
+
+  /**
+   * Returns the number of decisions dropped because the buffer was full.
+   *
+   * @return the dropped decision count
+   */
+  public long droppedCount() {
+    return buffer.droppedCount();
+  }
+
+  private void run() {
+    long lastFlush = System.nanoTime();
+    long reportedDrops = 0;
+    while (running) {
+      int drained;
+      try {
+        drained = buffer.drain(batchSize, appender);
+        long now = System.nanoTime();
+        if (now - lastFlush >= flushIntervalNanos) {
+          files.flush();
+          lastFlush = now;
+          reportedDrops = reportDrops(reportedDrops);
+        }
+      } catch (IOException | UncheckedIOException e) {
+        log.error("Could not write the security decision log", e);
+        drained = 0;
+      }
+      if (drained == 0) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+  }
+
+  private long reportDrops(long reported) {
+    long dropped = buffer.droppedCount();
+    if (dropped > reported) {
+      log.warn("Security decision log dropped {} decisions because its buffer was full ({} in total)",
+          dropped - reported, dropped);
+    }
+    return dropped;
+  }
+
+  private void append(DecisionRecord record) {
+    try {
+      files.append(record);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Stops the writer thread, writes the remaining decisions and closes the current file.
+   */
+  @Override
+  public void close() throws IOException {
+    running = false;
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    while (buffer.drain(batchSize, appender) > 0) {
+      // drain what was published before shutdown
+    }
+    reportDrops(0);
+    files.close();
+  }
+
+}
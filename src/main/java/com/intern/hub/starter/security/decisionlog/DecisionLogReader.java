@@ -0,0 +1,84 @@
+package com.intern.hub.starter.security.decisionlog;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads binary decision log files.
+ * <p>
+ * Also usable from the command line; every given file, or every log file of a given directory in
+ * name order, is printed to standard output as NDJSON:
+ * </p>
+ * <pre>{@code
+ * java -cp security-starter.jar com.intern.hub.starter.security.decisionlog.DecisionLogReader logs/security-decisions
+ * }</pre>
+ */
+public final class DecisionLogReader {
+
+  private DecisionLogReader() {
+  }
+
+  /**
+   * Passes every record of a binary decision log file to the handler.
+   *
+   * @param file    the {@code .sdl} file
+   * @param handler receives the records in write order
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a decision log or is corrupt
+   */
+  public static void read(Path file, Consumer<DecisionRecord> handler) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      DecisionCodec.readHeader(buffer);
+      DecisionRecord record;
+      while ((record = DecisionCodec.decode(buffer)) != null) {
+        handler.accept(record);
+      }
+    }
+  }
+
+  public static void main(String... args) throws IOException {
+    if (args.length == 0) {
+      System.err.println("Usage: DecisionLogReader <file or directory>...");
+      System.exit(1);
+    }
+    PrintStream out = System.out;
+    for (String arg : args) {
+      for (Path file : logFiles(Path.of(arg))) {
+        if (file.getFileName().toString().endsWith(RollingDecisionFiles.BINARY_SUFFIX)) {
+          read(file, record -> out.println(record.toJson()));
+        } else {
+          try (Stream<String> lines = Files.lines(file)) {
+            lines.forEach(out::println);
+          }
+        }
+      }
+    }
+    out.flush();
+  }
+
+  private static List<Path> logFiles(Path path) throws IOException {
+    if (!Files.isDirectory(path)) {
+      return List.of(path);
+    }
+    try (Stream<Path> stream = Files.list(path)) {
+      return stream
+          .filter(file -> {
+            String name = file.getFileName().toString();
+            return name.startsWith(RollingDecisionFiles.FILE_PREFIX)
+                && (name.endsWith(RollingDecisionFiles.BINARY_SUFFIX) || name.endsWith(RollingDecisionFiles.NDJSON_SUFFIX));
+          })
+          .sorted()
+          .toList();
+    }
+  }
+
+}
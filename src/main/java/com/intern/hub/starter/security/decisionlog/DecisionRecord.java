@@ -0,0 +1,107 @@
+package com.intern.hub.starter.security.decisionlog;
+
+import com.intern.hub.starter.security.event.AccessRequirement;
+import com.intern.hub.starter.security.event.FilterDecision;
+
+import java.util.Locale;
+
+/**
+ * One security decision as stored in the decision log.
+ *
+ * @param timestamp     epoch milliseconds of the decision
+ * @param kind          whether the filter or a method-level check decided
+ * @param code          the ordinal of the {@link FilterDecision} or {@link AccessRequirement}
+ * @param granted       whether the request or call was allowed
+ * @param userId        the user id, or {@link #NO_USER}
+ * @param target        the request path for filter decisions, the method for access decisions
+ * @param permission    the checked permission key, or {@code null}
+ * @param durationNanos time spent on the decision
+ */
+public record DecisionRecord(
+    long timestamp,
+    Kind kind,
+    int code,
+    boolean granted,
+    long userId,
+    String target,
+    String permission,
+    long durationNanos) {
+
+  /**
+   * {@link #userId} of decisions without an authenticated user.
+   */
+  public static final long NO_USER = Long.MIN_VALUE;
+
+  /**
+   * Who made the decision.
+   */
+  public enum Kind {
+
+    /**
+     * The security filter, for a request.
+     */
+    FILTER,
+
+    /**
+     * The enforcer, for a guarded method call.
+     */
+    ACCESS
+
+  }
+
+  /**
+   * Returns the lower-case name of the decision ({@code internal_rejected}) or of the checked
+   * requirement ({@code permission}).
+   *
+   * @return the decision name
+   */
+  public String decision() {
+    Enum<?> value = kind == Kind.FILTER ? FilterDecision.values()[code] : AccessRequirement.values()[code];
+    return value.name().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Renders the record as a single JSON object without a trailing newline.
+   *
+   * @return the JSON text
+   */
+  public String toJson() {
+    StringBuilder json = new StringBuilder(160)
+        .append("{\"ts\":").append(timestamp)
+        .append(",\"kind\":\"").append(kind.name().toLowerCase(Locale.ROOT))
+        .append("\",\"decision\":\"").append(decision())
+        .append("\",\"granted\":").append(granted);
+    if (userId != NO_USER) {
+      json.append(",\"userId\":").append(userId);
+    }
+    appendString(json, kind == Kind.FILTER ? "path" : "method", target);
+    appendString(json, "permission", permission);
+    return json.append(",\"durationNanos\":").append(durationNanos).append('}').toString();
+  }
+
+  private static void appendString(StringBuilder json, String name, String value) {
+    if (value == null) {
+      return;
+    }
+    json.append(",\"").append(name).append("\":\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    json.append('"');
+  }
+
+}
@@ -0,0 +1,185 @@
+package com.intern.hub.starter.security.decisionlog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free, multi-producer single-consumer ring buffer of decision events.
+ * <p>
+ * Events are stored field by field in preallocated parallel arrays, so publishing does not
+ * allocate. Each slot carries a sequence number (Vyukov's bounded queue): a producer claims a slot
+ * with one CAS on the tail, writes the fields and releases the slot by storing the next sequence;
+ * the single consumer reads the fields once it observes that sequence and hands the slot back by
+ * advancing its sequence by the capacity. When the buffer is full, producers either drop the event
+ * (counting it in {@link #droppedCount()}) or wait for the consumer.
+ * </p>
+ */
+final class DecisionRingBuffer {
+
+  private static final int SPINS_BEFORE_PARK = 64;
+
+  private static final long PARK_NANOS = 50_000L;
+
+  private static final DecisionRecord.Kind[] KINDS = DecisionRecord.Kind.values();
+
+  private final int mask;
+
+  private final boolean blockWhenFull;
+
+  private final AtomicLongArray sequences;
+
+  private final long[] timestamps;
+  private final byte[] kinds;
+  private final byte[] codes;
+  private final boolean[] granted;
+  private final long[] userIds;
+  private final String[] targets;
+  private final String[] permissions;
+  private final long[] durations;
+
+  private final AtomicLong tail = new AtomicLong();
+
+  private final LongAdder dropped = new LongAdder();
+
+  private long head;
+
+  /**
+   * Creates a buffer.
+   *
+   * @param capacity       the number of slots, rounded up to a power of two
+   * @param blockWhenFull  {@code true} to make producers wait for a free slot instead of dropping
+   *                       the event when the buffer is full
+   */
+  DecisionRingBuffer(int capacity, boolean blockWhenFull) {
+    if (capacity < 2 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be between 2 and 2^30");
+    }
+    int size = Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = size - 1;
+    this.blockWhenFull = blockWhenFull;
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.lazySet(i, i);
+    }
+    this.timestamps = new long[size];
+    this.kinds = new byte[size];
+    this.codes = new byte[size];
+    this.granted = new boolean[size];
+    this.userIds = new long[size];
+    this.targets = new String[size];
+    this.permissions = new String[size];
+    this.durations = new long[size];
+  }
+
+  /**
+   * Publishes an event. Called by request threads.
+   *
+   * @return {@code false} if the event was dropped
+   */
+  boolean publish(long timestamp,
+                  DecisionRecord.Kind kind,
+                  int code,
+                  boolean isGranted,
+                  long userId,
+                  String target,
+                  String permission,
+                  long durationNanos) {
+    long position = claim();
+    if (position < 0) {
+      dropped.increment();
+      return false;
+    }
+    int index = (int) position & mask;
+    timestamps[index] = timestamp;
+    kinds[index] = (byte) kind.ordinal();
+    codes[index] = (byte) code;
+    granted[index] = isGranted;
+    userIds[index] = userId;
+    targets[index] = target;
+    permissions[index] = permission;
+    durations[index] = durationNanos;
+    sequences.setRelease(index, position + 1);
+    return true;
+  }
+
+  private long claim() {
+    int spins = 0;
+    long position = tail.get();
+    while (true) {
+      long sequence = sequences.getAcquire((int) position & mask);
+      long difference = sequence - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          return position;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        if (!blockWhenFull) {
+          return -1;
+        }
+        if (++spins < SPINS_BEFORE_PARK) {
+          Thread.onSpinWait();
+        } else {
+          LockSupport.parkNanos(PARK_NANOS);
+        }
+        position = tail.get();
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Removes up to {@code max} events and passes them to the handler. Must only be called by the
+   * single consumer thread.
+   *
+   * @return the number of events drained
+   */
+  int drain(int max, Consumer<DecisionRecord> handler) {
+    int count = 0;
+    while (count < max) {
+      int index = (int) head & mask;
+      if (sequences.getAcquire(index) != head + 1) {
+        break;
+      }
+      DecisionRecord record = new DecisionRecord(
+          timestamps[index],
+          KINDS[kinds[index]],
+          codes[index],
+          granted[index],
+          userIds[index],
+          targets[index],
+          permissions[index],
+          durations[index]);
+      targets[index] = null;
+      permissions[index] = null;
+      sequences.setRelease(index, head + mask + 1);
+      head++;
+      count++;
+      handler.accept(record);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the number of events dropped because the buffer was full.
+   *
+   * @return the dropped event count
+   */
+  long droppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * Returns the number of slots.
+   *
+   * @return the capacity
+   */
+  int capacity() {
+    return mask + 1;
+  }
+
+}
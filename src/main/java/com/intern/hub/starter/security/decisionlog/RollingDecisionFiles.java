@@ -0,0 +1,203 @@
+package com.intern.hub.starter.security.decisionlog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Appends decision records to size-bounded files, rolling to a new file when the current one is
+ * full and deleting the oldest files beyond the retention limit.
+ * <p>
+ * Binary files are memory-mapped at their full size, so appending is a memory copy; NDJSON files
+ * are written through a buffered {@link FileChannel} so they stay valid text. Only the writer
+ * thread of {@link DecisionLog} uses an instance.
+ * </p>
+ */
+@Slf4j
+final class RollingDecisionFiles implements Closeable {
+
+  static final String FILE_PREFIX = "security-decisions-";
+
+  static final String BINARY_SUFFIX = ".sdl";
+
+  static final String NDJSON_SUFFIX = ".ndjson";
+
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+  private static final int NDJSON_BUFFER_BYTES = 64 * 1024;
+
+  private final Path directory;
+
+  private final boolean binary;
+
+  private final long maxFileSize;
+
+  private final int maxFiles;
+
+  private final ByteBuffer scratch;
+
+  private FileChannel channel;
+
+  private MappedByteBuffer mapped;
+
+  private long written;
+
+  private boolean dirty;
+
+  /**
+   * Creates the writer; the first file is opened on the first record.
+   *
+   * @param directory   the directory of the files, created if missing
+   * @param binary      {@code true} for memory-mapped binary files, {@code false} for NDJSON
+   * @param maxFileSize the maximum size of one file in bytes
+   * @param maxFiles    the number of files to keep, {@code 0} to keep all
+   */
+  RollingDecisionFiles(Path directory, boolean binary, long maxFileSize, int maxFiles) {
+    if (maxFileSize < DecisionCodec.HEADER_BYTES + DecisionCodec.MAX_RECORD_BYTES + 4) {
+      throw new IllegalArgumentException("max-file-size must be at least "
+          + (DecisionCodec.HEADER_BYTES + DecisionCodec.MAX_RECORD_BYTES + 4) + " bytes");
+    }
+    if (binary && maxFileSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("max-file-size of binary decision logs must be below 2 GiB");
+    }
+    this.directory = directory;
+    this.binary = binary;
+    this.maxFileSize = maxFileSize;
+    this.maxFiles = maxFiles;
+    this.scratch = ByteBuffer.allocate(binary ? DecisionCodec.MAX_RECORD_BYTES : NDJSON_BUFFER_BYTES);
+  }
+
+  void append(DecisionRecord record) throws IOException {
+    if (binary) {
+      appendBinary(record);
+    } else {
+      appendJson(record);
+    }
+    dirty = true;
+  }
+
+  private void appendBinary(DecisionRecord record) throws IOException {
+    scratch.clear();
+    DecisionCodec.encode(record, scratch);
+    scratch.flip();
+    // Keep four zero bytes after the last record as the end marker
+    if (mapped == null || mapped.remaining() < scratch.remaining() + 4) {
+      roll();
+    }
+    mapped.put(scratch);
+  }
+
+  private void appendJson(DecisionRecord record) throws IOException {
+    byte[] line = (record.toJson() + "\n").getBytes(StandardCharsets.UTF_8);
+    if (channel == null || written + scratch.position() + line.length > maxFileSize) {
+      roll();
+    }
+    if (scratch.remaining() < line.length) {
+      writeScratch();
+    }
+    if (line.length > scratch.capacity()) {
+      written += channel.write(ByteBuffer.wrap(line));
+    } else {
+      scratch.put(line);
+    }
+  }
+
+  private void writeScratch() throws IOException {
+    scratch.flip();
+    while (scratch.hasRemaining()) {
+      written += channel.write(scratch);
+    }
+    scratch.clear();
+  }
+
+  /**
+   * Makes every appended record durable.
+   */
+  void flush() throws IOException {
+    if (!dirty) {
+      return;
+    }
+    if (binary) {
+      mapped.force();
+    } else {
+      writeScratch();
+      channel.force(false);
+    }
+    dirty = false;
+  }
+
+  private void roll() throws IOException {
+    closeCurrent();
+    Files.createDirectories(directory);
+    String name = FILE_PREFIX + FILE_TIMESTAMP.format(Instant.now());
+    String suffix = binary ? BINARY_SUFFIX : NDJSON_SUFFIX;
+    Path file = directory.resolve(name + suffix);
+    for (int i = 1; Files.exists(file); i++) {
+      file = directory.resolve(name + "-" + i + suffix);
+    }
+    if (binary) {
+      channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxFileSize);
+      DecisionCodec.writeHeader(mapped);
+    } else {
+      channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+      written = 0;
+    }
+    log.debug("Writing security decisions to {}", file);
+    deleteOldFiles();
+  }
+
+  private void deleteOldFiles() {
+    if (maxFiles <= 0) {
+      return;
+    }
+    List<Path> files;
+    try (Stream<Path> stream = Files.list(directory)) {
+      files = stream
+          .filter(path -> path.getFileName().toString().startsWith(FILE_PREFIX))
+          .sorted()
+          .toList();
+    } catch (IOException e) {
+      log.warn("Could not list security decision log files in {}", directory, e);
+      return;
+    }
+    for (int i = 0; i < files.size() - maxFiles; i++) {
+      try {
+        Files.deleteIfExists(files.get(i));
+      } catch (IOException e) {
+        log.warn("Could not delete old security decision log file {}", files.get(i), e);
+      }
+    }
+  }
+
+  private void closeCurrent() throws IOException {
+    if (channel == null) {
+      return;
+    }
+    flush();
+    channel.close();
+    channel = null;
+    // The mapping stays valid until it is garbage collected; nothing else writes to it
+    mapped = null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closeCurrent();
+  }
+
+}
@@ -1,6 +1,8 @@
 package com.intern.hub.starter.security.entity;
 
+import com.intern.hub.starter.security.history.ChangeHistoryRecorder;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import lombok.Getter;
@@ -9,6 +11,7 @@ import lombok.experimental.FieldDefaults;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.LastModifiedBy;
 
+import static lombok.AccessLevel.NONE;
 import static lombok.AccessLevel.PROTECTED;
 
 @MappedSuperclass
@@ -27,16 +30,39 @@ public abstract class AuditEntity {
   @LastModifiedBy
   Long updatedBy;
 
+  /**
+   * Field values as of the last load or write, kept only while change history is enabled.
+   */
+  @Getter(NONE)
+  @Setter(NONE)
+  private transient String[] historySnapshot;
+
+  @PostLoad
+  void onLoaded() {
+    ChangeHistoryRecorder recorder = ChangeHistoryRecorder.active();
+    if (recorder != null) {
+      this.historySnapshot = recorder.snapshot(this);
+    }
+  }
+
   @PrePersist
   void onCreated() {
-    long now = System.currentTimeMillis();
+    long now = BatchTimestamp.now();
     this.createdAt = now;
     this.updatedAt = now;
+    ChangeHistoryRecorder recorder = ChangeHistoryRecorder.active();
+    if (recorder != null) {
+      this.historySnapshot = recorder.record(this, Action.CREATE, null);
+    }
   }
 
   @PreUpdate
   void onUpdated() {
-    this.updatedAt = System.currentTimeMillis();
+    this.updatedAt = BatchTimestamp.now();
+    ChangeHistoryRecorder recorder = ChangeHistoryRecorder.active();
+    if (recorder != null) {
+      this.historySnapshot = recorder.record(this, Action.UPDATE, historySnapshot);
+    }
   }
 
 }
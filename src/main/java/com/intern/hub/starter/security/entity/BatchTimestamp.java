@@ -0,0 +1,56 @@
+package com.intern.hub.starter.security.entity;
+
+/**
+ * Optional timestamp shared by every {@link AuditEntity} written in a batch.
+ * <p>
+ * While {@link #CURRENT} is bound, {@link AuditEntity} stamps {@code createdAt} and
+ * {@code updatedAt} with the bound value instead of reading the clock for every entity, so all
+ * rows of one bulk write carry the same timestamp.
+ * </p>
+ *
+ * <pre>{@code
+ * BatchTimestamp.run(() -> repository.saveAll(entities));
+ * }</pre>
+ */
+public final class BatchTimestamp {
+
+  /**
+   * The timestamp of the current batch, in epoch milliseconds.
+   */
+  public static final ScopedValue<Long> CURRENT = ScopedValue.newInstance();
+
+  private BatchTimestamp() {
+  }
+
+  /**
+   * Returns the batch timestamp if one is bound, otherwise the current time.
+   *
+   * @return epoch milliseconds
+   */
+  public static long now() {
+    return CURRENT.isBound() ? CURRENT.get() : System.currentTimeMillis();
+  }
+
+  /**
+   * Runs the operation with the current time bound as the batch timestamp.
+   *
+   * @param operation the batch
+   */
+  public static void run(Runnable operation) {
+    ScopedValue.where(CURRENT, System.currentTimeMillis()).run(operation);
+  }
+
+  /**
+   * Calls the operation with the current time bound as the batch timestamp.
+   *
+   * @param operation the batch
+   * @param <T>       the result type
+   * @param <X>       the exception type
+   * @return the result of the operation
+   * @throws X if the operation fails
+   */
+  public static <T, X extends Throwable> T call(ScopedValue.CallableOp<? extends T, X> operation) throws X {
+    return ScopedValue.where(CURRENT, System.currentTimeMillis()).call(operation);
+  }
+
+}
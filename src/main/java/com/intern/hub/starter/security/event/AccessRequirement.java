@@ -0,0 +1,23 @@
+package com.intern.hub.starter.security.event;
+
+/**
+ * The kind of method-level requirement that was checked.
+ */
+public enum AccessRequirement {
+
+  /**
+   * {@code @Internal}.
+   */
+  INTERNAL,
+
+  /**
+   * {@code @Authenticated}.
+   */
+  AUTHENTICATED,
+
+  /**
+   * {@code @HasPermission}.
+   */
+  PERMISSION
+
+}
@@ -0,0 +1,62 @@
+package com.intern.hub.starter.security.event;
+
+/**
+ * Outcome of the security filter for one request.
+ */
+public enum FilterDecision {
+
+  /**
+   * The path matched {@code security.excluded-paths}.
+   */
+  EXCLUDED,
+
+  /**
+   * An internal path with valid internal credentials.
+   */
+  INTERNAL_ACCEPTED,
+
+  /**
+   * An internal path with missing or invalid internal credentials; answered with 403.
+   */
+  INTERNAL_REJECTED,
+
+  /**
+   * An authenticated request with a missing or malformed {@code X-UserId}; answered with 400/401.
+   */
+  IDENTITY_REJECTED,
+
+  /**
+   * A request without {@code X-Authenticated: true}.
+   */
+  UNAUTHENTICATED,
+
+  /**
+   * A request of an authenticated user.
+   */
+  AUTHENTICATED,
+
+  /**
+   * A user or internal caller over its rate limit; answered with 429.
+   */
+  RATE_LIMITED,
+
+  /**
+   * A request refused because the concurrency limit for its priority was reached; answered
+   * with 503.
+   */
+  SHED;
+
+  /**
+   * Returns whether the request was let through the filter. Every decision that answers the
+   * request itself with an error status is a denial.
+   *
+   * @return {@code true} if the request reached the rest of the chain
+   */
+  public boolean granted() {
+    return switch (this) {
+      case INTERNAL_REJECTED, IDENTITY_REJECTED, RATE_LIMITED, SHED -> false;
+      case EXCLUDED, INTERNAL_ACCEPTED, UNAUTHENTICATED, AUTHENTICATED -> true;
+    };
+  }
+
+}
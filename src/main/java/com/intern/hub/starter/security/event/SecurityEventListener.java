@@ -0,0 +1,91 @@
+package com.intern.hub.starter.security.event;
+
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.metadata.MethodSecurityMetadata;
+
+import java.util.List;
+
+/**
+ * Receives the decisions made by the security filters and the method-level enforcement.
+ * <p>
+ * Listeners are called synchronously on the request thread, so implementations must be cheap and
+ * must not throw: count, sample or hand the event off to another thread. Every
+ * {@code SecurityEventListener} bean is picked up by the auto-configuration; when there is none,
+ * the starter skips the timing and notification work entirely.
+ * </p>
+ */
+public interface SecurityEventListener {
+
+  /**
+   * Listener that ignores every event.
+   */
+  SecurityEventListener NOOP = new SecurityEventListener() {
+  };
+
+  /**
+   * Called once per request when the filter has decided how to handle it, before the rest of the
+   * filter chain runs.
+   *
+   * @param decision      the decision
+   * @param path          the request path
+   * @param authContext   the resolved context, or {@code null} if the request was rejected
+   * @param durationNanos time spent in the filter
+   */
+  default void onFilterDecision(FilterDecision decision, String path, AuthContext authContext, long durationNanos) {
+  }
+
+  /**
+   * Called for every method-level requirement that is checked.
+   *
+   * @param requirement   the requirement that was checked
+   * @param metadata      the metadata of the guarded method
+   * @param authContext   the context the requirement was checked against, may be {@code null}
+   * @param granted       whether access was granted
+   * @param durationNanos time spent on the check
+   */
+  default void onAccessDecision(AccessRequirement requirement,
+                                MethodSecurityMetadata metadata,
+                                AuthContext authContext,
+                                boolean granted,
+                                long durationNanos) {
+  }
+
+  /**
+   * Combines listeners into one that notifies each of them in order.
+   *
+   * @param listeners the listeners
+   * @return {@link #NOOP} if the list is empty, the only listener if there is one, otherwise a
+   * listener fanning out to all of them
+   */
+  static SecurityEventListener of(List<SecurityEventListener> listeners) {
+    if (listeners.isEmpty()) {
+      return NOOP;
+    }
+    if (listeners.size() == 1) {
+      return listeners.getFirst();
+    }
+    SecurityEventListener[] all = listeners.toArray(SecurityEventListener[]::new);
+    return new SecurityEventListener() {
+
+      @Override
+      public void onFilterDecision(FilterDecision decision, String path, AuthContext authContext, long durationNanos) {
+        for (SecurityEventListener listener : all) {
+          listener.onFilterDecision(decision, path, authContext, durationNanos);
+        }
+      }
+
+      @Override
+      public void onAccessDecision(AccessRequirement requirement,
+                                   MethodSecurityMetadata metadata,
+                                   AuthContext authContext,
+                                   boolean granted,
+                                   long durationNanos) {
+        for (SecurityEventListener listener : all) {
+          listener.onAccessDecision(requirement, metadata, authContext, granted, durationNanos);
+        }
+      }
+
+    };
+  }
+
+}
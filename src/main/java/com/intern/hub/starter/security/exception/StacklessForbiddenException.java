@@ -0,0 +1,38 @@
+package com.intern.hub.starter.security.exception;
+
+import com.intern.hub.library.common.exception.ExceptionConstant;
+import com.intern.hub.library.common.exception.ForbiddenException;
+
+import java.io.Serial;
+
+/**
+ * {@link ForbiddenException} that does not capture a stack trace.
+ * <p>
+ * Access denials are expected, frequent outcomes (misconfigured clients, credential stuffing), and
+ * filling in a stack trace dominates the cost of throwing. Skipping it leaves a small allocation
+ * per denial; exception handlers see the same type and code as before. Every denial gets its own
+ * instance because {@link ForbiddenException} offers no constructor that disables suppression, so
+ * a shared one would collect the suppressed exceptions of every try-with-resources it passes
+ * through, across requests.
+ * </p>
+ *
+ * @see com.intern.hub.starter.security.metadata.SecurityEnforcer
+ */
+public final class StacklessForbiddenException extends ForbiddenException {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates the exception with the default forbidden code.
+   */
+  public StacklessForbiddenException() {
+    super(ExceptionConstant.FORBIDDEN_DEFAULT_CODE);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+}
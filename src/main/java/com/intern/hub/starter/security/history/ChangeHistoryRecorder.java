@@ -0,0 +1,116 @@
+package com.intern.hub.starter.security.history;
+
+import com.intern.hub.starter.security.entity.Action;
+import com.intern.hub.starter.security.entity.AuditEntity;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Captures field-level changes of {@link AuditEntity} subclasses.
+ * <p>
+ * {@link AuditEntity} keeps a text snapshot of its fields from the moment it was loaded or last
+ * written. On insert and update it asks the active recorder to diff its current fields against
+ * that snapshot; the changes are stamped with the current auditor and handed to the
+ * {@link ChangeHistoryWriter} once the surrounding transaction commits, so rolled back changes
+ * are never recorded and the transaction never waits for the history insert.
+ * </p>
+ * <p>
+ * Entity callbacks are not Spring beans, so the recorder is published through a static field.
+ * Without an active recorder, {@link AuditEntity} does no history work.
+ * </p>
+ */
+public class ChangeHistoryRecorder implements Closeable {
+
+  private static volatile ChangeHistoryRecorder active;
+
+  private final AuditorAware<Long> auditorAware;
+
+  private final ChangeHistoryWriter writer;
+
+  private final int maxValueLength;
+
+  /**
+   * Creates a recorder.
+   *
+   * @param auditorAware   the source of the auditor
+   * @param writer         the writer of the recorded changes
+   * @param maxValueLength the number of characters after which values are truncated
+   */
+  public ChangeHistoryRecorder(AuditorAware<Long> auditorAware, ChangeHistoryWriter writer, int maxValueLength) {
+    this.auditorAware = auditorAware;
+    this.writer = writer;
+    this.maxValueLength = maxValueLength;
+  }
+
+  /**
+   * Returns the recorder used by {@link AuditEntity}.
+   *
+   * @return the active recorder, or {@code null} if change history is disabled
+   */
+  public static ChangeHistoryRecorder active() {
+    return active;
+  }
+
+  /**
+   * Makes this the recorder used by {@link AuditEntity}.
+   */
+  public void activate() {
+    active = this;
+  }
+
+  /**
+   * Takes a snapshot of the tracked fields of a loaded entity.
+   *
+   * @param entity the entity
+   * @return the snapshot
+   */
+  public String[] snapshot(AuditEntity entity) {
+    return EntityFields.of(entity.getClass()).read(entity, maxValueLength);
+  }
+
+  /**
+   * Records the changes of an entity about to be inserted or updated.
+   *
+   * @param entity the entity
+   * @param action {@link Action#CREATE} or {@link Action#UPDATE}
+   * @param before the snapshot taken when the entity was loaded or last written, or {@code null}
+   * @return the snapshot of the values being written
+   */
+  public String[] record(AuditEntity entity, Action action, String[] before) {
+    EntityFields fields = EntityFields.of(entity.getClass());
+    String[] after = fields.read(entity, maxValueLength);
+    List<FieldChange> changes = fields.diff(before, after);
+    if (changes.isEmpty()) {
+      return after;
+    }
+    Long changedBy = auditorAware.getCurrentAuditor().orElse(null);
+    long changedAt = entity.getUpdatedAt() != null ? entity.getUpdatedAt() : System.currentTimeMillis();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      // Generated identifiers are only assigned once the insert ran, so read it after commit
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          writer.submit(new EntityChange(fields.entityType(), fields.id(entity), action, changes, changedBy, changedAt));
+        }
+      });
+    } else {
+      writer.submit(new EntityChange(fields.entityType(), fields.id(entity), action, changes, changedBy, changedAt));
+    }
+    return after;
+  }
+
+  /**
+   * Deactivates this recorder.
+   */
+  @Override
+  public void close() {
+    if (active == this) {
+      active = null;
+    }
+  }
+
+}
@@ -0,0 +1,194 @@
+package com.intern.hub.starter.security.history;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Writes {@link EntityChange}s to the change history table from a background thread.
+ * <p>
+ * Changes are queued on a bounded queue, so the business transaction only pays for the enqueue.
+ * The writer thread takes up to {@code batchSize} changes at a time and inserts one row per
+ * changed field with a single JDBC batch. When the queue is full, changes are dropped and counted
+ * rather than blocking the caller.
+ * </p>
+ * <p>
+ * The table has the columns {@code entity_type}, {@code entity_id}, {@code action},
+ * {@code field_name}, {@code old_value}, {@code new_value}, {@code changed_by} and
+ * {@code changed_at} (epoch milliseconds).
+ * </p>
+ */
+@Slf4j
+public class ChangeHistoryWriter implements Closeable {
+
+  private static final String THREAD_NAME = "audit-change-history";
+
+  private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+  private static final long POLL_MILLIS = 200;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final String tableName;
+
+  private final BlockingQueue<EntityChange> queue;
+
+  private final int batchSize;
+
+  private final LongAdder dropped = new LongAdder();
+
+  private final Thread writer;
+
+  private volatile boolean running = true;
+
+  /**
+   * Creates the writer and starts its thread.
+   *
+   * @param dataSource    the data source of the history table
+   * @param tableName     the table name, optionally schema-qualified
+   * @param queueCapacity the maximum number of queued changes
+   * @param batchSize     the maximum number of changes written per batch
+   */
+  public ChangeHistoryWriter(DataSource dataSource, String tableName, int queueCapacity, int batchSize) {
+    if (!TABLE_NAME.matcher(tableName).matches()) {
+      throw new IllegalArgumentException("Invalid change history table name: " + tableName);
+    }
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.tableName = tableName;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = Math.max(1, batchSize);
+    this.writer = Thread.ofPlatform().name(THREAD_NAME).daemon().unstarted(this::run);
+    this.writer.start();
+  }
+
+  /**
+   * Creates the history table if it does not exist.
+   *
+   * @param maxValueLength the length of the value columns
+   */
+  public void initializeSchema(int maxValueLength) {
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + tableName + " ("
+        + "entity_type VARCHAR(255) NOT NULL, "
+        + "entity_id VARCHAR(255), "
+        + "action VARCHAR(16) NOT NULL, "
+        + "field_name VARCHAR(255) NOT NULL, "
+        + "old_value VARCHAR(" + maxValueLength + "), "
+        + "new_value VARCHAR(" + maxValueLength + "), "
+        + "changed_by BIGINT, "
+        + "changed_at BIGINT NOT NULL)");
+  }
+
+  /**
+   * Queues a change without blocking.
+   *
+   * @param change the change
+   * @return {@code false} if the queue was full and the change was dropped
+   */
+  public boolean submit(EntityChange change) {
+    if (change.changes().isEmpty()) {
+      return true;
+    }
+    if (!queue.offer(change)) {
+      dropped.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of changes dropped because the queue was full or a batch failed.
+   *
+   * @return the dropped change count
+   */
+  public long droppedCount() {
+    return dropped.sum();
+  }
+
+  private void run() {
+    List<EntityChange> batch = new ArrayList<>(batchSize);
+    long reportedDrops = 0;
+    while (running) {
+      try {
+        EntityChange first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          reportedDrops = reportDrops(reportedDrops);
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        write(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void write(List<EntityChange> batch) {
+    List<Object[]> rows = new ArrayList<>();
+    for (EntityChange change : batch) {
+      for (FieldChange field : change.changes()) {
+        rows.add(new Object[]{
+            change.entityType(),
+            change.entityId(),
+            change.action().name(),
+            field.field(),
+            field.oldValue(),
+            field.newValue(),
+            change.changedBy(),
+            change.changedAt()
+        });
+      }
+    }
+    try {
+      jdbcTemplate.batchUpdate("INSERT INTO " + tableName
+              + " (entity_type, entity_id, action, field_name, old_value, new_value, changed_by, changed_at)"
+              + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+          rows,
+          new int[]{Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+              Types.BIGINT, Types.BIGINT});
+    } catch (RuntimeException e) {
+      dropped.add(batch.size());
+      log.error("Could not write {} entity changes to {}", batch.size(), tableName, e);
+    }
+  }
+
+  private long reportDrops(long reported) {
+    long count = dropped.sum();
+    if (count > reported) {
+      log.warn("Change history dropped {} entity changes ({} in total)", count - reported, count);
+    }
+    return count;
+  }
+
+  /**
+   * Stops the writer thread and writes the changes still queued.
+   */
+  @Override
+  public void close() {
+    running = false;
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    List<EntityChange> batch = new ArrayList<>(batchSize);
+    while (queue.drainTo(batch, batchSize) > 0) {
+      write(batch);
+      batch.clear();
+    }
+  }
+
+}
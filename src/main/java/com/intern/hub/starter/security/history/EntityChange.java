@@ -0,0 +1,24 @@
+package com.intern.hub.starter.security.history;
+
+import com.intern.hub.starter.security.entity.Action;
+
+import java.util.List;
+
+/**
+ * Field-level changes of one entity made by one insert or update.
+ *
+ * @param entityType the simple name of the entity class
+ * @param entityId   the entity identifier as text, or {@code null} if it is unknown
+ * @param action     {@link Action#CREATE} or {@link Action#UPDATE}
+ * @param changes    the changed fields
+ * @param changedBy  the auditor, or {@code null}
+ * @param changedAt  epoch milliseconds of the change
+ */
+public record EntityChange(
+    String entityType,
+    String entityId,
+    Action action,
+    List<FieldChange> changes,
+    Long changedBy,
+    long changedAt) {
+}
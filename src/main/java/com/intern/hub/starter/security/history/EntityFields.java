@@ -0,0 +1,162 @@
+package com.intern.hub.starter.security.history;
+
+import com.intern.hub.starter.security.entity.AuditEntity;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Persistent fields of an {@link AuditEntity} subclass whose changes are recorded.
+ * <p>
+ * Resolved once per class. The audit columns of {@link AuditEntity}, identifiers, versions and
+ * associations are left out: associations are skipped so that recording never triggers lazy
+ * loading.
+ * </p>
+ * <p>
+ * Values are recorded as text: arrays as their elements ({@code [1, 2]}, nested arrays included),
+ * every other type with {@code toString()}. That suits strings, numbers, booleans, enums,
+ * {@code java.time} values and UUIDs; embeddables and other value objects need a meaningful
+ * {@code toString()}, or their changes are recorded as identity strings.
+ * </p>
+ */
+final class EntityFields {
+
+  private static final ClassValue<EntityFields> CACHE = new ClassValue<>() {
+    @Override
+    protected EntityFields computeValue(Class<?> type) {
+      return new EntityFields(type);
+    }
+  };
+
+  private final String entityType;
+
+  private final Field[] fields;
+
+  private final String[] names;
+
+  private final Field idField;
+
+  private EntityFields(Class<?> type) {
+    List<Field> tracked = new ArrayList<>();
+    Field id = null;
+    for (Class<?> current = type; current != null && current != AuditEntity.class; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+            || field.isAnnotationPresent(Transient.class)) {
+          continue;
+        }
+        if (field.isAnnotationPresent(Id.class) || field.isAnnotationPresent(EmbeddedId.class)) {
+          if (id == null) {
+            field.setAccessible(true);
+            id = field;
+          }
+          continue;
+        }
+        if (field.isAnnotationPresent(Version.class)
+            || field.isAnnotationPresent(OneToMany.class)
+            || field.isAnnotationPresent(ManyToMany.class)
+            || field.isAnnotationPresent(ManyToOne.class)
+            || field.isAnnotationPresent(OneToOne.class)
+            || field.isAnnotationPresent(ElementCollection.class)) {
+          continue;
+        }
+        field.setAccessible(true);
+        tracked.add(field);
+      }
+    }
+    this.entityType = type.getSimpleName();
+    this.fields = tracked.toArray(Field[]::new);
+    this.names = tracked.stream().map(Field::getName).toArray(String[]::new);
+    this.idField = id;
+  }
+
+  static EntityFields of(Class<?> type) {
+    return CACHE.get(type);
+  }
+
+  String entityType() {
+    return entityType;
+  }
+
+  /**
+   * Reads the tracked fields as text, truncated to {@code maxLength} characters.
+   */
+  String[] read(Object entity, int maxLength) {
+    String[] values = new String[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      Object value;
+      try {
+        value = fields[i].get(entity);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException("Cannot read " + names[i] + " of " + entityType, e);
+      }
+      if (value != null) {
+        String text = text(value);
+        values[i] = text.length() > maxLength ? text.substring(0, maxLength) : text;
+      }
+    }
+    return values;
+  }
+
+  private static String text(Object value) {
+    return switch (value) {
+      case Object[] array -> Arrays.deepToString(array);
+      case byte[] array -> Arrays.toString(array);
+      case short[] array -> Arrays.toString(array);
+      case int[] array -> Arrays.toString(array);
+      case long[] array -> Arrays.toString(array);
+      case float[] array -> Arrays.toString(array);
+      case double[] array -> Arrays.toString(array);
+      case char[] array -> Arrays.toString(array);
+      case boolean[] array -> Arrays.toString(array);
+      default -> value.toString();
+    };
+  }
+
+  /**
+   * Lists the fields whose value differs between the two snapshots. A missing {@code before}
+   * snapshot lists every non-null field.
+   */
+  List<FieldChange> diff(String[] before, String[] after) {
+    List<FieldChange> changes = new ArrayList<>();
+    for (int i = 0; i < after.length; i++) {
+      String old = before != null ? before[i] : null;
+      if (!Objects.equals(old, after[i])) {
+        changes.add(new FieldChange(names[i], old, after[i]));
+      }
+    }
+    return changes;
+  }
+
+  /**
+   * Reads the identifier as text.
+   *
+   * @return the identifier, or {@code null} if the entity has none (yet)
+   */
+  String id(Object entity) {
+    if (idField == null) {
+      return null;
+    }
+    try {
+      Object id = idField.get(entity);
+      return id != null ? id.toString() : null;
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Cannot read the identifier of " + entityType, e);
+    }
+  }
+
+}
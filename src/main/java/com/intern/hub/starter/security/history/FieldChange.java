@@ -0,0 +1,11 @@
+package com.intern.hub.starter.security.history;
+
+/**
+ * Change of a single persistent field.
+ *
+ * @param field    the field name
+ * @param oldValue the previous value as text, or {@code null}
+ * @param newValue the new value as text, or {@code null}
+ */
+public record FieldChange(String field, String oldValue, String newValue) {
+}
@@ -0,0 +1,50 @@
+package com.intern.hub.starter.security.logging;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.context.AuthContextHolder;
+import com.intern.hub.starter.security.context.AuthContextValueCache;
+
+/**
+ * Logback converter that renders the current user straight from the bound {@link AuthContext}.
+ * <p>
+ * Reads {@link AuthContextHolder#AUTH_CONTEXT} when the event is rendered and prints
+ * {@link AuthContext#principalName()} (the user id, {@code internal} or {@code anonymous}), which
+ * is computed once per context and kept in an {@link AuthContextValueCache}. Combined with {@code security.mdc-enabled=false} nothing is
+ * written to the {@code ThreadLocal} MDC per request, and log lines from child scopes (e.g.
+ * {@code StructuredTaskScope} forks) still show the right user. Register it in
+ * {@code logback-spring.xml}:
+ * </p>
+ *
+ * <pre>{@code
+ * <conversionRule conversionWord="userId"
+ *                 class="com.intern.hub.starter.security.logging.UserIdConverter"/>
+ * <pattern>%d [%thread] [userId=%userId] %-5level %logger{36} - %msg%n</pattern>
+ * }</pre>
+ *
+ * <p>
+ * The scoped value is only visible on the logging thread, so appenders that render on another
+ * thread (such as {@code AsyncAppender}) fall back to the {@code userId} MDC entry and need
+ * {@code security.mdc-enabled=true}.
+ * </p>
+ */
+public class UserIdConverter extends ClassicConverter {
+
+  private static final String MDC_USER_ID = "userId";
+
+  private static final int CACHE_SIZE = 256;
+
+  private final AuthContextValueCache<String> principalNames =
+      new AuthContextValueCache<>(CACHE_SIZE, AuthContext::principalName);
+
+  @Override
+  public String convert(ILoggingEvent event) {
+    if (AuthContextHolder.AUTH_CONTEXT.isBound()) {
+      return principalNames.get(AuthContextHolder.AUTH_CONTEXT.get());
+    }
+    String userId = event.getMDCPropertyMap().get(MDC_USER_ID);
+    return userId != null ? userId : "";
+  }
+
+}
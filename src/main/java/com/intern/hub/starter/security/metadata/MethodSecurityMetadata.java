@@ -0,0 +1,84 @@
+package com.intern.hub.starter.security.metadata;
+
+import com.intern.hub.starter.security.annotation.Authenticated;
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.annotation.Internal;
+
+import java.lang.reflect.Method;
+
+/**
+ * Immutable, precomputed security requirement of a single method.
+ * <p>
+ * Resolved once from the {@link HasPermission}, {@link Internal} and {@link Authenticated}
+ * annotations of the method (and the {@link HasPermission} annotations of its declaring class), so
+ * enforcement never has to touch reflection.
+ * </p>
+ *
+ * @param methodName    the simple name of the declaring class and the method name (e.g.
+ *                      {@code UserController.getUser}), used for diagnostics and metrics only
+ * @param internal      whether the method is annotated with {@link Internal}
+ * @param authenticated whether the method is annotated with {@link Authenticated}
+ * @param permission    the combined {@link HasPermission} requirement, or {@code null} if the
+ *                      method and its class declare none
+ * @see SecurityMetadataRegistry
+ */
+public record MethodSecurityMetadata(
+    String methodName,
+    boolean internal,
+    boolean authenticated,
+    PermissionRequirement permission) {
+
+  /**
+   * Metadata of a method without any security annotation.
+   */
+  public static final MethodSecurityMetadata NONE = new MethodSecurityMetadata(
+      null,
+      false,
+      false,
+      null);
+
+  /**
+   * Resolves the metadata of the given method from its annotations.
+   *
+   * @param method the method
+   * @return the metadata, or {@link #NONE} if the method has no security annotation
+   */
+  public static MethodSecurityMetadata resolve(Method method) {
+    PermissionRequirement permission = PermissionRequirement.resolve(method);
+    boolean internal = method.isAnnotationPresent(Internal.class);
+    boolean authenticated = method.isAnnotationPresent(Authenticated.class);
+    if (permission == null && !internal && !authenticated) {
+      return NONE;
+    }
+    String methodName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    return new MethodSecurityMetadata(methodName, internal, authenticated, permission);
+  }
+
+  /**
+   * Whether the method declares a {@link HasPermission} requirement.
+   *
+   * @return {@code true} if a permission is required
+   */
+  public boolean requiresPermission() {
+    return permission != null;
+  }
+
+  /**
+   * Describes the required permissions, e.g. {@code user:read} or {@code report:read | report:review}.
+   *
+   * @return the description, or {@code null} if no permission is required
+   */
+  public String permissionKey() {
+    return permission != null ? permission.description() : null;
+  }
+
+  /**
+   * Whether the method has no security requirement at all.
+   *
+   * @return {@code true} if nothing has to be enforced
+   */
+  public boolean isEmpty() {
+    return this == NONE;
+  }
+
+}
@@ -0,0 +1,160 @@
+package com.intern.hub.starter.security.metadata;
+
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.context.AuthContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.NativeDetector;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+
+/**
+ * The {@link HasPermission#condition()} of a method, parsed once at startup.
+ * <p>
+ * Expressions are parsed when the method's {@link MethodSecurityMetadata} is resolved and use
+ * SpEL's {@link SpelCompilerMode#IMMEDIATE} compiler: SpEL compiles an expression to bytecode as
+ * soon as it has observed the types it operates on, which is after its first evaluations, and
+ * every later evaluation runs the generated class. The root object is a
+ * {@link PermissionConditionRoot} ({@code auth}); the method arguments are variables named after
+ * the parameters ({@code #id}) and also available as {@code #p0}, {@code #p1}, ... Parameter names
+ * are resolved once here, so evaluation never touches reflection. Beans are referenced with
+ * {@code @beanName} when the caller passes a {@link BeanResolver}, as the {@link SecurityEnforcer}
+ * does.
+ * </p>
+ *
+ * @see HasPermission#condition()
+ */
+public final class PermissionCondition {
+
+  private final String source;
+
+  private final Expression expression;
+
+  private final String[] parameterNames;
+
+  private final String[] positionalNames;
+
+  private final boolean usesArguments;
+
+  private PermissionCondition(String source, Expression expression, String[] parameterNames, int parameterCount) {
+    this.source = source;
+    this.expression = expression;
+    this.parameterNames = parameterNames;
+    this.usesArguments = expression instanceof SpelExpression spel && referencesVariable(spel.getAST());
+    this.positionalNames = new String[parameterCount];
+    for (int i = 0; i < parameterCount; i++) {
+      positionalNames[i] = "p" + i;
+    }
+  }
+
+  /**
+   * Parses the condition of the given method with the compiler enabled, or interpreted in a
+   * native image.
+   *
+   * @param source the expression
+   * @param method the guarded method
+   * @return the condition
+   * @throws IllegalStateException if the expression cannot be parsed
+   */
+  public static PermissionCondition parse(String source, Method method) {
+    // A native image cannot define the classes the compiler generates
+    return parse(source, method, NativeDetector.inNativeImage() ? SpelCompilerMode.OFF : SpelCompilerMode.IMMEDIATE);
+  }
+
+  static PermissionCondition parse(String source, Method method, SpelCompilerMode compilerMode) {
+    SpelExpressionParser parser = new SpelExpressionParser(
+        new SpelParserConfiguration(compilerMode, method.getDeclaringClass().getClassLoader()));
+    Expression expression;
+    try {
+      expression = parser.parseExpression(source);
+    } catch (ParseException e) {
+      throw new IllegalStateException("Invalid @HasPermission condition on "
+          + method.getDeclaringClass().getSimpleName() + "." + method.getName() + ": " + source, e);
+    }
+    String[] names = new DefaultParameterNameDiscoverer().getParameterNames(method);
+    return new PermissionCondition(source, expression, names != null ? names : new String[0], method.getParameterCount());
+  }
+
+  private static boolean referencesVariable(SpelNode node) {
+    // #root and #this are the only variables that are not method arguments
+    if (node instanceof VariableReference) {
+      String name = node.toStringAST();
+      return !name.equals("#root") && !name.equals("#this");
+    }
+    for (int i = 0; i < node.getChildCount(); i++) {
+      if (referencesVariable(node.getChild(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Evaluates the condition.
+   *
+   * @param authContext the current context
+   * @param args        the method arguments, or {@code null} if they are not available
+   * @return {@code true} if the condition holds
+   */
+  public boolean matches(AuthContext authContext, Object[] args) {
+    return matches(authContext, args, null);
+  }
+
+  /**
+   * Evaluates the condition, resolving {@code @beanName} references through the given resolver.
+   *
+   * @param authContext  the current context
+   * @param args         the method arguments, or {@code null} if they are not available
+   * @param beanResolver the resolver of bean references, usually backed by the application
+   *                     context, or {@code null}
+   * @return {@code true} if the condition holds
+   */
+  public boolean matches(AuthContext authContext, Object[] args, BeanResolver beanResolver) {
+    StandardEvaluationContext context = new StandardEvaluationContext(new PermissionConditionRoot(authContext));
+    if (beanResolver != null) {
+      context.setBeanResolver(beanResolver);
+    }
+    if (args != null) {
+      for (int i = 0; i < args.length && i < positionalNames.length; i++) {
+        if (i < parameterNames.length) {
+          context.setVariable(parameterNames[i], args[i]);
+        }
+        context.setVariable(positionalNames[i], args[i]);
+      }
+    }
+    return Boolean.TRUE.equals(expression.getValue(context, Boolean.class));
+  }
+
+  /**
+   * Whether the expression reads a method argument ({@code #id}, {@code #p0}), so it can only hold
+   * where the arguments are passed to {@link #matches}.
+   *
+   * @return {@code true} if the expression references a variable other than {@code #root} and
+   * {@code #this}
+   */
+  public boolean usesArguments() {
+    return usesArguments;
+  }
+
+  /**
+   * @return the expression text
+   */
+  public String source() {
+    return source;
+  }
+
+  @Override
+  public String toString() {
+    return source;
+  }
+
+}
@@ -0,0 +1,83 @@
+package com.intern.hub.starter.security.metadata;
+
+import com.intern.hub.starter.security.context.AuthContext;
+
+import java.util.Set;
+
+/**
+ * Root object of {@code @HasPermission} conditions.
+ * <p>
+ * Exposes the current context as {@code auth} through plain JavaBean getters, which the SpEL
+ * compiler turns into direct method calls, so a compiled condition such as
+ * {@code #id == auth.userId} runs without reflection.
+ * </p>
+ *
+ * @see PermissionCondition
+ */
+public final class PermissionConditionRoot {
+
+  private final Auth auth;
+
+  PermissionConditionRoot(AuthContext authContext) {
+    this.auth = new Auth(authContext);
+  }
+
+  /**
+   * @return the current context, as {@code auth} in expressions
+   */
+  public Auth getAuth() {
+    return auth;
+  }
+
+  /**
+   * View of an {@link AuthContext} for expressions.
+   */
+  public static final class Auth {
+
+    private final AuthContext authContext;
+
+    private Auth(AuthContext authContext) {
+      this.authContext = authContext;
+    }
+
+    /**
+     * @return the user id, {@code auth.userId}
+     */
+    public Long getUserId() {
+      return authContext.userId();
+    }
+
+    /**
+     * @return whether the request is internal, {@code auth.internal}
+     */
+    public boolean isInternal() {
+      return authContext.internal();
+    }
+
+    /**
+     * @return whether the user is authenticated, {@code auth.authenticated}
+     */
+    public boolean isAuthenticated() {
+      return authContext.authenticated();
+    }
+
+    /**
+     * @return the granted permission keys, {@code auth.permissions}
+     */
+    public Set<String> getPermissions() {
+      return authContext.permissions();
+    }
+
+    /**
+     * Checks a further permission, {@code auth.hasPermission('project:update')}.
+     *
+     * @param key the permission key
+     * @return {@code true} if the permission is granted
+     */
+    public boolean hasPermission(String key) {
+      return authContext.permissions().contains(key);
+    }
+
+  }
+
+}
@@ -0,0 +1,219 @@
+package com.intern.hub.starter.security.metadata;
+
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.annotation.HasPermissions;
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.permission.PermissionRegistry;
+import com.intern.hub.starter.security.permission.PermissionSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.BeanResolver;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The combined {@link HasPermission} requirement of a method, compiled once at startup.
+ * <p>
+ * The class-level and the method-level annotations each form a group; a group is satisfied by
+ * all or by any of its permissions (see {@link HasPermissions#match()}) and every group must be
+ * satisfied. Without conditions, each group is compiled to a bitset of {@link PermissionRegistry}
+ * ids and checked with one pass over the user's {@link PermissionSet}, so enforcement costs the
+ * same however many annotations are declared; a single permission stays a single bit test.
+ * Permissions with a condition, or that could not be registered, are checked one by one.
+ * </p>
+ *
+ * @see MethodSecurityMetadata
+ */
+@Slf4j
+public final class PermissionRequirement {
+
+  private final Group[] groups;
+
+  private final int singleId;
+
+  private final boolean compiled;
+
+  private final String description;
+
+  private PermissionRequirement(Group[] groups) {
+    this.groups = groups;
+    Term single = groups.length == 1 && groups[0].terms.length == 1 ? groups[0].terms[0] : null;
+    this.singleId = single != null && single.condition == null ? single.id : PermissionRegistry.UNKNOWN;
+    this.compiled = Arrays.stream(groups).allMatch(group -> group.mask != null);
+    this.description = groups.length == 1
+        ? groups[0].description()
+        : Arrays.stream(groups)
+            .map(group -> group.terms.length > 1 ? "(" + group.description() + ")" : group.description())
+            .collect(Collectors.joining(" & "));
+  }
+
+  /**
+   * Resolves the requirement of a method from the {@link HasPermission} annotations on it and on
+   * its declaring class.
+   *
+   * @param method the method
+   * @return the requirement, or {@code null} if neither declares one
+   */
+  public static PermissionRequirement resolve(Method method) {
+    List<Group> groups = new ArrayList<>(2);
+    Class<?> declaringClass = method.getDeclaringClass();
+    if (!Modifier.isStatic(method.getModifiers()) && !method.isSynthetic()) {
+      Group classGroup = group(declaringClass, method);
+      if (classGroup != null) {
+        groups.add(classGroup);
+      }
+    }
+    Group methodGroup = group(method, method);
+    if (methodGroup != null) {
+      groups.add(methodGroup);
+    }
+    return groups.isEmpty() ? null : new PermissionRequirement(groups.toArray(new Group[0]));
+  }
+
+  private static Group group(AnnotatedElement element, Method method) {
+    HasPermission[] annotations = element.getAnnotationsByType(HasPermission.class);
+    if (annotations.length == 0) {
+      return null;
+    }
+    HasPermissions container = element.getAnnotation(HasPermissions.class);
+    boolean any = container != null && container.match() == HasPermissions.Match.ANY;
+    Term[] terms = new Term[annotations.length];
+    for (int i = 0; i < annotations.length; i++) {
+      HasPermission annotation = annotations[i];
+      PermissionRegistry.registerResource(annotation.resource());
+      String key = PermissionRegistry.key(annotation.resource(), annotation.action());
+      PermissionCondition condition = annotation.condition().isBlank()
+          ? null
+          : PermissionCondition.parse(annotation.condition(), method);
+      terms[i] = new Term(key, PermissionRegistry.register(key), condition);
+    }
+    return new Group(any, terms);
+  }
+
+  /**
+   * Checks the requirement against a context.
+   *
+   * @param authContext an authenticated context
+   * @param args        the method arguments for conditions, or {@code null} if not available
+   * @return {@code true} if the requirement is met
+   */
+  public boolean matches(AuthContext authContext, Object[] args) {
+    return matches(authContext, args, null);
+  }
+
+  /**
+   * Checks the requirement against a context, resolving {@code @beanName} references of conditions
+   * through the given resolver.
+   *
+   * @param authContext  an authenticated context
+   * @param args         the method arguments for conditions, or {@code null} if not available
+   * @param beanResolver the resolver of bean references, or {@code null}
+   * @return {@code true} if the requirement is met
+   */
+  public boolean matches(AuthContext authContext, Object[] args, BeanResolver beanResolver) {
+    PermissionSet permissions = authContext.permissionSet();
+    if (singleId != PermissionRegistry.UNKNOWN) {
+      return permissions.contains(singleId);
+    }
+    for (Group group : groups) {
+      boolean met = compiled
+          ? (group.any ? permissions.containsAny(group.mask) : permissions.containsAll(group.mask))
+          : group.matches(authContext, permissions, args, beanResolver);
+      if (!met) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether a condition of the requirement reads a method argument, so the requirement can only be
+   * met where the arguments are passed to {@link #matches}.
+   *
+   * @return {@code true} if any condition uses arguments
+   * @see PermissionCondition#usesArguments()
+   */
+  public boolean usesArguments() {
+    return Arrays.stream(groups)
+        .flatMap(group -> Arrays.stream(group.terms))
+        .anyMatch(term -> term.condition != null && term.condition.usesArguments());
+  }
+
+  /**
+   * Returns a readable form such as {@code project:read & (report:read | report:review)}.
+   *
+   * @return the description
+   */
+  public String description() {
+    return description;
+  }
+
+  @Override
+  public String toString() {
+    return description;
+  }
+
+  private record Term(String key, int id, PermissionCondition condition) {
+
+    private boolean matches(AuthContext authContext, PermissionSet permissions, Object[] args,
+                            BeanResolver beanResolver) {
+      boolean granted = id != PermissionRegistry.UNKNOWN ? permissions.contains(id) : permissions.contains(key);
+      return granted && (condition == null || conditionHolds(authContext, args, beanResolver));
+    }
+
+    private boolean conditionHolds(AuthContext authContext, Object[] args, BeanResolver beanResolver) {
+      boolean holds;
+      try {
+        holds = condition.matches(authContext, args, beanResolver);
+      } catch (RuntimeException e) {
+        log.warn("Access denied: condition {} of permission {} failed", condition, key, e);
+        return false;
+      }
+      if (!holds) {
+        log.debug("Access denied: condition {} of permission {} does not hold", condition, key);
+      }
+      return holds;
+    }
+
+  }
+
+  private static final class Group {
+
+    private final boolean any;
+
+    private final Term[] terms;
+
+    /**
+     * Bitset of the term ids, or {@code null} if a term needs individual evaluation.
+     */
+    private final long[] mask;
+
+    private Group(boolean any, Term[] terms) {
+      this.any = any;
+      this.terms = terms;
+      boolean maskable = Arrays.stream(terms).allMatch(term -> term.id != PermissionRegistry.UNKNOWN && term.condition == null);
+      this.mask = maskable ? PermissionSet.mask(Arrays.stream(terms).mapToInt(Term::id).toArray()) : null;
+    }
+
+    private boolean matches(AuthContext authContext, PermissionSet permissions, Object[] args,
+                            BeanResolver beanResolver) {
+      for (Term term : terms) {
+        if (term.matches(authContext, permissions, args, beanResolver) == any) {
+          return any;
+        }
+      }
+      return !any;
+    }
+
+    private String description() {
+      return Arrays.stream(terms).map(Term::key).collect(Collectors.joining(any ? " | " : " & "));
+    }
+
+  }
+
+}
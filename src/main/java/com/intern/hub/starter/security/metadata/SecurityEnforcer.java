@@ -0,0 +1,293 @@
+package com.intern.hub.starter.security.metadata;
+
+import com.intern.hub.library.common.exception.ExceptionConstant;
+import com.intern.hub.library.common.exception.ForbiddenException;
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.context.AuthContextHolder;
+import com.intern.hub.starter.security.event.AccessRequirement;
+import com.intern.hub.starter.security.event.SecurityEventListener;
+import com.intern.hub.starter.security.exception.StacklessForbiddenException;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.BeanResolver;
+
+/**
+ * Enforces {@link MethodSecurityMetadata} against the current {@link AuthContext}.
+ * <p>
+ * One instance is shared by the AOP aspects and the
+ * {@link com.intern.hub.starter.security.autoconfig.interceptor.SecurityHandlerInterceptor} so
+ * both enforcement modes apply exactly the same rules. Denials throw a
+ * {@link StacklessForbiddenException} unless stackless denials are disabled with
+ * {@code security.stackless-denials=false}. Permission checks are recorded as
+ * {@code security.permission_check} events on the current span when it is recording, and every
+ * decision is reported to the configured {@link SecurityEventListener}. Permission conditions
+ * resolve {@code @beanName} references through the {@link BeanResolver} of the enforcer.
+ * </p>
+ *
+ * <p>
+ * The settings belong to the instance, so several application contexts in one JVM (such as test
+ * contexts with different properties) each enforce their own.
+ * </p>
+ *
+ * @see MethodSecurityMetadata
+ */
+@Slf4j
+public final class SecurityEnforcer {
+
+  private static final AttributeKey<String> PERMISSION = AttributeKey.stringKey("security.permission");
+
+  private static final AttributeKey<String> METHOD = AttributeKey.stringKey("security.method");
+
+  private static final AttributeKey<Boolean> GRANTED = AttributeKey.booleanKey("security.granted");
+
+  private final boolean stacklessDenials;
+
+  private final boolean permissionEvents;
+
+  private final BeanResolver beanResolver;
+
+  private volatile SecurityEventListener eventListener = SecurityEventListener.NOOP;
+
+  /**
+   * Creates an enforcer with the default settings: stackless denials, permission span events and
+   * no bean references in conditions.
+   */
+  public SecurityEnforcer() {
+    this(true, true, null);
+  }
+
+  /**
+   * Creates an enforcer.
+   *
+   * @param stacklessDenials {@code true} to throw a {@link StacklessForbiddenException},
+   *                         {@code false} for a new {@link ForbiddenException} per denial
+   * @param permissionEvents {@code true} to record a {@code security.permission_check} span event
+   *                         for every permission check
+   * @param beanResolver     the resolver of {@code @beanName} references in permission
+   *                         conditions, usually backed by the application context, or
+   *                         {@code null}
+   */
+  public SecurityEnforcer(boolean stacklessDenials, boolean permissionEvents, BeanResolver beanResolver) {
+    this.stacklessDenials = stacklessDenials;
+    this.permissionEvents = permissionEvents;
+    this.beanResolver = beanResolver;
+  }
+
+  /**
+   * Enforces every requirement of the given metadata.
+   *
+   * @param metadata the method metadata
+   * @throws ForbiddenException if any requirement is not met
+   */
+  public void enforce(MethodSecurityMetadata metadata) {
+    if (metadata.isEmpty()) {
+      return;
+    }
+    enforce(metadata, AuthContextHolder.get().orElse(null));
+  }
+
+  /**
+   * Enforces every requirement of the given metadata against the given context.
+   *
+   * @param metadata    the method metadata
+   * @param authContext the context to check, may be {@code null}
+   * @throws ForbiddenException if any requirement is not met
+   */
+  public void enforce(MethodSecurityMetadata metadata, AuthContext authContext) {
+    enforce(metadata, authContext, null);
+  }
+
+  /**
+   * Enforces every requirement of the given metadata against the given context, evaluating a
+   * permission condition against the given method arguments.
+   *
+   * @param metadata    the method metadata
+   * @param authContext the context to check, may be {@code null}
+   * @param args        the method arguments, or {@code null} if they are not available
+   * @throws ForbiddenException if any requirement is not met
+   */
+  public void enforce(MethodSecurityMetadata metadata, AuthContext authContext, Object[] args) {
+    if (metadata.internal()) {
+      requireInternal(authContext, metadata);
+    }
+    if (metadata.authenticated()) {
+      requireAuthenticated(authContext, metadata);
+    }
+    if (metadata.requiresPermission()) {
+      requirePermission(authContext, metadata, args);
+    }
+  }
+
+  /**
+   * Requires an authenticated context that holds the permission of the given metadata.
+   *
+   * @param authContext the current context, may be {@code null}
+   * @param metadata    the method metadata
+   * @throws ForbiddenException if the user is not authenticated or lacks the permission
+   */
+  public void requirePermission(AuthContext authContext, MethodSecurityMetadata metadata) {
+    requirePermission(authContext, metadata, null);
+  }
+
+  /**
+   * Requires an authenticated context that holds the permission of the given metadata and
+   * satisfies its condition for the given method arguments.
+   *
+   * @param authContext the current context, may be {@code null}
+   * @param metadata    the method metadata
+   * @param args        the method arguments, or {@code null} if they are not available
+   * @throws ForbiddenException if the user is not authenticated, lacks the permission or the
+   *                            condition does not hold
+   */
+  public void requirePermission(AuthContext authContext, MethodSecurityMetadata metadata, Object[] args) {
+    SecurityEventListener listener = eventListener;
+    if (listener == SecurityEventListener.NOOP) {
+      if (!hasPermission(authContext, metadata, args)) {
+        throw denied();
+      }
+      return;
+    }
+    long start = System.nanoTime();
+    boolean granted = hasPermission(authContext, metadata, args);
+    listener.onAccessDecision(AccessRequirement.PERMISSION, metadata, authContext, granted, System.nanoTime() - start);
+    if (!granted) {
+      throw denied();
+    }
+  }
+
+  /**
+   * Requires an internal context.
+   *
+   * @param authContext the current context, may be {@code null}
+   * @throws ForbiddenException if the context is missing or not internal
+   */
+  public void requireInternal(AuthContext authContext) {
+    requireInternal(authContext, MethodSecurityMetadata.NONE);
+  }
+
+  /**
+   * Requires an internal context for the method described by the given metadata.
+   *
+   * @param authContext the current context, may be {@code null}
+   * @param metadata    the method metadata, reported to the {@link SecurityEventListener}
+   * @throws ForbiddenException if the context is missing or not internal
+   */
+  public void requireInternal(AuthContext authContext, MethodSecurityMetadata metadata) {
+    SecurityEventListener listener = eventListener;
+    if (listener == SecurityEventListener.NOOP) {
+      if (!isInternal(authContext)) {
+        throw denied();
+      }
+      return;
+    }
+    long start = System.nanoTime();
+    boolean granted = isInternal(authContext);
+    listener.onAccessDecision(AccessRequirement.INTERNAL, metadata, authContext, granted, System.nanoTime() - start);
+    if (!granted) {
+      throw denied();
+    }
+  }
+
+  /**
+   * Requires an authenticated context.
+   *
+   * @param authContext the current context, may be {@code null}
+   * @throws ForbiddenException if the context is missing or not authenticated
+   */
+  public void requireAuthenticated(AuthContext authContext) {
+    requireAuthenticated(authContext, MethodSecurityMetadata.NONE);
+  }
+
+  /**
+   * Requires an authenticated context for the method described by the given metadata.
+   *
+   * @param authContext the current context, may be {@code null}
+   * @param metadata    the method metadata, reported to the {@link SecurityEventListener}
+   * @throws ForbiddenException if the context is missing or not authenticated
+   */
+  public void requireAuthenticated(AuthContext authContext, MethodSecurityMetadata metadata) {
+    SecurityEventListener listener = eventListener;
+    if (listener == SecurityEventListener.NOOP) {
+      if (!isAuthenticated(authContext)) {
+        throw denied();
+      }
+      return;
+    }
+    long start = System.nanoTime();
+    boolean granted = isAuthenticated(authContext);
+    listener.onAccessDecision(AccessRequirement.AUTHENTICATED, metadata, authContext, granted, System.nanoTime() - start);
+    if (!granted) {
+      throw denied();
+    }
+  }
+
+  /**
+   * Sets the listener notified of every access decision. Set once all singletons exist, so
+   * listeners defined by later auto-configurations are included.
+   *
+   * @param listener the listener, {@link SecurityEventListener#NOOP} to disable notifications
+   */
+  public void setEventListener(SecurityEventListener listener) {
+    eventListener = listener;
+  }
+
+  private boolean hasPermission(AuthContext authContext, MethodSecurityMetadata metadata, Object[] args) {
+    if (authContext == null) {
+      log.debug("No AuthContext found in AuthContextHolder");
+      return false;
+    }
+
+    if (!authContext.authenticated()) {
+      log.debug("User is not authenticated");
+      return false;
+    }
+
+    boolean granted = metadata.permission().matches(authContext, args, beanResolver);
+    if (permissionEvents) {
+      recordPermissionCheck(metadata, granted);
+    }
+    if (!granted) {
+      log.debug("Access denied: user lacks permission {} required for method {}", metadata.permissionKey(), metadata.methodName());
+    }
+    return granted;
+  }
+
+  private static boolean isInternal(AuthContext authContext) {
+    if (authContext == null || !authContext.internal()) {
+      log.debug("Access denied: method is marked as internal but AuthContext is missing or not internal");
+      return false;
+    }
+    return true;
+  }
+
+  private static boolean isAuthenticated(AuthContext authContext) {
+    if (authContext == null) {
+      log.debug("Access denied: method requires authentication but no AuthContext found");
+      return false;
+    }
+    if (!authContext.authenticated()) {
+      log.debug("Access denied: method requires authentication but user is not authenticated");
+      return false;
+    }
+    return true;
+  }
+
+  private static void recordPermissionCheck(MethodSecurityMetadata metadata, boolean granted) {
+    Span span = Span.current();
+    if (span.isRecording()) {
+      span.addEvent("security.permission_check", Attributes.of(
+          PERMISSION, metadata.permissionKey(),
+          METHOD, metadata.methodName(),
+          GRANTED, granted));
+    }
+  }
+
+  private ForbiddenException denied() {
+    return stacklessDenials
+        ? new StacklessForbiddenException()
+        : new ForbiddenException(ExceptionConstant.FORBIDDEN_DEFAULT_CODE);
+  }
+
+}
@@ -0,0 +1,174 @@
+package com.intern.hub.starter.security.metadata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The endpoint security index written at compile time by
+ * {@link com.intern.hub.starter.security.processor.SecurityIndexProcessor}.
+ * <p>
+ * The index lists every method guarded by {@code @HasPermission}, {@code @Internal} or
+ * {@code @Authenticated} (directly or through its class) and every declared permission key. With an
+ * index, {@link SecurityMetadataRegistry} only reflects on the indexed methods of indexed classes
+ * instead of scanning every method of every bean, and the declared keys are registered in the
+ * {@link com.intern.hub.starter.security.permission.PermissionRegistry} in catalogue order, so
+ * their ids no longer depend on bean creation order. Indexes of several jars are merged.
+ * </p>
+ * <p>
+ * The file is UTF-8 text with one tab-separated entry per line:
+ * </p>
+ * <pre>
+ * permission  user:read
+ * method      com.example.UserController  getUser  java.lang.Long  permission=user:read
+ * </pre>
+ * <p>
+ * Parameter types are canonical names separated by commas. Lines starting with {@code #} are
+ * comments.
+ * </p>
+ */
+public final class SecurityIndex {
+
+  /**
+   * Location of the index on the class path.
+   */
+  public static final String LOCATION = "META-INF/security/endpoint-security.idx";
+
+  /**
+   * Entry type of a permission key line.
+   */
+  public static final String PERMISSION = "permission";
+
+  /**
+   * Entry type of a guarded method line.
+   */
+  public static final String METHOD = "method";
+
+  private final Map<String, List<IndexedMethod>> methodsByClass;
+
+  private final List<String> permissionKeys;
+
+  private SecurityIndex(Map<String, List<IndexedMethod>> methodsByClass, List<String> permissionKeys) {
+    this.methodsByClass = methodsByClass;
+    this.permissionKeys = permissionKeys;
+  }
+
+  /**
+   * Loads and merges every index on the class path.
+   *
+   * @param classLoader the class loader to search
+   * @return the index, or {@code null} if no jar or class directory contains one
+   */
+  public static SecurityIndex load(ClassLoader classLoader) {
+    Map<String, List<IndexedMethod>> methodsByClass = new HashMap<>();
+    Set<String> permissionKeys = new LinkedHashSet<>();
+    boolean found = false;
+    try {
+      Enumeration<URL> resources = classLoader.getResources(LOCATION);
+      while (resources.hasMoreElements()) {
+        found = true;
+        read(resources.nextElement(), methodsByClass, permissionKeys);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + LOCATION, e);
+    }
+    return found ? new SecurityIndex(methodsByClass, List.copyOf(permissionKeys)) : null;
+  }
+
+  private static void read(URL url, Map<String, List<IndexedMethod>> methodsByClass, Set<String> permissionKeys)
+      throws IOException {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank() || line.startsWith("#")) {
+          continue;
+        }
+        String[] fields = line.split("\t", -1);
+        if (fields[0].equals(PERMISSION) && fields.length >= 2) {
+          permissionKeys.add(fields[1]);
+        } else if (fields[0].equals(METHOD) && fields.length >= 4) {
+          List<String> parameterTypes = fields[3].isEmpty() ? List.of() : List.of(fields[3].split(","));
+          methodsByClass.computeIfAbsent(fields[1], name -> new ArrayList<>())
+              .add(new IndexedMethod(fields[2], parameterTypes, fields.length > 4 ? fields[4] : ""));
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns whether the class declares indexed methods.
+   *
+   * @param type the class
+   * @return {@code true} if the class is in the index
+   */
+  public boolean contains(Class<?> type) {
+    return methodsByClass.containsKey(type.getName());
+  }
+
+  /**
+   * Returns whether the method is indexed.
+   *
+   * @param method the method
+   * @return {@code true} if the method is in the index
+   */
+  public boolean contains(Method method) {
+    List<IndexedMethod> methods = methodsByClass.get(method.getDeclaringClass().getName());
+    if (methods == null) {
+      return false;
+    }
+    for (IndexedMethod indexed : methods) {
+      if (indexed.matches(method)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns every declared permission key, in catalogue order.
+   *
+   * @return the keys
+   */
+  public List<String> permissionKeys() {
+    return permissionKeys;
+  }
+
+  /**
+   * Returns the number of indexed methods.
+   *
+   * @return the method count
+   */
+  public int size() {
+    return methodsByClass.values().stream().mapToInt(List::size).sum();
+  }
+
+  /**
+   * A guarded method of the index.
+   *
+   * @param name           the method name
+   * @param parameterTypes the canonical names of the erased parameter types
+   * @param requirement    a readable form of the requirement, for tooling
+   */
+  public record IndexedMethod(String name, List<String> parameterTypes, String requirement) {
+
+    boolean matches(Method method) {
+      if (!name.equals(method.getName()) || parameterTypes.size() != method.getParameterCount()) {
+        return false;
+      }
+      Class<?>[] types = method.getParameterTypes();
+      for (int i = 0; i < types.length; i++) {
+        if (!parameterTypes.get(i).equals(types[i].getCanonicalName())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+  }
+
+}
@@ -0,0 +1,183 @@
+package com.intern.hub.starter.security.metadata;
+
+import com.intern.hub.starter.security.annotation.Authenticated;
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.annotation.HasPermissions;
+import com.intern.hub.starter.security.annotation.Internal;
+import com.intern.hub.starter.security.permission.PermissionRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of precomputed {@link MethodSecurityMetadata}, keyed by method.
+ * <p>
+ * The table is filled at startup by
+ * {@link com.intern.hub.starter.security.autoconfig.SecurityMetadataPostProcessor}, which scans
+ * every bean class once. Methods that were not seen during the scan (for example interface methods
+ * of JDK proxies) are resolved on first lookup and cached, so reflection happens at most once per
+ * method.
+ * </p>
+ * <p>
+ * With a {@link SecurityIndex}, the scan only reflects on the indexed methods of the classes in the
+ * index. Other bean classes of the application packages (a module compiled without the annotation
+ * processor) are still scanned by reflection, with a warning, so the index never hides a guarded
+ * method from startup checks; bean classes outside those packages are skipped. A guarded method
+ * that only turns up on its first call also logs a warning.
+ * </p>
+ *
+ * @see MethodSecurityMetadata
+ */
+@Slf4j
+public class SecurityMetadataRegistry {
+
+  private static final Set<Class<? extends Annotation>> SECURITY_ANNOTATIONS =
+      Set.of(HasPermission.class, HasPermissions.class, Internal.class, Authenticated.class);
+
+  private final Map<Method, MethodSecurityMetadata> metadata = new ConcurrentHashMap<>();
+
+  private final SecurityIndex index;
+
+  private final String[] fallbackPackages;
+
+  private final Set<Class<?>> unindexed = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Creates a registry that scans bean classes by reflection.
+   */
+  public SecurityMetadataRegistry() {
+    this(null, List.of());
+  }
+
+  /**
+   * Creates a registry that resolves the methods listed in an index and registers the declared
+   * permission keys of the index in catalogue order.
+   *
+   * @param index            the compile-time index, or {@code null} to scan bean classes by
+   *                         reflection
+   * @param fallbackPackages packages whose bean classes are scanned by reflection when the index
+   *                         does not list them, usually the auto-configuration packages of the
+   *                         application
+   */
+  public SecurityMetadataRegistry(SecurityIndex index, Collection<String> fallbackPackages) {
+    this.index = index;
+    this.fallbackPackages = fallbackPackages.stream().map(name -> name + ".").toArray(String[]::new);
+    if (index != null) {
+      index.permissionKeys().forEach(PermissionRegistry::register);
+    }
+  }
+
+  /**
+   * Resolves and stores the metadata of every guarded method declared by the given class or its
+   * superclasses.
+   *
+   * @param userClass the user class of a bean (not a proxy class)
+   */
+  public void register(Class<?> userClass) {
+    if (index == null) {
+      registerReflectively(userClass);
+      return;
+    }
+    boolean indexed = false;
+    for (Class<?> type = userClass; type != null && type != Object.class; type = type.getSuperclass()) {
+      indexed |= registerDeclared(type);
+    }
+    for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(userClass)) {
+      indexed |= registerDeclared(type);
+    }
+    if (!indexed && inFallbackPackage(userClass) && registerReflectively(userClass)) {
+      warnUnindexed(userClass);
+    }
+  }
+
+  private boolean registerReflectively(Class<?> userClass) {
+    if (!AnnotationUtils.isCandidateClass(userClass, SECURITY_ANNOTATIONS)) {
+      return false;
+    }
+    boolean[] guarded = new boolean[1];
+    ReflectionUtils.doWithMethods(userClass, method -> {
+      MethodSecurityMetadata resolved = MethodSecurityMetadata.resolve(method);
+      if (!resolved.isEmpty()) {
+        metadata.putIfAbsent(method, resolved);
+        guarded[0] = true;
+      }
+    });
+    return guarded[0];
+  }
+
+  private boolean inFallbackPackage(Class<?> type) {
+    String name = type.getName();
+    for (String prefix : fallbackPackages) {
+      if (name.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void warnUnindexed(Class<?> type) {
+    if (unindexed.add(type)) {
+      log.warn("{} has security annotations but is missing from the security index ({}); compile its module "
+          + "with the security annotation processor", type.getName(), SecurityIndex.LOCATION);
+    }
+  }
+
+  /**
+   * Registers the indexed methods declared by the given type.
+   *
+   * @return {@code true} if the index lists the type
+   */
+  private boolean registerDeclared(Class<?> type) {
+    if (!index.contains(type)) {
+      return false;
+    }
+    for (Method method : type.getDeclaredMethods()) {
+      if (index.contains(method)) {
+        MethodSecurityMetadata resolved = MethodSecurityMetadata.resolve(method);
+        if (!resolved.isEmpty()) {
+          metadata.putIfAbsent(method, resolved);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the metadata of the given method, resolving it on first access if it was not
+   * registered at startup.
+   *
+   * @param method the method
+   * @return the metadata, never {@code null}
+   */
+  public MethodSecurityMetadata get(Method method) {
+    MethodSecurityMetadata resolved = metadata.get(method);
+    return resolved != null ? resolved : metadata.computeIfAbsent(method, this::resolveLate);
+  }
+
+  private MethodSecurityMetadata resolveLate(Method method) {
+    MethodSecurityMetadata resolved = MethodSecurityMetadata.resolve(method);
+    if (index != null && !resolved.isEmpty() && !index.contains(method)) {
+      warnUnindexed(method.getDeclaringClass());
+    }
+    return resolved;
+  }
+
+  /**
+   * Returns the number of methods in the table.
+   *
+   * @return the number of methods
+   */
+  public int size() {
+    return metadata.size();
+  }
+
+}
@@ -0,0 +1,172 @@
+package com.intern.hub.starter.security.permission;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, lock-free cache from raw authorities header values to shared {@link PermissionSet}s.
+ * <p>
+ * Values are parsed with {@link PermissionSet#parse(String)} by default, or with any other parser
+ * such as {@link AuthoritiesCodec#decode(String)}; a parser that throws leaves the cache unchanged.
+ * </p>
+ * <p>
+ * Most requests carry one of a handful of distinct role combinations, so the parsed set is
+ * reused instead of being rebuilt on every request. Entries are stored in a fixed array of
+ * two-way buckets indexed by the header hash: a new value goes into the first way and pushes the
+ * previous one into the second, whose occupant is evicted. Memory is bounded by the configured
+ * size and by {@value #MAX_CACHED_VALUE_LENGTH} characters per value; longer values are parsed but
+ * not cached.
+ * </p>
+ *
+ * <p>
+ * Hit, miss and eviction counts are exposed to help size the cache.
+ * </p>
+ *
+ * @see PermissionSet#parse(String)
+ * @see AuthoritiesCodec
+ */
+public final class AuthoritiesCache {
+
+  /**
+   * Header values longer than this are never cached.
+   */
+  public static final int MAX_CACHED_VALUE_LENGTH = 16 * 1024;
+
+  private final Function<String, PermissionSet> parser;
+
+  private final Entry[] entries;
+
+  private final int bucketMask;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a cache holding at most {@code maximumSize} values.
+   *
+   * @param maximumSize the maximum number of cached values, rounded up to a power of two;
+   *                    {@code 0} disables caching
+   */
+  public AuthoritiesCache(int maximumSize) {
+    this(maximumSize, PermissionSet::parse);
+  }
+
+  /**
+   * Creates a cache holding at most {@code maximumSize} values parsed by the given parser.
+   *
+   * @param maximumSize the maximum number of cached values, rounded up to a power of two;
+   *                    {@code 0} disables caching
+   * @param parser      turns a raw value into a permission set
+   */
+  public AuthoritiesCache(int maximumSize, Function<String, PermissionSet> parser) {
+    this.parser = parser;
+    if (maximumSize <= 0) {
+      this.entries = null;
+      this.bucketMask = 0;
+      return;
+    }
+    int capacity = Math.max(2, Integer.highestOneBit(maximumSize - 1) << 1);
+    this.entries = new Entry[capacity];
+    this.bucketMask = (capacity >>> 1) - 1;
+  }
+
+  /**
+   * Returns the permission set for the given header value, parsing it on a miss.
+   *
+   * @param value the raw header value, may be {@code null}
+   * @return the shared, immutable permission set
+   */
+  public PermissionSet get(String value) {
+    if (value == null || value.isEmpty()) {
+      return PermissionSet.EMPTY;
+    }
+    if (entries == null || value.length() > MAX_CACHED_VALUE_LENGTH) {
+      return parser.apply(value);
+    }
+    int hash = value.hashCode();
+    int first = ((hash ^ (hash >>> 16)) & bucketMask) << 1;
+    Entry entry = entries[first];
+    if (entry != null && entry.hash == hash && entry.value.equals(value)) {
+      hits.increment();
+      return entry.permissions;
+    }
+    Entry second = entries[first + 1];
+    if (second != null && second.hash == hash && second.value.equals(value)) {
+      hits.increment();
+      return second.permissions;
+    }
+    misses.increment();
+    PermissionSet permissions = parser.apply(value);
+    if (entry == null) {
+      entries[first] = new Entry(value, hash, permissions);
+      return permissions;
+    }
+    if (second != null) {
+      evictions.increment();
+    }
+    entries[first + 1] = entry;
+    entries[first] = new Entry(value, hash, permissions);
+    return permissions;
+  }
+
+  /**
+   * Returns the number of lookups served from the cache.
+   *
+   * @return the hit count
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of lookups that had to parse the value.
+   *
+   * @return the miss count
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of cached values that were replaced by newer ones.
+   *
+   * @return the eviction count
+   */
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Returns the number of values currently cached.
+   *
+   * @return the number of cached values
+   */
+  public int size() {
+    if (entries == null) {
+      return 0;
+    }
+    int size = 0;
+    for (Entry entry : entries) {
+      if (entry != null) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Returns the maximum number of cached values.
+   *
+   * @return the capacity, {@code 0} if caching is disabled
+   */
+  public int capacity() {
+    return entries != null ? entries.length : 0;
+  }
+
+  private record Entry(String value, int hash, PermissionSet permissions) {
+  }
+
+}
@@ -0,0 +1,225 @@
+package com.intern.hub.starter.security.permission;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+/**
+ * Compact binary encoding of a set of permissions, used for the {@code X-Authorities-Bin} header.
+ * <p>
+ * Permissions are identified by their index in a shared, versioned catalogue (the ordered list of
+ * every permission key), which the gateway and the services must configure identically. The
+ * encoded value is base64url (no padding) of:
+ * </p>
+ * <pre>
+ * byte    format version ({@value #FORMAT_VERSION})
+ * varint  catalogue version
+ * byte    layout: 0 = bitmap, 1 = delta-encoded varint list
+ * bytes   payload
+ * </pre>
+ * <p>
+ * The bitmap layout sets bit {@code i % 8} of byte {@code i / 8} for catalogue index {@code i};
+ * the list layout stores the sorted indexes as the first index followed by the gaps between
+ * consecutive ones. {@link #encode(Collection)} picks whichever is smaller, so both dense admin
+ * roles and sparse user roles stay small.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ * </p>
+ *
+ * @see PermissionSet
+ */
+public final class AuthoritiesCodec {
+
+  /**
+   * Version of the binary layout.
+   */
+  public static final int FORMAT_VERSION = 1;
+
+  private static final int LAYOUT_BITMAP = 0;
+
+  private static final int LAYOUT_DELTA = 1;
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final int catalogVersion;
+
+  private final Map<String, Integer> indexes;
+
+  private final int[] localIds;
+
+  /**
+   * Creates a codec for the given catalogue.
+   *
+   * @param catalogVersion the catalogue version, must match between encoder and decoder
+   * @param catalog        the ordered permission keys; the position of a key is its index
+   * @throws IllegalArgumentException if the catalogue contains duplicate keys
+   * @throws IllegalStateException    if the {@link PermissionRegistry} is full
+   */
+  public AuthoritiesCodec(int catalogVersion, List<String> catalog) {
+    if (catalogVersion < 0) {
+      throw new IllegalArgumentException("Catalog version must not be negative");
+    }
+    this.catalogVersion = catalogVersion;
+    this.indexes = HashMap.newHashMap(catalog.size());
+    this.localIds = new int[catalog.size()];
+    for (int i = 0; i < catalog.size(); i++) {
+      String key = catalog.get(i);
+      if (indexes.putIfAbsent(key, i) != null) {
+        throw new IllegalArgumentException("Duplicate permission in catalog: " + key);
+      }
+      localIds[i] = PermissionRegistry.register(key);
+      if (localIds[i] == PermissionRegistry.UNKNOWN) {
+        throw new IllegalStateException("Permission registry is full, cannot register " + key);
+      }
+    }
+  }
+
+  /**
+   * Returns the catalogue version of this codec.
+   *
+   * @return the catalogue version
+   */
+  public int catalogVersion() {
+    return catalogVersion;
+  }
+
+  /**
+   * Encodes the given permission keys.
+   *
+   * @param permissions the permission keys
+   * @return the base64url encoded value
+   * @throws IllegalArgumentException if a key is not part of the catalogue
+   */
+  public String encode(Collection<String> permissions) {
+    int[] sorted = new int[permissions.size()];
+    int count = 0;
+    for (String permission : permissions) {
+      Integer index = indexes.get(permission);
+      if (index == null) {
+        throw new IllegalArgumentException("Permission is not part of the catalog: " + permission);
+      }
+      sorted[count++] = index;
+    }
+    Arrays.sort(sorted, 0, count);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream(16 + count);
+    out.write(FORMAT_VERSION);
+    writeVarint(out, catalogVersion);
+
+    int bitmapSize = count == 0 ? 0 : (sorted[count - 1] >>> 3) + 1;
+    int deltaSize = 0;
+    for (int i = 0, previous = -1; i < count; i++) {
+      if (sorted[i] != previous) {
+        deltaSize += varintSize(previous < 0 ? sorted[i] : sorted[i] - previous);
+        previous = sorted[i];
+      }
+    }
+
+    if (bitmapSize <= deltaSize) {
+      out.write(LAYOUT_BITMAP);
+      byte[] bitmap = new byte[bitmapSize];
+      for (int i = 0; i < count; i++) {
+        bitmap[sorted[i] >>> 3] |= (byte) (1 << (sorted[i] & 7));
+      }
+      out.writeBytes(bitmap);
+    } else {
+      out.write(LAYOUT_DELTA);
+      for (int i = 0, previous = -1; i < count; i++) {
+        if (sorted[i] != previous) {
+          writeVarint(out, previous < 0 ? sorted[i] : sorted[i] - previous);
+          previous = sorted[i];
+        }
+      }
+    }
+    return ENCODER.encodeToString(out.toByteArray());
+  }
+
+  /**
+   * Decodes a value produced by {@link #encode(Collection)} into a permission set.
+   *
+   * @param value the base64url encoded value
+   * @return the permission set
+   * @throws IllegalArgumentException if the value is malformed, uses another format or catalogue
+   *                                  version, or references an index outside the catalogue
+   */
+  public PermissionSet decode(String value) {
+    byte[] bytes = DECODER.decode(value);
+    int[] position = {0};
+    if (bytes.length < 3 || bytes[position[0]++] != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported authorities format");
+    }
+    int version = readVarint(bytes, position);
+    if (version != catalogVersion) {
+      throw new IllegalArgumentException(
+          "Authorities catalog version " + version + " does not match " + catalogVersion);
+    }
+    if (position[0] >= bytes.length) {
+      throw new IllegalArgumentException("Truncated authorities value");
+    }
+    int layout = bytes[position[0]++];
+    PermissionSet.Builder builder = PermissionSet.builder();
+    if (layout == LAYOUT_BITMAP) {
+      for (int i = position[0]; i < bytes.length; i++) {
+        int bits = bytes[i] & 0xFF;
+        while (bits != 0) {
+          int bit = Integer.numberOfTrailingZeros(bits);
+          bits &= bits - 1;
+          builder.add(localId(((i - position[0]) << 3) + bit));
+        }
+      }
+    } else if (layout == LAYOUT_DELTA) {
+      int index = -1;
+      while (position[0] < bytes.length) {
+        int delta = readVarint(bytes, position);
+        index = index < 0 ? delta : index + delta;
+        builder.add(localId(index));
+      }
+    } else {
+      throw new IllegalArgumentException("Unknown authorities layout " + layout);
+    }
+    return builder.build();
+  }
+
+  private int localId(int index) {
+    if (index < 0 || index >= localIds.length) {
+      throw new IllegalArgumentException("Permission index " + index + " is outside the catalog");
+    }
+    return localIds[index];
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  private static int varintSize(int value) {
+    int size = 1;
+    while ((value & ~0x7F) != 0) {
+      size++;
+      value >>>= 7;
+    }
+    return size;
+  }
+
+  private static int readVarint(byte[] bytes, int[] position) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      if (position[0] >= bytes.length) {
+        throw new IllegalArgumentException("Truncated authorities value");
+      }
+      byte b = bytes[position[0]++];
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint in authorities value");
+  }
+
+}
@@ -0,0 +1,68 @@
+package com.intern.hub.starter.security.permission;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PermissionProvider} backed by a map, for tests and local development.
+ * <p>
+ * Users without an entry have no permissions. {@link #loadCount()} tells tests how often the
+ * provider was actually called, e.g. to verify caching.
+ * </p>
+ *
+ * <pre>{@code
+ * @Bean
+ * PermissionProvider permissionProvider() {
+ *   return new InMemoryPermissionProvider()
+ *       .grant(1L, "user:read", "user:update")
+ *       .grant(2L, "user:*");
+ * }
+ * }</pre>
+ */
+public class InMemoryPermissionProvider implements PermissionProvider {
+
+  private final Map<Long, Set<String>> permissions = new ConcurrentHashMap<>();
+
+  private final LongAdder loads = new LongAdder();
+
+  @Override
+  public Set<String> loadPermissions(long userId, String version) {
+    loads.increment();
+    return permissions.getOrDefault(userId, Set.of());
+  }
+
+  /**
+   * Replaces the permissions of a user.
+   *
+   * @param userId the user id
+   * @param keys   the permission keys or patterns
+   * @return this provider
+   */
+  public InMemoryPermissionProvider grant(long userId, String... keys) {
+    permissions.put(userId, Set.of(keys));
+    return this;
+  }
+
+  /**
+   * Removes every permission of a user.
+   *
+   * @param userId the user id
+   * @return this provider
+   */
+  public InMemoryPermissionProvider revoke(long userId) {
+    permissions.remove(userId);
+    return this;
+  }
+
+  /**
+   * Returns how often {@link #loadPermissions} was called.
+   *
+   * @return the load count
+   */
+  public long loadCount() {
+    return loads.sum();
+  }
+
+}
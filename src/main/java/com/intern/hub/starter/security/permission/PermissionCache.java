@@ -0,0 +1,272 @@
+package com.intern.hub.starter.security.permission;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded near-cache of the permissions returned by a {@link PermissionProvider}.
+ * <p>
+ * Every user maps to a future of its loaded {@link PermissionSet}, which gives three guarantees:
+ * </p>
+ * <ul>
+ * <li>Single flight: concurrent requests of a user that is not cached wait for one load instead
+ * of all calling the provider.</li>
+ * <li>Refresh ahead: a hit on an entry older than {@code refreshAfter} is still served, and one
+ * background load replaces the entry, so active users never wait for the provider.</li>
+ * <li>Expiry: an entry older than {@code ttl}, or loaded for another permission version than the
+ * request carries, is loaded again before it is used.</li>
+ * </ul>
+ * <p>
+ * When the cache is full, expired entries are swept first, then arbitrary entries are evicted
+ * down to 90% of the capacity, so the sweep cost is amortized over many inserts. A failed load is
+ * not cached and is rethrown to every request waiting for it; a failed refresh keeps the current
+ * entry until it expires.
+ * </p>
+ */
+@Slf4j
+public class PermissionCache {
+
+  private static final String REFRESH_THREAD_NAME = "security-permission-refresh";
+
+  private final PermissionProvider provider;
+
+  private final int capacity;
+
+  private final long ttlNanos;
+
+  private final long refreshNanos;
+
+  private final Executor refreshExecutor;
+
+  private final ConcurrentHashMap<Long, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Creates a cache that refreshes entries on virtual threads.
+   *
+   * @param provider     the source of permissions
+   * @param capacity     the maximum number of cached users
+   * @param ttl          the age after which an entry must be loaded again before use
+   * @param refreshAfter the age after which a hit triggers a background refresh; not less than
+   *                     {@code ttl} disables refresh ahead
+   */
+  public PermissionCache(PermissionProvider provider, int capacity, Duration ttl, Duration refreshAfter) {
+    this(provider, capacity, ttl, refreshAfter,
+        task -> Thread.ofVirtual().name(REFRESH_THREAD_NAME).start(task));
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param provider        the source of permissions
+   * @param capacity        the maximum number of cached users
+   * @param ttl             the age after which an entry must be loaded again before use
+   * @param refreshAfter    the age after which a hit triggers a background refresh
+   * @param refreshExecutor runs background refreshes
+   */
+  public PermissionCache(PermissionProvider provider, int capacity, Duration ttl, Duration refreshAfter,
+                         Executor refreshExecutor) {
+    this.provider = provider;
+    this.capacity = Math.max(1, capacity);
+    this.ttlNanos = ttl.toNanos();
+    this.refreshNanos = Math.min(refreshAfter.toNanos(), ttlNanos);
+    this.refreshExecutor = refreshExecutor;
+  }
+
+  /**
+   * Returns the permissions of a user, loading them if needed.
+   *
+   * @param userId  the user id
+   * @param version the permission version of the request, or {@code null} to accept any cached
+   *                version
+   * @return the permissions
+   * @throws RuntimeException whatever the provider threw if the permissions had to be loaded
+   */
+  public PermissionSet get(long userId, String version) {
+    while (true) {
+      CompletableFuture<Entry> current = entries.get(userId);
+      if (current == null) {
+        CompletableFuture<Entry> loading = new CompletableFuture<>();
+        evictIfFull();
+        if (entries.putIfAbsent(userId, loading) == null) {
+          misses.increment();
+          return load(userId, version, loading);
+        }
+        continue;
+      }
+      if (!current.isDone()) {
+        hits.increment();
+        return await(current);
+      }
+      if (current.isCompletedExceptionally()) {
+        entries.remove(userId, current);
+        continue;
+      }
+      Entry entry = current.resultNow();
+      long now = System.nanoTime();
+      if (entry.usableFor(version, now)) {
+        hits.increment();
+        if (now - entry.loadedAt >= refreshNanos) {
+          refreshAhead(userId, current, entry);
+        }
+        return entry.permissions;
+      }
+      CompletableFuture<Entry> loading = new CompletableFuture<>();
+      if (entries.replace(userId, current, loading)) {
+        misses.increment();
+        return load(userId, version, loading);
+      }
+    }
+  }
+
+  /**
+   * Checks whether {@link #get} would answer from the cache without calling the provider, which
+   * lets non-blocking callers skip a thread hop for cached users.
+   *
+   * @param userId  the user id
+   * @param version the permission version of the request, or {@code null}
+   * @return {@code true} if a usable entry is cached
+   */
+  public boolean isCached(long userId, String version) {
+    CompletableFuture<Entry> current = entries.get(userId);
+    return current != null
+        && current.isDone()
+        && !current.isCompletedExceptionally()
+        && current.resultNow().usableFor(version, System.nanoTime());
+  }
+
+  /**
+   * Removes the cached permissions of a user, so the next request loads them again.
+   *
+   * @param userId the user id
+   */
+  public void invalidate(long userId) {
+    entries.remove(userId);
+  }
+
+  /**
+   * Removes every cached entry.
+   */
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  /**
+   * @return the number of cached users, including loads in progress
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return the number of requests answered without their own provider call
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of requests that called the provider
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  private PermissionSet load(long userId, String version, CompletableFuture<Entry> loading) {
+    try {
+      Entry entry = new Entry(PermissionSet.copyOf(provider.loadPermissions(userId, version)), version, System.nanoTime());
+      loading.complete(entry);
+      return entry.permissions;
+    } catch (RuntimeException e) {
+      entries.remove(userId, loading);
+      loading.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private static PermissionSet await(CompletableFuture<Entry> loading) {
+    try {
+      return loading.join().permissions;
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private void refreshAhead(long userId, CompletableFuture<Entry> current, Entry entry) {
+    if (!entry.refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      refreshExecutor.execute(() -> {
+        try {
+          Entry refreshed = new Entry(
+              PermissionSet.copyOf(provider.loadPermissions(userId, entry.version)), entry.version, System.nanoTime());
+          entries.replace(userId, current, CompletableFuture.completedFuture(refreshed));
+        } catch (RuntimeException e) {
+          entry.refreshing.set(false);
+          log.warn("Could not refresh the permissions of user {}, keeping the cached ones", userId, e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      entry.refreshing.set(false);
+    }
+  }
+
+  private void evictIfFull() {
+    if (entries.size() < capacity) {
+      return;
+    }
+    long now = System.nanoTime();
+    entries.entrySet().removeIf(e -> {
+      CompletableFuture<Entry> future = e.getValue();
+      return future.isDone() && !future.isCompletedExceptionally() && now - future.resultNow().loadedAt >= ttlNanos;
+    });
+    int target = capacity - capacity / 10;
+    Iterator<Map.Entry<Long, CompletableFuture<Entry>>> it = entries.entrySet().iterator();
+    while (entries.size() >= target && it.hasNext()) {
+      if (it.next().getValue().isDone()) {
+        it.remove();
+      }
+    }
+  }
+
+  private final class Entry {
+
+    private final PermissionSet permissions;
+
+    private final String version;
+
+    private final long loadedAt;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private Entry(PermissionSet permissions, String version, long loadedAt) {
+      this.permissions = permissions;
+      this.version = version;
+      this.loadedAt = loadedAt;
+    }
+
+    private boolean usableFor(String requestedVersion, long now) {
+      return now - loadedAt < ttlNanos && (requestedVersion == null || Objects.equals(requestedVersion, version));
+    }
+
+  }
+
+}
@@ -0,0 +1,204 @@
+package com.intern.hub.starter.security.permission;
+
+import com.intern.hub.starter.security.context.AuthContext;
+import com.intern.hub.starter.security.context.AuthContextHolder;
+import com.intern.hub.starter.security.entity.Action;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Evaluates many permissions of one {@link AuthContext} at once.
+ * <p>
+ * Meant for code that filters collections by permission, where checking
+ * {@code permissions().contains(resource + ":" + action)} per item would build a key string for
+ * every element. {@link #filter} resolves every distinct resource once, to a
+ * {@link PermissionRegistry} id and a single bit test on the {@link PermissionSet}, and reuses the
+ * decision for all items of that resource. Items of the same resource in a row, the common case
+ * for sorted or grouped results, are decided without even a map lookup.
+ * </p>
+ * <p>
+ * The same rules as {@code @HasPermission} apply: an unauthenticated or missing context holds no
+ * permissions. Conditions of {@code @HasPermission} are not evaluated.
+ * </p>
+ *
+ * <pre>{@code
+ * PermissionEvaluator permissions = PermissionEvaluator.current();
+ * List<Document> editable = permissions.filter(documents, Document::getResource, Action.UPDATE);
+ * }</pre>
+ */
+public final class PermissionEvaluator {
+
+  private static final PermissionEvaluator NONE = new PermissionEvaluator(PermissionSet.EMPTY);
+
+  private final PermissionSet permissions;
+
+  private PermissionEvaluator(PermissionSet permissions) {
+    this.permissions = permissions;
+  }
+
+  /**
+   * Returns an evaluator for the given context.
+   *
+   * @param authContext the context, may be {@code null}
+   * @return the evaluator
+   */
+  public static PermissionEvaluator of(AuthContext authContext) {
+    if (authContext == null || !authContext.authenticated()) {
+      return NONE;
+    }
+    return new PermissionEvaluator(authContext.permissionSet());
+  }
+
+  /**
+   * Returns an evaluator for the context bound by {@link AuthContextHolder}.
+   *
+   * @return the evaluator, granting nothing if no context is bound
+   */
+  public static PermissionEvaluator current() {
+    return of(AuthContextHolder.get().orElse(null));
+  }
+
+  /**
+   * Checks a single permission.
+   *
+   * @param resource the resource
+   * @param action   the action
+   * @return {@code true} if the permission is granted
+   */
+  public boolean can(String resource, Action action) {
+    return has(PermissionRegistry.key(resource, action));
+  }
+
+  /**
+   * Checks whether every given action is granted on the resource.
+   *
+   * @param resource the resource
+   * @param actions  the actions
+   * @return {@code true} if all actions are granted, also if none are given
+   */
+  public boolean canAll(String resource, Action... actions) {
+    for (Action action : actions) {
+      if (!can(resource, action)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether any of the given actions is granted on the resource.
+   *
+   * @param resource the resource
+   * @param actions  the actions
+   * @return {@code true} if at least one action is granted
+   */
+  public boolean canAny(String resource, Action... actions) {
+    for (Action action : actions) {
+      if (can(resource, action)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether every given permission key is granted.
+   *
+   * @param keys the "{@code resource:action}" keys
+   * @return {@code true} if all keys are granted, also if none are given
+   */
+  public boolean canAll(Collection<String> keys) {
+    for (String key : keys) {
+      if (!has(key)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether any of the given permission keys is granted.
+   *
+   * @param keys the "{@code resource:action}" keys
+   * @return {@code true} if at least one key is granted
+   */
+  public boolean canAny(Collection<String> keys) {
+    for (String key : keys) {
+      if (has(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the items whose resource allows the given action, in iteration order.
+   *
+   * @param items      the items
+   * @param resourceOf returns the resource of an item, never {@code null}
+   * @param action     the required action
+   * @param <T>        the item type
+   * @return a new list of the permitted items
+   */
+  public <T> List<T> filter(Collection<T> items, Function<? super T, String> resourceOf, Action action) {
+    List<T> permitted = new ArrayList<>();
+    if (permissions.isEmpty()) {
+      return permitted;
+    }
+    Map<String, Boolean> decisions = new HashMap<>();
+    String lastResource = null;
+    boolean lastDecision = false;
+    for (T item : items) {
+      String resource = resourceOf.apply(item);
+      if (resource != lastResource) {
+        Boolean decision = decisions.get(resource);
+        if (decision == null) {
+          decision = can(resource, action);
+          decisions.put(resource, decision);
+        }
+        lastResource = resource;
+        lastDecision = decision;
+      }
+      if (lastDecision) {
+        permitted.add(item);
+      }
+    }
+    return permitted;
+  }
+
+  /**
+   * Parallel variant of {@link #filter} on the common fork-join pool.
+   * <p>
+   * Only worth it for very large inputs, in the order of 100,000 items or expensive
+   * {@code resourceOf} functions; below that, the coordination costs more than the checks.
+   * Decisions are shared between workers, so each distinct resource is still resolved about once.
+   * </p>
+   *
+   * @param items      the items
+   * @param resourceOf returns the resource of an item, never {@code null}
+   * @param action     the required action
+   * @param <T>        the item type
+   * @return an unmodifiable list of the permitted items, in encounter order
+   */
+  public <T> List<T> parallelFilter(Collection<T> items, Function<? super T, String> resourceOf, Action action) {
+    if (permissions.isEmpty()) {
+      return List.of();
+    }
+    Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+    return items.parallelStream()
+        .filter(item -> decisions.computeIfAbsent(resourceOf.apply(item), resource -> can(resource, action)))
+        .toList();
+  }
+
+  private boolean has(String key) {
+    int id = PermissionRegistry.idOf(key);
+    return id != PermissionRegistry.UNKNOWN ? permissions.contains(id) : permissions.contains(key);
+  }
+
+}
@@ -0,0 +1,144 @@
+package com.intern.hub.starter.security.permission;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wildcard permission grants, expanded into {@link PermissionRegistry} ids.
+ * <p>
+ * A grant is a pattern when its resource or its action is a wildcard:
+ * </p>
+ * <ul>
+ * <li>{@code user:*} - every action on {@code user}</li>
+ * <li>{@code *:read} - {@code read} on every resource</li>
+ * <li>{@code project.*:update} - {@code update} on every resource below {@code project} in the
+ * dot-separated hierarchy ({@code project.task}, {@code project.task.comment}), but not on
+ * {@code project} itself</li>
+ * <li>{@code project.*:*} and {@code *:*} - combinations of the above</li>
+ * </ul>
+ * <p>
+ * A pattern is matched against every registered key, that is every permission declared through
+ * {@code @HasPermission} (registered for all {@link com.intern.hub.starter.security.entity.Action}s
+ * of its resource), the security index or the permission catalogue. A {@link PermissionSet} keeps
+ * its patterns and OR-s their expansion into its bitset, stamped with
+ * {@link PermissionRegistry#size()}; once keys are registered later, for example by a lazily
+ * resolved method, the set expands its patterns again before the next check. Checks therefore
+ * stay a single bit test however many patterns a user has. Expansions are cached per pattern and
+ * only the keys registered since the last expansion are matched again.
+ * </p>
+ */
+public final class PermissionPattern {
+
+  /**
+   * The wildcard segment.
+   */
+  public static final String WILDCARD = "*";
+
+  private static final String DESCENDANTS = ".*";
+
+  private static final int MAX_CACHED_PATTERNS = 1024;
+
+  private static final long[] NONE = new long[0];
+
+  private static final ConcurrentHashMap<String, Expansion> CACHE = new ConcurrentHashMap<>();
+
+  private PermissionPattern() {
+  }
+
+  /**
+   * Whether the key is a wildcard grant rather than a concrete permission.
+   *
+   * @param key the permission key
+   * @return {@code true} if the key contains a wildcard
+   */
+  public static boolean isPattern(String key) {
+    return key.indexOf('*') >= 0;
+  }
+
+  /**
+   * Checks whether a concrete permission key matches the pattern.
+   *
+   * @param pattern the pattern
+   * @param key     the concrete "{@code resource:action}" key
+   * @return {@code true} if the pattern grants the key
+   */
+  public static boolean matches(String pattern, String key) {
+    int patternColon = pattern.indexOf(':');
+    int keyColon = key.indexOf(':');
+    if (patternColon < 0 || keyColon < 0) {
+      return false;
+    }
+    return matchesAction(pattern, patternColon, key, keyColon)
+        && matchesResource(pattern, patternColon, key, keyColon);
+  }
+
+  private static boolean matchesAction(String pattern, int patternColon, String key, int keyColon) {
+    int length = pattern.length() - patternColon - 1;
+    if (length == 1 && pattern.charAt(patternColon + 1) == '*') {
+      return true;
+    }
+    return length == key.length() - keyColon - 1
+        && pattern.regionMatches(patternColon + 1, key, keyColon + 1, length);
+  }
+
+  private static boolean matchesResource(String pattern, int patternColon, String key, int keyColon) {
+    if (patternColon == 1 && pattern.charAt(0) == '*') {
+      return true;
+    }
+    if (pattern.startsWith(DESCENDANTS, patternColon - DESCENDANTS.length())) {
+      // "project.*" matches "project.<anything>", the prefix includes the dot
+      int prefix = patternColon - 1;
+      return keyColon > prefix && key.regionMatches(0, pattern, 0, prefix);
+    }
+    return patternColon == keyColon && pattern.regionMatches(0, key, 0, keyColon);
+  }
+
+  /**
+   * Returns the bitset of the registered permission ids granted by the pattern.
+   * <p>
+   * The returned array is shared and must not be modified.
+   * </p>
+   *
+   * @param pattern the pattern
+   * @return the granted ids as a bitset in {@link PermissionSet} layout
+   */
+  static long[] expand(String pattern) {
+    int registered = PermissionRegistry.size();
+    Expansion expansion = CACHE.get(pattern);
+    if (expansion != null && expansion.registered == registered) {
+      return expansion.words;
+    }
+    long[] words = expansion != null ? expansion.words : NONE;
+    int from = expansion != null ? expansion.registered : 0;
+    long[] extended = null;
+    for (int id = from; id < registered; id++) {
+      String key;
+      try {
+        key = PermissionRegistry.keyOf(id);
+      } catch (IndexOutOfBoundsException e) {
+        // registered concurrently and not yet published, picked up by the next expansion
+        registered = id;
+        break;
+      }
+      if (matches(pattern, key)) {
+        if (extended == null) {
+          extended = words.clone();
+        }
+        int index = id >>> 6;
+        if (index >= extended.length) {
+          extended = Arrays.copyOf(extended, index + 1);
+        }
+        extended[index] |= 1L << id;
+      }
+    }
+    Expansion updated = new Expansion(extended != null ? extended : words, registered);
+    if (expansion != null || CACHE.size() < MAX_CACHED_PATTERNS) {
+      CACHE.put(pattern, updated);
+    }
+    return updated.words;
+  }
+
+  private record Expansion(long[] words, int registered) {
+  }
+
+}
@@ -0,0 +1,31 @@
+package com.intern.hub.starter.security.permission;
+
+import java.util.Set;
+
+/**
+ * Resolves the permissions of a user inside the service instead of trusting the
+ * {@code X-Authorities} header.
+ * <p>
+ * When a {@code PermissionProvider} bean exists, the security filters look the permissions of
+ * every authenticated request up by its {@code X-UserId} through a {@link PermissionCache}, and the
+ * authorities headers are ignored. Implementations typically query a permission service or the
+ * database; they are called on a miss or refresh only, possibly concurrently for different users.
+ * </p>
+ *
+ * @see PermissionCache
+ * @see InMemoryPermissionProvider
+ */
+@FunctionalInterface
+public interface PermissionProvider {
+
+  /**
+   * Loads the permissions of a user.
+   *
+   * @param userId  the user id from {@code X-UserId}
+   * @param version the permission version sent by the gateway, or {@code null} if none was sent;
+   *                a new version makes the cache load the permissions again
+   * @return the granted permission keys or patterns, never {@code null}
+   */
+  Set<String> loadPermissions(long userId, String version);
+
+}
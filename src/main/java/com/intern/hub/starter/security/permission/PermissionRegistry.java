@@ -0,0 +1,214 @@
+package com.intern.hub.starter.security.permission;
+
+import com.intern.hub.starter.security.entity.Action;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry that assigns a dense integer id to every known permission key.
+ * <p>
+ * Keys have the format "{@code resource:action}". Ids are assigned in registration order starting
+ * at {@code 0} and never change or get reused, which makes them suitable as bit indexes in a
+ * {@link PermissionSet}. Only declared keys are registered: those of
+ * {@link com.intern.hub.starter.security.annotation.HasPermission} requirements, the security
+ * index and the {@link AuthoritiesCodec} catalogue. Keys that only appear in request headers are
+ * kept as strings by {@link PermissionSet}, so untrusted input cannot exhaust the ids.
+ * </p>
+ *
+ * <p>
+ * Lookups are lock-free. Registration of a new key takes a short lock and happens a bounded
+ * number of times per process (once per declared permission). Besides the
+ * {@link String} lookup, {@link #idOf(String, int, int)} resolves a key directly from a region of
+ * a larger string (such as a raw header value) through an open-addressing table, without
+ * allocating a substring.
+ * </p>
+ *
+ * @see PermissionSet
+ */
+public final class PermissionRegistry {
+
+  /**
+   * Id returned for keys that are not registered.
+   */
+  public static final int UNKNOWN = -1;
+
+  /**
+   * Upper bound on the number of registered keys. Keys beyond this limit are not assigned an id
+   * and are kept as plain strings by {@link PermissionSet}.
+   */
+  public static final int MAX_PERMISSIONS = 1 << 16;
+
+  private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+
+  private static final Object LOCK = new Object();
+
+  private static volatile String[] keys = new String[64];
+
+  private static volatile int size;
+
+  private static volatile Entry[] table = new Entry[128];
+
+  private PermissionRegistry() {
+  }
+
+  /**
+   * Builds the permission key for the given resource and action.
+   *
+   * @param resource the resource name
+   * @param action   the action
+   * @return the key in the format "{@code resource:action}"
+   */
+  public static String key(String resource, Action action) {
+    return resource + ":" + action.value;
+  }
+
+  /**
+   * Returns the id of the given key, registering it if it is not known yet.
+   *
+   * @param key the permission key
+   * @return the id of the key, or {@link #UNKNOWN} if the registry is full
+   */
+  public static int register(String key) {
+    Integer id = IDS.get(key);
+    if (id != null) {
+      return id;
+    }
+    synchronized (LOCK) {
+      id = IDS.get(key);
+      if (id != null) {
+        return id;
+      }
+      if (size >= MAX_PERMISSIONS) {
+        return UNKNOWN;
+      }
+      int next = size;
+      String[] current = keys;
+      if (next == current.length) {
+        current = Arrays.copyOf(current, current.length << 1);
+      }
+      current[next] = key;
+      keys = current;
+      IDS.put(key, next);
+      addToTable(key, next);
+      // published last: a reader that sees the new size can look the key up by name and id
+      size = next + 1;
+      return next;
+    }
+  }
+
+  /**
+   * Registers the key of every {@link Action} on the given resource, so that wildcard grants
+   * such as {@code resource:*} or {@code *:delete} can be expanded to permissions that are not
+   * declared on any method yet.
+   *
+   * @param resource the resource name
+   */
+  public static void registerResource(String resource) {
+    for (Action action : Action.values()) {
+      register(key(resource, action));
+    }
+  }
+
+  /**
+   * Returns the id of the given key without registering it.
+   *
+   * @param key the permission key
+   * @return the id of the key, or {@link #UNKNOWN} if the key is not registered
+   */
+  public static int idOf(String key) {
+    Integer id = IDS.get(key);
+    return id != null ? id : UNKNOWN;
+  }
+
+  /**
+   * Returns the id of the key found at {@code source[start, end)} without registering it and
+   * without allocating.
+   *
+   * @param source the string containing the key
+   * @param start  the start index of the key, inclusive
+   * @param end    the end index of the key, exclusive
+   * @return the id of the key, or {@link #UNKNOWN} if the key is not registered
+   */
+  public static int idOf(String source, int start, int end) {
+    int length = end - start;
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + source.charAt(i);
+    }
+    Entry[] current = table;
+    int mask = current.length - 1;
+    for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+      Entry entry = current[slot];
+      if (entry == null) {
+        return UNKNOWN;
+      }
+      if (entry.hash == hash
+          && entry.key.length() == length
+          && entry.key.regionMatches(0, source, start, length)) {
+        return entry.id;
+      }
+    }
+  }
+
+  /**
+   * Returns the key registered under the given id.
+   *
+   * @param id the permission id
+   * @return the permission key
+   * @throws IndexOutOfBoundsException if no key is registered under the id
+   */
+  public static String keyOf(int id) {
+    String[] current = keys;
+    String key = id < current.length ? current[id] : null;
+    if (key == null) {
+      throw new IndexOutOfBoundsException("No permission registered with id " + id);
+    }
+    return key;
+  }
+
+  private static void addToTable(String key, int id) {
+    Entry[] current = table;
+    if (((id + 1) << 1) > current.length) {
+      Entry[] resized = new Entry[current.length << 1];
+      for (Entry entry : current) {
+        if (entry != null) {
+          insert(resized, entry);
+        }
+      }
+      insert(resized, new Entry(key, key.hashCode(), id));
+      table = resized;
+    } else {
+      // readers racing with this store either see the complete entry or fall back to IDS
+      insert(current, new Entry(key, key.hashCode(), id));
+    }
+  }
+
+  private static void insert(Entry[] entries, Entry entry) {
+    int mask = entries.length - 1;
+    int slot = spread(entry.hash) & mask;
+    while (entries[slot] != null) {
+      slot = (slot + 1) & mask;
+    }
+    entries[slot] = entry;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Returns the number of registered keys, which is also the next id to be assigned. The value
+   * only grows, so {@link PermissionSet} and {@link PermissionPattern} use it to detect that keys
+   * were registered since they last resolved their grants.
+   *
+   * @return the number of registered keys
+   */
+  public static int size() {
+    return size;
+  }
+
+  private record Entry(String key, int hash, int id) {
+  }
+
+}
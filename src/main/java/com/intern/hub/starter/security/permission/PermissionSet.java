@@ -0,0 +1,393 @@
+package com.intern.hub.starter.security.permission;
+
+import java.util.*;
+
+/**
+ * Immutable set of permission keys backed by a bitset of {@link PermissionRegistry} ids.
+ * <p>
+ * Checking a permission by id is a single word lookup and AND, see {@link #contains(int)}.
+ * The class still implements {@link Set}{@code <String>} so existing code that calls
+ * {@code authContext.permissions().contains("user:read")} keeps working; the string view is
+ * resolved lazily through the registry and never materialised as a hash set.
+ * </p>
+ *
+ * <p>
+ * Keys that have no id when the set is built are kept in a small side set, and wildcard grants
+ * such as {@code user:*} are kept as patterns. Both are resolved against the registry on use:
+ * the set caches their ids together with the registry size they were resolved at and resolves
+ * them again once keys have been registered since, so a set cached by
+ * {@link AuthoritiesCache} or {@link PermissionCache} also grants permissions declared after it
+ * was built. Sets without such entries check their bitset directly.
+ * </p>
+ *
+ * @see PermissionRegistry
+ */
+public final class PermissionSet extends AbstractSet<String> {
+
+  /**
+   * The empty permission set.
+   */
+  public static final PermissionSet EMPTY = new PermissionSet(new long[0], Set.of(), null, 0);
+
+  private final long[] words;
+
+  private final Set<String> unregistered;
+
+  private final String[] patterns;
+
+  private final int size;
+
+  private final boolean deferred;
+
+  private volatile Resolution resolution;
+
+  private PermissionSet(long[] words, Set<String> unregistered, String[] patterns, int size) {
+    this.words = words;
+    this.unregistered = unregistered;
+    this.patterns = patterns;
+    this.size = size;
+    this.deferred = patterns != null || !unregistered.isEmpty();
+  }
+
+  /**
+   * Returns a permission set containing the given keys.
+   * <p>
+   * Returns the argument itself if it already is a {@link PermissionSet}.
+   * </p>
+   *
+   * @param keys the permission keys, may be {@code null}
+   * @return the permission set
+   */
+  public static PermissionSet copyOf(Collection<String> keys) {
+    if (keys instanceof PermissionSet permissionSet) {
+      return permissionSet;
+    }
+    if (keys == null || keys.isEmpty()) {
+      return EMPTY;
+    }
+    Builder builder = builder();
+    for (String key : keys) {
+      builder.add(key);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Parses a comma-separated list of permission keys, such as the {@code X-Authorities} header.
+   * <p>
+   * The value is scanned once: whitespace around each key is trimmed, empty entries are skipped and
+   * duplicates collapse into the same bit. Registered keys are resolved in place through
+   * {@link PermissionRegistry#idOf(String, int, int)}, so no substring is created for them; other
+   * keys are kept as strings and not registered.
+   * </p>
+   *
+   * @param value the comma-separated keys, may be {@code null}
+   * @return the permission set
+   */
+  public static PermissionSet parse(String value) {
+    if (value == null) {
+      return EMPTY;
+    }
+    Builder builder = null;
+    int length = value.length();
+    int start = 0;
+    while (start < length) {
+      int end = value.indexOf(',', start);
+      if (end < 0) {
+        end = length;
+      }
+      int next = end + 1;
+      while (start < end && value.charAt(start) <= ' ') {
+        start++;
+      }
+      while (end > start && value.charAt(end - 1) <= ' ') {
+        end--;
+      }
+      if (start < end) {
+        if (builder == null) {
+          builder = builder();
+        }
+        int id = PermissionRegistry.idOf(value, start, end);
+        if (id != PermissionRegistry.UNKNOWN) {
+          builder.add(id);
+        } else {
+          builder.add(value.substring(start, end));
+        }
+      }
+      start = next;
+    }
+    return builder != null ? builder.build() : EMPTY;
+  }
+
+  /**
+   * Creates a new builder.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Checks whether the permission with the given registry id is granted.
+   *
+   * @param permissionId the id from {@link PermissionRegistry}
+   * @return {@code true} if the permission is granted
+   */
+  public boolean contains(int permissionId) {
+    long[] words = deferred ? resolved() : this.words;
+    int index = permissionId >>> 6;
+    return index < words.length && (words[index] & (1L << permissionId)) != 0;
+  }
+
+  /**
+   * Checks whether every permission of a mask is granted, in one pass over the bitset.
+   *
+   * @param mask permission ids as a bitset in the same layout, see {@link #mask(int...)}
+   * @return {@code true} if all ids of the mask are granted
+   */
+  public boolean containsAll(long[] mask) {
+    long[] words = deferred ? resolved() : this.words;
+    for (int i = 0; i < mask.length; i++) {
+      long word = i < words.length ? words[i] : 0L;
+      if ((word & mask[i]) != mask[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether any permission of a mask is granted, in one pass over the bitset.
+   *
+   * @param mask permission ids as a bitset in the same layout, see {@link #mask(int...)}
+   * @return {@code true} if at least one id of the mask is granted
+   */
+  public boolean containsAny(long[] mask) {
+    long[] words = deferred ? resolved() : this.words;
+    int length = Math.min(mask.length, words.length);
+    for (int i = 0; i < length; i++) {
+      if ((words[i] & mask[i]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Builds a mask for {@link #containsAll(long[])} and {@link #containsAny(long[])}.
+   *
+   * @param permissionIds the {@link PermissionRegistry} ids, not {@link PermissionRegistry#UNKNOWN}
+   * @return the ids as a bitset
+   */
+  public static long[] mask(int... permissionIds) {
+    int max = -1;
+    for (int id : permissionIds) {
+      max = Math.max(max, id);
+    }
+    if (max < 0) {
+      return new long[0];
+    }
+    long[] mask = new long[(max >>> 6) + 1];
+    for (int id : permissionIds) {
+      mask[id >>> 6] |= 1L << id;
+    }
+    return mask;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof String key)) {
+      return false;
+    }
+    int id = PermissionRegistry.idOf(key);
+    if (id != PermissionRegistry.UNKNOWN) {
+      return contains(id);
+    }
+    if (unregistered.contains(key)) {
+      return true;
+    }
+    if (patterns != null) {
+      for (String pattern : patterns) {
+        if (PermissionPattern.matches(pattern, key)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int size() {
+    if (!deferred) {
+      return size;
+    }
+    int count = 0;
+    for (long word : resolved()) {
+      count += Long.bitCount(word);
+    }
+    for (String key : unregistered) {
+      if (PermissionRegistry.idOf(key) == PermissionRegistry.UNKNOWN) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    long[] words = deferred ? resolved() : this.words;
+    return new Iterator<>() {
+
+      private int wordIndex = 0;
+      private long word = words.length > 0 ? words[0] : 0L;
+      private final Iterator<String> rest = unregistered.stream()
+          .filter(key -> PermissionRegistry.idOf(key) == PermissionRegistry.UNKNOWN)
+          .iterator();
+
+      @Override
+      public boolean hasNext() {
+        while (word == 0L && wordIndex < words.length - 1) {
+          word = words[++wordIndex];
+        }
+        return word != 0L || rest.hasNext();
+      }
+
+      @Override
+      public String next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        if (word == 0L) {
+          return rest.next();
+        }
+        int bit = Long.numberOfTrailingZeros(word);
+        word &= word - 1;
+        return PermissionRegistry.keyOf((wordIndex << 6) + bit);
+      }
+
+    };
+  }
+
+  /**
+   * Returns the bitset including the side-set keys registered since and the ids granted by the
+   * patterns, resolved again whenever the registry has grown.
+   */
+  private long[] resolved() {
+    int registered = PermissionRegistry.size();
+    Resolution current = resolution;
+    if (current != null && current.registered == registered) {
+      return current.words;
+    }
+    long[] resolved = words;
+    for (String key : unregistered) {
+      int id = PermissionRegistry.idOf(key);
+      if (id != PermissionRegistry.UNKNOWN) {
+        resolved = or(resolved, mask(id));
+      }
+    }
+    if (patterns != null) {
+      for (String pattern : patterns) {
+        resolved = or(resolved, PermissionPattern.expand(pattern));
+      }
+    }
+    // racing threads compute the same value; the last write wins
+    resolution = new Resolution(resolved, registered);
+    return resolved;
+  }
+
+  private long[] or(long[] words, long[] granted) {
+    long[] result = words == this.words || words.length < granted.length
+        ? Arrays.copyOf(words, Math.max(words.length, granted.length))
+        : words;
+    for (int i = 0; i < granted.length; i++) {
+      result[i] |= granted[i];
+    }
+    return result;
+  }
+
+  private record Resolution(long[] words, int registered) {
+  }
+
+  /**
+   * Mutable builder for {@link PermissionSet}. Not thread-safe.
+   */
+  public static final class Builder {
+
+    private long[] words = new long[1];
+    private Set<String> unregistered;
+    private Set<String> patterns;
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a permission key. A key without a {@link PermissionRegistry} id is kept as a string
+     * and never registered, so untrusted header values cannot fill the registry; it is matched as
+     * a bit once the key is declared. A wildcard grant adds every permission it matches, including
+     * those registered later (see {@link PermissionPattern}).
+     *
+     * @param key the permission key or pattern
+     * @return this builder
+     */
+    public Builder add(String key) {
+      if (PermissionPattern.isPattern(key)) {
+        if (patterns == null) {
+          patterns = new LinkedHashSet<>();
+        }
+        patterns.add(key);
+        return this;
+      }
+      int id = PermissionRegistry.idOf(key);
+      if (id == PermissionRegistry.UNKNOWN) {
+        if (unregistered == null) {
+          unregistered = new HashSet<>();
+        }
+        unregistered.add(key);
+        return this;
+      }
+      return add(id);
+    }
+
+    /**
+     * Adds a permission by its registry id.
+     *
+     * @param permissionId the id from {@link PermissionRegistry}
+     * @return this builder
+     */
+    public Builder add(int permissionId) {
+      int index = permissionId >>> 6;
+      if (index >= words.length) {
+        words = Arrays.copyOf(words, Math.max(index + 1, words.length << 1));
+      }
+      words[index] |= 1L << permissionId;
+      return this;
+    }
+
+    /**
+     * Builds the immutable permission set.
+     *
+     * @return the permission set
+     */
+    public PermissionSet build() {
+      int length = words.length;
+      while (length > 0 && words[length - 1] == 0L) {
+        length--;
+      }
+      int size = unregistered != null ? unregistered.size() : 0;
+      for (int i = 0; i < length; i++) {
+        size += Long.bitCount(words[i]);
+      }
+      if (size == 0 && patterns == null) {
+        return EMPTY;
+      }
+      return new PermissionSet(
+          Arrays.copyOf(words, length),
+          unregistered != null ? Set.copyOf(unregistered) : Set.of(),
+          patterns != null ? patterns.toArray(String[]::new) : null,
+          size);
+    }
+
+  }
+
+}
@@ -0,0 +1,169 @@
+package com.intern.hub.starter.security.processor;
+
+import com.intern.hub.starter.security.annotation.Authenticated;
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.annotation.HasPermissions;
+import com.intern.hub.starter.security.annotation.Internal;
+import com.intern.hub.starter.security.metadata.SecurityIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Annotation processor that writes the {@link SecurityIndex} of a module at compile time.
+ * <p>
+ * Collects every method annotated with {@link HasPermission}, {@link HasPermissions},
+ * {@link Internal} or {@link Authenticated}, and every method declared by a class annotated with
+ * {@link HasPermission} or {@link HasPermissions}, together with the permission keys they
+ * declare, and writes them to {@link SecurityIndex#LOCATION} in the class output. Enable it by
+ * adding the starter to the annotation processor path:
+ * </p>
+ * <pre>{@code
+ * annotationProcessor("com.github.FPT-IS-Intern:Intern-Hub-Security-Starter:<version>")
+ * }</pre>
+ * <p>
+ * The processor never claims the annotations, so other processors still see them.
+ * </p>
+ */
+@SupportedAnnotationTypes({
+    "com.intern.hub.starter.security.annotation.HasPermission",
+    "com.intern.hub.starter.security.annotation.HasPermissions",
+    "com.intern.hub.starter.security.annotation.Internal",
+    "com.intern.hub.starter.security.annotation.Authenticated"
+})
+public class SecurityIndexProcessor extends AbstractProcessor {
+
+  private final Map<String, String> methods = new TreeMap<>();
+
+  private final SortedSet<String> permissionKeys = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() == ElementKind.METHOD) {
+          add((ExecutableElement) element);
+        } else if (element.getKind().isClass() || element.getKind().isInterface()) {
+          for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+            if (!method.getModifiers().contains(Modifier.STATIC)) {
+              add(method);
+            }
+          }
+        }
+      }
+    }
+    if (roundEnv.processingOver() && !methods.isEmpty()) {
+      write();
+    }
+    return false;
+  }
+
+  private void add(ExecutableElement method) {
+    TypeElement type = (TypeElement) method.getEnclosingElement();
+    String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+    String parameterTypes = method.getParameters().stream()
+        .map(parameter -> typeName(parameter.asType()))
+        .collect(Collectors.joining(","));
+    String line = String.join("\t", SecurityIndex.METHOD, className, method.getSimpleName().toString(),
+        parameterTypes, requirement(type, method));
+    methods.put(className + "#" + method.getSimpleName() + "(" + parameterTypes + ")", line);
+  }
+
+  private String requirement(TypeElement type, ExecutableElement method) {
+    List<String> parts = new ArrayList<>(3);
+    if (method.getAnnotation(Internal.class) != null) {
+      parts.add("internal");
+    }
+    if (method.getAnnotation(Authenticated.class) != null) {
+      parts.add("authenticated");
+    }
+    List<String> groups = new ArrayList<>(2);
+    String classGroup = group(type);
+    if (classGroup != null) {
+      groups.add(classGroup);
+    }
+    String methodGroup = group(method);
+    if (methodGroup != null) {
+      groups.add(methodGroup);
+    }
+    if (!groups.isEmpty()) {
+      parts.add("permission=" + (groups.size() == 1
+          ? groups.getFirst()
+          : groups.stream().map(group -> group.contains(" ") ? "(" + group + ")" : group)
+          .collect(Collectors.joining(" & "))));
+    }
+    return String.join(";", parts);
+  }
+
+  private String group(Element element) {
+    HasPermission[] annotations = element.getAnnotationsByType(HasPermission.class);
+    if (annotations.length == 0) {
+      return null;
+    }
+    HasPermissions container = element.getAnnotation(HasPermissions.class);
+    boolean any = container != null && container.match() == HasPermissions.Match.ANY;
+    List<String> keys = new ArrayList<>(annotations.length);
+    for (HasPermission annotation : annotations) {
+      String key = annotation.resource() + ":" + annotation.action().value;
+      permissionKeys.add(key);
+      keys.add(key);
+    }
+    return String.join(any ? " | " : " & ", keys);
+  }
+
+  /**
+   * Returns the canonical name of the erased type, as {@link Class#getCanonicalName()} reports it
+   * at runtime. Type annotations, which {@link TypeMirror#toString()} would include, are dropped.
+   */
+  private String typeName(TypeMirror type) {
+    TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+    if (erased.getKind() == TypeKind.ARRAY) {
+      return typeName(((ArrayType) erased).getComponentType()) + "[]";
+    }
+    if (erased.getKind() == TypeKind.DECLARED) {
+      return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+    }
+    return erased.getKind().name().toLowerCase(Locale.ROOT);
+  }
+
+  private void write() {
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SecurityIndex.LOCATION);
+      try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+        writer.write("# Generated by " + getClass().getName() + ", do not edit\n");
+        for (String key : permissionKeys) {
+          writer.write(SecurityIndex.PERMISSION + "\t" + key + "\n");
+        }
+        for (String line : methods.values()) {
+          writer.write(line + "\n");
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Could not write " + SecurityIndex.LOCATION + ": " + e.getMessage());
+    }
+  }
+
+}
@@ -0,0 +1,215 @@
+package com.intern.hub.starter.security.ratelimit;
+
+import com.intern.hub.starter.security.context.AuthContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive limit on the number of requests in flight, shedding low-priority traffic first.
+ * <p>
+ * With virtual threads every request gets a thread, so a saturated service no longer pushes back
+ * through a full thread pool: it queues work on its downstream resources and every request slows
+ * down. This limiter supplies the missing back-pressure. Its limit follows AIMD on observed
+ * latency, comparing the average of the last {@value #RECENT_SAMPLES} or so requests with a
+ * baseline that averages the last {@value #BASELINE_PERIOD_SECONDS} seconds. While the recent
+ * latency stays within {@code latencyTolerance} times the baseline, every completed request raises
+ * the limit by {@code 1 / limit} (about one per round trip). Once queueing pushes it higher, the
+ * limit is cut by {@code backoffRatio}, at most once per round trip, i.e. only for requests started
+ * after the previous cut. Both only happen while at least half of the limit is in use. Comparing
+ * averages keeps a mix of fast and slow endpoints from looking like congestion, and a workload that
+ * becomes slower for good is accepted once the baseline has caught up.
+ * </p>
+ *
+ * <p>
+ * Each {@link Priority} may only fill a share of the limit, so when requests pile up anonymous
+ * traffic is refused first, then authenticated users, and internal calls last. All state is
+ * updated without locks; the baseline and additive increases tolerate lost updates under
+ * races, which only slow their convergence.
+ * </p>
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+  private static final int RECENT_SAMPLES = 64;
+
+  private static final int BASELINE_PERIOD_SECONDS = 10;
+
+  private static final double BASELINE_PERIOD_NANOS = BASELINE_PERIOD_SECONDS * 1_000_000_000d;
+
+  /**
+   * Priority of a request, from the lowest to the highest.
+   */
+  public enum Priority {
+
+    /**
+     * A request without {@code X-Authenticated: true}.
+     */
+    ANONYMOUS,
+
+    /**
+     * A request of an authenticated user.
+     */
+    USER,
+
+    /**
+     * A request to an internal path with valid internal credentials.
+     */
+    INTERNAL;
+
+    /**
+     * Returns the priority of a request with the given context.
+     *
+     * @param authContext the context
+     * @return the priority
+     */
+    public static Priority of(AuthContext authContext) {
+      if (authContext.internal()) {
+        return INTERNAL;
+      }
+      return authContext.authenticated() ? USER : ANONYMOUS;
+    }
+
+  }
+
+  private final int minLimit;
+
+  private final int maxLimit;
+
+  private final double backoffRatio;
+
+  private final double latencyTolerance;
+
+  private final double[] shares = new double[Priority.values().length];
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+  private final LongAdder shed = new LongAdder();
+
+  private volatile double limit;
+
+  private volatile double baselineNanos;
+
+  private volatile long baselineUpdated;
+
+  private volatile double recentNanos;
+
+  /**
+   * Creates a limiter.
+   *
+   * @param initialLimit     the limit before any latency is observed
+   * @param minLimit         the lowest limit, at least {@code 1}
+   * @param maxLimit         the highest limit
+   * @param backoffRatio     the factor applied to the limit on a slow request, between {@code 0}
+   *                         and {@code 1}
+   * @param latencyTolerance how many times the average latency a request may take before it
+   *                         counts as slow, greater than {@code 1}
+   * @param userShare        the share of the limit available to authenticated users
+   * @param anonymousShare   the share of the limit available to anonymous requests
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                    double latencyTolerance, double userShare, double anonymousShare) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("Invalid limit range: " + minLimit + ".." + maxLimit);
+    }
+    if (!(backoffRatio > 0 && backoffRatio < 1)) {
+      throw new IllegalArgumentException("backoffRatio must be between 0 and 1: " + backoffRatio);
+    }
+    if (!(latencyTolerance > 1)) {
+      throw new IllegalArgumentException("latencyTolerance must be greater than 1: " + latencyTolerance);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.latencyTolerance = latencyTolerance;
+    this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    shares[Priority.ANONYMOUS.ordinal()] = anonymousShare;
+    shares[Priority.USER.ordinal()] = userShare;
+    shares[Priority.INTERNAL.ordinal()] = 1d;
+  }
+
+  /**
+   * Admits a request if its priority's share of the limit is not used up. Every admitted request
+   * must be followed by exactly one {@link #release}.
+   *
+   * @param priority the priority of the request
+   * @return {@code true} if the request may proceed
+   */
+  public boolean tryAcquire(Priority priority) {
+    int allowed = Math.max(1, (int) (limit * shares[priority.ordinal()]));
+    if (inFlight.incrementAndGet() > allowed) {
+      inFlight.decrementAndGet();
+      shed.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Releases an admitted request and adapts the limit to its latency.
+   *
+   * @param startNanos the {@link System#nanoTime()} at which the request was admitted
+   */
+  public void release(long startNanos) {
+    long now = System.nanoTime();
+    int current = inFlight.getAndDecrement();
+    long latency = now - startNanos;
+    double baseline = baselineNanos;
+    if (baseline == 0d) {
+      baselineNanos = Math.max(1d, latency);
+      baselineUpdated = now;
+      recentNanos = latency;
+      return;
+    }
+    double weight = Math.min(1d, (now - baselineUpdated) / BASELINE_PERIOD_NANOS);
+    baselineNanos = baseline + (latency - baseline) * weight;
+    baselineUpdated = now;
+    double recent = recentNanos;
+    recent += (latency - recent) / RECENT_SAMPLES;
+    recentNanos = recent;
+    double currentLimit = limit;
+    if (current * 2 < currentLimit) {
+      // the limit is not what the requests are waiting on
+      return;
+    }
+    if (recent > baseline * latencyTolerance) {
+      long decreased = lastDecrease.get();
+      // one cut per round trip: requests admitted before the last cut already saw the old limit
+      if (startNanos - decreased > 0 && lastDecrease.compareAndSet(decreased, now)) {
+        limit = Math.max(minLimit, currentLimit * backoffRatio);
+      }
+    } else if (currentLimit < maxLimit) {
+      limit = Math.min(maxLimit, currentLimit + 1d / currentLimit);
+    }
+  }
+
+  /**
+   * Returns the current limit.
+   *
+   * @return the limit, rounded down
+   */
+  public int limit() {
+    return (int) limit;
+  }
+
+  /**
+   * Returns the number of admitted requests that have not been released.
+   *
+   * @return the requests in flight
+   */
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * Returns the number of requests refused since startup.
+   *
+   * @return the shed count
+   */
+  public long shedCount() {
+    return shed.sum();
+  }
+
+}
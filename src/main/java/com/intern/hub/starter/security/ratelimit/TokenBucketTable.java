@@ -0,0 +1,208 @@
+package com.intern.hub.starter.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed-memory table of token buckets, one per caller key.
+ * <p>
+ * Each bucket is stored as its theoretical arrival time (TAT): the instant at which the bucket
+ * would be full again. Taking a token moves the TAT forward by one emission interval and is
+ * allowed while the TAT stays within {@code burst} intervals of now, which is exactly a token
+ * bucket of {@code burst} tokens refilled at {@code permitsPerSecond}, updated with a single
+ * compare-and-set and without a refill timestamp.
+ * </p>
+ *
+ * <p>
+ * The table is an open-addressing array of {@code long} pairs (key, TAT). A caller is looked up
+ * in a window of {@value #MAX_PROBES} consecutive slots starting at the hash of its key, so
+ * unrelated callers rarely touch the same cache lines. A bucket whose TAT has passed is full,
+ * which is indistinguishable from a missing bucket: its slot is free for any other caller and
+ * idle callers never need to be removed. When every slot of a window holds an active bucket, the
+ * one closest to full is evicted, as a clock would, and the new caller starts with a full bucket.
+ * Memory is therefore bounded by the capacity, and evictions only ever err towards allowing a
+ * request. A claim racing with an update of the same slot can charge one request to the wrong
+ * bucket; limits are approximate under such races but never block.
+ * </p>
+ */
+public final class TokenBucketTable {
+
+  /**
+   * Number of consecutive slots searched for a key.
+   */
+  public static final int MAX_PROBES = 8;
+
+  private static final int MAX_RETRIES = 4;
+
+  private final AtomicLongArray slots;
+
+  private final int slotMask;
+
+  private final long intervalNanos;
+
+  private final long toleranceNanos;
+
+  private final long origin = System.nanoTime();
+
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a table.
+   *
+   * @param permitsPerSecond the sustained rate per key
+   * @param burst            the number of requests a key may make at once, at least {@code 1}
+   * @param capacity         the number of buckets, rounded up to a power of two
+   */
+  public TokenBucketTable(double permitsPerSecond, int burst, int capacity) {
+    if (!(permitsPerSecond > 0)) {
+      throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+    }
+    if (burst < 1) {
+      throw new IllegalArgumentException("burst must be at least 1: " + burst);
+    }
+    this.intervalNanos = Math.max(1L, Math.round(1_000_000_000d / permitsPerSecond));
+    this.toleranceNanos = intervalNanos * burst;
+    int size = Math.max(MAX_PROBES, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+    this.slotMask = size - 1;
+    this.slots = new AtomicLongArray(size * 2);
+  }
+
+  /**
+   * Takes a token from the bucket of the given key.
+   *
+   * @param key the caller key
+   * @return {@code 0} if a token was taken, otherwise the nanoseconds until one is available
+   */
+  public long tryAcquire(long key) {
+    // + 1 keeps "now" above the zero TAT of slots that were never used
+    return tryAcquire(key, System.nanoTime() - origin + 1);
+  }
+
+  long tryAcquire(long key, long now) {
+    for (int attempt = 0; ; attempt++) {
+      int start = mix(key) & slotMask;
+      int free = -1;
+      int victim = -1;
+      long victimKey = 0L;
+      long victimTat = Long.MAX_VALUE;
+      long freeKey = 0L;
+      long freeTat = 0L;
+      for (int probe = 0; probe < MAX_PROBES; probe++) {
+        int slot = ((start + probe) & slotMask) << 1;
+        long slotKey = slots.get(slot);
+        long tat = slots.get(slot + 1);
+        if (slotKey == key && tat != 0L) {
+          return take(slot + 1, now);
+        }
+        if (tat <= now) {
+          if (free < 0) {
+            free = slot;
+            freeKey = slotKey;
+            freeTat = tat;
+          }
+          if (tat == 0L) {
+            // slots are claimed front to back, so the key is not further along
+            break;
+          }
+        } else if (free < 0 && tat < victimTat) {
+          victim = slot;
+          victimKey = slotKey;
+          victimTat = tat;
+        }
+      }
+      if (free >= 0 ? claim(free, freeKey, freeTat, key, now) : claim(victim, victimKey, victimTat, key, now)) {
+        if (free < 0) {
+          evictions.increment();
+        }
+        return 0L;
+      }
+      if (attempt == MAX_RETRIES) {
+        // heavy contention on one window: let the request through rather than spin
+        return 0L;
+      }
+    }
+  }
+
+  private long take(int tatSlot, long now) {
+    long tat = slots.get(tatSlot);
+    while (true) {
+      long next = Math.max(tat, now) + intervalNanos;
+      long ahead = next - now;
+      if (ahead > toleranceNanos) {
+        return ahead - toleranceNanos;
+      }
+      long witness = slots.compareAndExchange(tatSlot, tat, next);
+      if (witness == tat) {
+        return 0L;
+      }
+      tat = witness;
+    }
+  }
+
+  /**
+   * Gives back a token taken by {@link #tryAcquire(long)} for a request that was refused later on.
+   * Does nothing if the bucket is already full or was evicted.
+   *
+   * @param key the caller key
+   */
+  public void refund(long key) {
+    refund(key, System.nanoTime() - origin + 1);
+  }
+
+  void refund(long key, long now) {
+    int start = mix(key) & slotMask;
+    for (int probe = 0; probe < MAX_PROBES; probe++) {
+      int slot = ((start + probe) & slotMask) << 1;
+      long tat = slots.get(slot + 1);
+      if (tat == 0L) {
+        return;
+      }
+      if (slots.get(slot) == key) {
+        while (tat > now) {
+          // never back to zero, which marks a slot that was never used
+          long witness = slots.compareAndExchange(slot + 1, tat, Math.max(1L, tat - intervalNanos));
+          if (witness == tat) {
+            return;
+          }
+          tat = witness;
+        }
+        return;
+      }
+    }
+  }
+
+  private boolean claim(int slot, long expectedKey, long expectedTat, long key, long now) {
+    if (slots.compareAndExchange(slot, expectedKey, key) != expectedKey) {
+      return false;
+    }
+    // fails if a caller that found the key in the meantime updated the bucket first; the retry
+    // then takes a token from it
+    return slots.compareAndSet(slot + 1, expectedTat, now + intervalNanos);
+  }
+
+  /**
+   * Returns the number of active buckets evicted to make room for another key.
+   *
+   * @return the eviction count
+   */
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Returns the number of buckets.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return slotMask + 1;
+  }
+
+  private static int mix(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+
+}
@@ -0,0 +1,127 @@
+package com.intern.hub.starter.security.signature;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed-memory cache of recently seen nonces, used to reject replayed signed requests.
+ * <p>
+ * Time is split into buckets of equal width, chosen so that every timestamp accepted within the
+ * clock-skew window maps to a distinct bucket. Each bucket is an open-addressing table of
+ * {@code long} slots holding a 16-bit epoch tag and a 48-bit fingerprint of the nonce. A slot whose
+ * tag does not match the current epoch of its bucket is free, so buckets are recycled without ever
+ * being cleared and no lock or background task is needed. Slots are claimed with a single
+ * compare-and-set.
+ * </p>
+ *
+ * <p>
+ * When a bucket is so full that a nonce cannot be placed within {@value #MAX_PROBES} probes, the
+ * request is rejected (fail closed) and counted as an overflow; size the capacity for the peak
+ * request rate times the bucket width.
+ * </p>
+ */
+public final class NonceReplayCache {
+
+  /**
+   * Maximum number of slots probed per lookup.
+   */
+  public static final int MAX_PROBES = 16;
+
+  private static final long FINGERPRINT_MASK = (1L << 48) - 1;
+
+  private final long maxSkewMillis;
+
+  private final long bucketWidthMillis;
+
+  private final int bucketCount;
+
+  private final AtomicLongArray slots;
+
+  private final int bucketMask;
+
+  private final int bucketShift;
+
+  private final LongAdder overflows = new LongAdder();
+
+  /**
+   * Creates a cache.
+   *
+   * @param maxClockSkew   the maximum accepted distance between a request timestamp and the
+   *                       current time
+   * @param buckets        the number of time buckets, at least {@code 2}
+   * @param bucketCapacity the number of slots per bucket, rounded up to a power of two
+   */
+  public NonceReplayCache(Duration maxClockSkew, int buckets, int bucketCapacity) {
+    if (buckets < 2) {
+      throw new IllegalArgumentException("At least 2 nonce buckets are required");
+    }
+    this.maxSkewMillis = maxClockSkew.toMillis();
+    this.bucketCount = buckets;
+    // the accepted window spans 2 * skew, so it touches at most `buckets` consecutive epochs
+    this.bucketWidthMillis = Math.max(1, (2 * maxSkewMillis + buckets - 2) / (buckets - 1));
+    int capacity = Math.max(MAX_PROBES, Integer.highestOneBit(Math.max(1, bucketCapacity - 1)) << 1);
+    this.bucketMask = capacity - 1;
+    this.bucketShift = Integer.numberOfTrailingZeros(capacity);
+    this.slots = new AtomicLongArray(buckets * capacity);
+  }
+
+  /**
+   * Checks that the timestamp is within the clock-skew window and records the nonce.
+   *
+   * @param nonce     the nonce
+   * @param timestamp the request timestamp in epoch milliseconds
+   * @param now       the current time in epoch milliseconds
+   * @return {@code true} if the request is fresh and the nonce was not seen before
+   */
+  public boolean tryAccept(String nonce, long timestamp, long now) {
+    if (Math.abs(now - timestamp) > maxSkewMillis) {
+      return false;
+    }
+    long epoch = Math.floorDiv(timestamp, bucketWidthMillis);
+    long tag = (epoch & 0xFFFF) << 48;
+    long fingerprint = fingerprint(nonce);
+    long entry = tag | fingerprint;
+    int base = (int) Math.floorMod(epoch, bucketCount) << bucketShift;
+    int index = (int) fingerprint & bucketMask;
+    for (int probe = 0; probe < MAX_PROBES; probe++, index = (index + 1) & bucketMask) {
+      int slot = base + index;
+      long current = slots.get(slot);
+      while ((current & ~FINGERPRINT_MASK) != tag || current == 0L) {
+        long witness = slots.compareAndExchange(slot, current, entry);
+        if (witness == current) {
+          return true;
+        }
+        current = witness;
+      }
+      if (current == entry) {
+        return false;
+      }
+    }
+    overflows.increment();
+    return false;
+  }
+
+  /**
+   * Returns the number of requests rejected because their bucket was full.
+   *
+   * @return the overflow count
+   */
+  public long overflowCount() {
+    return overflows.sum();
+  }
+
+  private static long fingerprint(String nonce) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < nonce.length(); i++) {
+      hash ^= nonce.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash &= FINGERPRINT_MASK;
+    return hash != 0L ? hash : 1L;
+  }
+
+}
@@ -0,0 +1,46 @@
+package com.intern.hub.starter.security.smoke;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Native-image smoke test of the starter.
+ * <p>
+ * Starts a servlet application in the proxy-free setup ({@code enforcement-mode=interceptor},
+ * {@code service-aspect-enabled=false}), calls the guarded {@link SmokeController} once with and
+ * once without the required permission, and fails with a non-zero exit code if either answer is
+ * wrong. Built and run by {@code ./gradlew nativeSmokeTest -PnativeSmoke} with GraalVM.
+ * </p>
+ */
+@SpringBootApplication
+public class NativeSmokeApplication {
+
+  public static void main(String[] args) throws Exception {
+    try (ConfigurableApplicationContext context = SpringApplication.run(NativeSmokeApplication.class, args)) {
+      int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+      HttpClient client = HttpClient.newHttpClient();
+      int granted = get(client, port, "X-Authenticated", "true", "X-UserId", "1", "X-Authorities", "smoke:read");
+      int denied = get(client, port, "X-Authenticated", "true", "X-UserId", "1", "X-Authorities", "smoke:create");
+      if (granted != 200 || denied == 200) {
+        throw new IllegalStateException("Native smoke test failed: granted request answered " + granted
+            + ", denied request answered " + denied);
+      }
+      System.out.println("Native smoke test passed");
+    }
+  }
+
+  private static int get(HttpClient client, int port, String... headers) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/smoke"))
+        .headers(headers)
+        .GET()
+        .build();
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+}
@@ -0,0 +1,20 @@
+package com.intern.hub.starter.security.smoke;
+
+import com.intern.hub.starter.security.annotation.HasPermission;
+import com.intern.hub.starter.security.entity.Action;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Guarded endpoint called by {@link NativeSmokeApplication}.
+ */
+@RestController
+public class SmokeController {
+
+  @GetMapping("/smoke")
+  @HasPermission(resource = "smoke", action = Action.READ)
+  public String smoke() {
+    return "ok";
+  }
+
+}